@@ -0,0 +1,96 @@
+package com.example.featureselection.config;
+
+import com.example.featureselection.data.StreamingSettings;
+import com.example.featureselection.data.TextSettings;
+import com.example.featureselection.data.TextVectorizer;
+import com.example.featureselection.embedded.ForestSettings;
+import com.example.featureselection.stats.Binning;
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.example.featureselection.util.ScoringExecutor;
+import com.example.featureselection.util.StageRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class ScoringConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringConfig.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public ScoringExecutor scoringExecutor(@Value("${featureselection.scoring.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        logger.info("Feature scoring pool parallelism: {}", threads);
+        return new ScoringExecutor(threads);
+    }
+
+    @Bean
+    public DiscretizationSettings discretizationSettings(
+            @Value("${featureselection.discretization.bins:10}") int bins,
+            @Value("${featureselection.discretization.binning:EQUAL_WIDTH}") Binning binning) {
+        return new DiscretizationSettings(bins, binning);
+    }
+
+    @Bean
+    public ForestSettings forestSettings(
+            @Value("${featureselection.rf.adaptive:true}") boolean adaptive,
+            @Value("${featureselection.rf.max-trees:100}") int maxTrees,
+            @Value("${featureselection.rf.batch-trees:20}") int batchTrees,
+            @Value("${featureselection.rf.stability-threshold:0.95}") double stabilityThreshold,
+            @Value("${featureselection.rf.top-k:20}") int topK,
+            @Value("${featureselection.rf.sample-rows:50000}") int sampleRows) {
+        return new ForestSettings(adaptive, maxTrees, batchTrees, stabilityThreshold, topK, sampleRows);
+    }
+
+    @Bean
+    public TextSettings textSettings(
+            @Value("${featureselection.text.vectorizer:VOCABULARY}") TextVectorizer vectorizer,
+            @Value("${featureselection.text.vocabulary-size:30}") int vocabularySize,
+            @Value("${featureselection.text.hash-buckets:64}") int hashBuckets,
+            @Value("${featureselection.text.bucket-tokens:3}") int bucketTokens) {
+        return new TextSettings(vectorizer, vocabularySize, hashBuckets, bucketTokens);
+    }
+
+    @Bean
+    public StreamingSettings streamingSettings(
+            @Value("${featureselection.streaming.min-upload-size:0}") DataSize minUploadSize,
+            @Value("${featureselection.streaming.chunk-rows:10000}") int chunkRows) {
+        return new StreamingSettings(minUploadSize.toBytes(), chunkRows);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor analysisStageExecutor(@Value("${featureselection.stages.threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("analysis-stage-");
+        return executor;
+    }
+
+    /**
+     * Runs asynchronous analysis jobs: {@code concurrency} at a time, with at
+     * most {@code queue-capacity} waiting; further submissions are rejected.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor analysisJobExecutor(
+            @Value("${featureselection.jobs.concurrency:2}") int concurrency,
+            @Value("${featureselection.jobs.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("analysis-job-");
+        return executor;
+    }
+
+    @Bean
+    public StageRunner stageRunner(@Qualifier("analysisStageExecutor") ThreadPoolTaskExecutor analysisStageExecutor,
+            @Value("${featureselection.stages.timeout-seconds:600}") long timeoutSeconds) {
+        return new StageRunner(analysisStageExecutor, timeoutSeconds * 1000);
+    }
+}
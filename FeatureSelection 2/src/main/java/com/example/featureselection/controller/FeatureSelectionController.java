@@ -1,6 +1,8 @@
 package com.example.featureselection.controller;
 
+import com.example.featureselection.model.JobInfo;
 import com.example.featureselection.model.SelectionResult;
+import com.example.featureselection.service.AnalysisJobService;
 import com.example.featureselection.service.FeatureSelectionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,15 +10,20 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
+
 @RestController
 @RequestMapping("/api/feature-selection")
 public class FeatureSelectionController {
 
     private static final Logger log = LoggerFactory.getLogger(FeatureSelectionController.class);
     private final FeatureSelectionService featureSelectionService;
+    private final AnalysisJobService analysisJobService;
 
-    public FeatureSelectionController(FeatureSelectionService featureSelectionService) {
+    public FeatureSelectionController(FeatureSelectionService featureSelectionService,
+            AnalysisJobService analysisJobService) {
         this.featureSelectionService = featureSelectionService;
+        this.analysisJobService = analysisJobService;
     }
 
     @PostMapping(value = "/analyze", consumes = "multipart/form-data")
@@ -32,4 +39,35 @@ public class FeatureSelectionController {
         SelectionResult result = featureSelectionService.analyze(file, targetFeature, idUser, skipTextVectorization);
         return ResponseEntity.ok(result);
     }
+
+    @PostMapping(value = "/jobs", consumes = "multipart/form-data")
+    public ResponseEntity<JobInfo> submitJob(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam("targetFeature") String targetFeature,
+            @RequestParam("idUser") String idUser,
+            @RequestParam(value = "skipTextVectorization", defaultValue = "false") boolean skipTextVectorization) {
+
+        log.info("Received analysis job: targetFeature={}, idUser={}, fileName={}, fileSize={}",
+                targetFeature, idUser, file.getOriginalFilename(), file.getSize());
+
+        JobInfo job = analysisJobService.submit(file, targetFeature, idUser, skipTextVectorization);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/feature-selection/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<JobInfo> jobStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(analysisJobService.status(jobId));
+    }
+
+    @GetMapping("/jobs/{jobId}/result")
+    public ResponseEntity<SelectionResult> jobResult(@PathVariable String jobId) {
+        return ResponseEntity.ok(analysisJobService.result(jobId));
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<JobInfo> cancelJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(analysisJobService.cancel(jobId));
+    }
 }
@@ -0,0 +1,255 @@
+package com.example.featureselection.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Term counts of one text column, built in a single pass: every document is
+ * tokenized once, and the pass fills both the corpus term frequencies and a
+ * sparse document-term matrix (one row per document, CSR layout). The
+ * vocabulary is the {@code vocabularySize} most frequent kept tokens; ties go
+ * to the token seen first.
+ */
+public final class BagOfWords {
+
+    private final int documents;
+    private final List<String> vocabulary;
+    // CSR over vocabulary slots: row i holds entries rowStart[i] until rowStart[i + 1].
+    private final int[] rowStart;
+    private final int[] terms;
+    private final int[] counts;
+
+    private BagOfWords(int documents, List<String> vocabulary, int[] rowStart, int[] terms, int[] counts) {
+        this.documents = documents;
+        this.vocabulary = vocabulary;
+        this.rowStart = rowStart;
+        this.terms = terms;
+        this.counts = counts;
+    }
+
+    /**
+     * @param keep tokens that may enter the vocabulary
+     */
+    public static BagOfWords fit(List<String> texts, int vocabularySize, Predicate<String> keep) {
+        if (vocabularySize < 0) {
+            throw new IllegalArgumentException("vocabularySize must not be negative: " + vocabularySize);
+        }
+        int documents = texts.size();
+        Tokenizer tokenizer = new Tokenizer();
+        Terms terms = new Terms(keep);
+        int[] frequency = new int[256];
+
+        int[] rowStart = new int[documents + 1];
+        int[] entryTerms = new int[1024];
+        int[] entryCounts = new int[1024];
+        int entries = 0;
+        int[] document = new int[64];
+
+        for (int d = 0; d < documents; d++) {
+            int length = 0;
+            int count = tokenizer.tokenize(texts.get(d));
+            for (int t = 0; t < count; t++) {
+                int id = terms.id(tokenizer, t);
+                if (id < 0)
+                    continue;
+                if (id >= frequency.length)
+                    frequency = Arrays.copyOf(frequency, Math.max(frequency.length * 2, id + 1));
+                frequency[id]++;
+                if (length == document.length)
+                    document = Arrays.copyOf(document, length * 2);
+                document[length++] = id;
+            }
+
+            // Sorted ids collapse into (term, count) entries.
+            Arrays.sort(document, 0, length);
+            for (int i = 0; i < length;) {
+                int j = i + 1;
+                while (j < length && document[j] == document[i])
+                    j++;
+                if (entries == entryTerms.length) {
+                    entryTerms = Arrays.copyOf(entryTerms, entries * 2);
+                    entryCounts = Arrays.copyOf(entryCounts, entries * 2);
+                }
+                entryTerms[entries] = document[i];
+                entryCounts[entries] = j - i;
+                entries++;
+                i = j;
+            }
+            rowStart[d + 1] = entries;
+        }
+
+        int[] slot = topTerms(frequency, terms.size(), vocabularySize);
+        int size = 0;
+        for (int s : slot) {
+            if (s >= 0)
+                size++;
+        }
+        String[] vocabulary = new String[size];
+        for (int id = 0; id < terms.size(); id++) {
+            if (slot[id] >= 0)
+                vocabulary[slot[id]] = terms.token(id);
+        }
+
+        // Keep only vocabulary entries, renumbered to their slot.
+        int[] keptStart = new int[documents + 1];
+        int kept = 0;
+        for (int d = 0; d < documents; d++) {
+            for (int e = rowStart[d]; e < rowStart[d + 1]; e++) {
+                int s = slot[entryTerms[e]];
+                if (s >= 0) {
+                    entryTerms[kept] = s;
+                    entryCounts[kept] = entryCounts[e];
+                    kept++;
+                }
+            }
+            keptStart[d + 1] = kept;
+        }
+        return new BagOfWords(documents, List.of(vocabulary), keptStart, Arrays.copyOf(entryTerms, kept),
+                Arrays.copyOf(entryCounts, kept));
+    }
+
+    /**
+     * Vocabulary slot of every token id (-1 when not in the vocabulary), by
+     * descending frequency and then by id. Rejected tokens have no frequency
+     * and never enter.
+     */
+    private static int[] topTerms(int[] frequency, int distinct, int limit) {
+        Integer[] order = new Integer[distinct];
+        for (int id = 0; id < distinct; id++)
+            order[id] = id;
+        int[] counts = Arrays.copyOf(frequency, distinct);
+        Arrays.sort(order, (a, b) -> counts[a] != counts[b] ? Integer.compare(counts[b], counts[a])
+                : Integer.compare(a, b));
+        int[] slot = new int[distinct];
+        Arrays.fill(slot, -1);
+        for (int rank = 0; rank < Math.min(limit, distinct) && counts[order[rank]] > 0; rank++)
+            slot[order[rank]] = rank;
+        return slot;
+    }
+
+    /**
+     * Open-addressing table from token spans to ids in order of first
+     * appearance. A token's string is built, and the keep predicate run, only
+     * the first time it is seen; rejected tokens stay in the table so they
+     * are not tested again.
+     */
+    private static final class Terms {
+
+        private final Predicate<String> keep;
+        private int[] table = new int[1024];
+        private String[] tokens = new String[512];
+        private int[] hashes = new int[512];
+        private boolean[] kept = new boolean[512];
+        private int size;
+
+        private Terms(Predicate<String> keep) {
+            this.keep = keep;
+            Arrays.fill(table, -1);
+        }
+
+        /**
+         * Id of the token, or -1 when the predicate rejects it.
+         */
+        int id(Tokenizer tokenizer, int token) {
+            int hash = tokenizer.hash(token);
+            int mask = table.length - 1;
+            for (int i = spread(hash) & mask;; i = (i + 1) & mask) {
+                int id = table[i];
+                if (id < 0) {
+                    id = add(tokenizer.token(token), hash);
+                    return kept[id] ? id : -1;
+                }
+                if (hashes[id] == hash && tokenizer.matches(token, tokens[id]))
+                    return kept[id] ? id : -1;
+            }
+        }
+
+        private int add(String token, int hash) {
+            if (size == tokens.length) {
+                tokens = Arrays.copyOf(tokens, size * 2);
+                hashes = Arrays.copyOf(hashes, size * 2);
+                kept = Arrays.copyOf(kept, size * 2);
+            }
+            int id = size++;
+            tokens[id] = token;
+            hashes[id] = hash;
+            kept[id] = keep.test(token);
+            if (size * 2 > table.length)
+                rehash(table.length * 2);
+            else
+                insert(table, id);
+            return id;
+        }
+
+        private void rehash(int capacity) {
+            table = new int[capacity];
+            Arrays.fill(table, -1);
+            for (int id = 0; id < size; id++)
+                insert(table, id);
+        }
+
+        private void insert(int[] table, int id) {
+            int mask = table.length - 1;
+            int i = spread(hashes[id]) & mask;
+            while (table[i] >= 0)
+                i = (i + 1) & mask;
+            table[i] = id;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        int size() {
+            return size;
+        }
+
+        String token(int id) {
+            return tokens[id];
+        }
+    }
+
+    public List<String> vocabulary() {
+        return vocabulary;
+    }
+
+    public int documents() {
+        return documents;
+    }
+
+    /**
+     * Stored (document, term) entries.
+     */
+    public int nonZeros() {
+        return terms.length;
+    }
+
+    /**
+     * Count columns of the whole vocabulary in sparse form, transposed from the
+     * document rows in two scans of the matrix.
+     */
+    public SparseColumn[] columns() {
+        int[] nonZeros = new int[vocabulary.size()];
+        for (int term : terms)
+            nonZeros[term]++;
+        int[][] rows = new int[nonZeros.length][];
+        double[][] values = new double[nonZeros.length][];
+        for (int t = 0; t < nonZeros.length; t++) {
+            rows[t] = new int[nonZeros[t]];
+            values[t] = new double[nonZeros[t]];
+        }
+        int[] filled = new int[nonZeros.length];
+        for (int d = 0; d < documents; d++) {
+            for (int e = rowStart[d]; e < rowStart[d + 1]; e++) {
+                int t = terms[e];
+                rows[t][filled[t]] = d;
+                values[t][filled[t]++] = counts[e];
+            }
+        }
+        SparseColumn[] columns = new SparseColumn[nonZeros.length];
+        for (int t = 0; t < columns.length; t++)
+            columns[t] = new SparseColumn(documents, rows[t], values[t]);
+        return columns;
+    }
+}
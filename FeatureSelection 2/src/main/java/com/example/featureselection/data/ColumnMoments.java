@@ -0,0 +1,230 @@
+package com.example.featureselection.data;
+
+import com.example.featureselection.stats.ContingencyTable;
+import com.example.featureselection.util.ScoringExecutor;
+
+/**
+ * Sufficient statistics of every feature against one target, gathered in a
+ * single pass over the matrix: n, Σx, Σx², Σxy and, for a class target,
+ * per-class Σx. The linear scorers derive their statistics from these without
+ * reading the columns again. Obtain it through
+ * {@link FeatureMatrix#moments(int[], ScoringExecutor)} or
+ * {@link FeatureMatrix#moments(double[], ScoringExecutor)}.
+ * <p>
+ * Rows are accumulated in fixed blocks that are merged in block order, so the
+ * result does not depend on the pool size. Each column is shifted by its
+ * first value before accumulating to keep the centered sums accurate.
+ * Sparse columns are accumulated whole, unshifted, from their non-zeros
+ * alone: a zero adds nothing to any of the sums.
+ */
+public class ColumnMoments {
+
+    static final int BLOCK_ROWS = 1 << 16;
+
+    private final Object target;
+    private final int rows;
+    private final int classes;
+    private final int[] classCounts;
+    private final int nonEmptyClasses;
+
+    private final double targetSum;
+    private final double targetSumSq;
+    private final double[] sum;
+    private final double[] sumSq;
+    private final double[] sumXY;
+    private final double[] classSum;
+
+    private ColumnMoments(Object target, int rows, int features, int[] classCounts, double targetSum,
+            double targetSumSq) {
+        this.target = target;
+        this.rows = rows;
+        this.classCounts = classCounts;
+        this.classes = classCounts.length;
+        int nonEmpty = 0;
+        for (int count : classCounts) {
+            if (count > 0)
+                nonEmpty++;
+        }
+        this.nonEmptyClasses = nonEmpty;
+        this.targetSum = targetSum;
+        this.targetSumSq = targetSumSq;
+        this.sum = new double[features];
+        this.sumSq = new double[features];
+        this.sumXY = new double[features];
+        this.classSum = new double[features * classes];
+    }
+
+    /**
+     * Wraps sums gathered elsewhere, already shifted; {@code classSum} is laid
+     * out as {@code [feature * classes + class]}.
+     */
+    static ColumnMoments of(int rows, int[] classCounts, double targetSum, double targetSumSq, double[] sum,
+            double[] sumSq, double[] sumXY, double[] classSum) {
+        ColumnMoments moments = new ColumnMoments(null, rows, sum.length, classCounts, targetSum, targetSumSq);
+        System.arraycopy(sum, 0, moments.sum, 0, sum.length);
+        System.arraycopy(sumSq, 0, moments.sumSq, 0, sumSq.length);
+        System.arraycopy(sumXY, 0, moments.sumXY, 0, sumXY.length);
+        System.arraycopy(classSum, 0, moments.classSum, 0, classSum.length);
+        return moments;
+    }
+
+    static ColumnMoments compute(FeatureMatrix x, Object target, double[] y, int[] codes, ScoringExecutor executor) {
+        int rows = x.rows();
+        int features = x.features();
+        int[] classCounts = new int[codes == null ? 0 : ContingencyTable.cardinality(codes)];
+        if (codes != null) {
+            for (int c : codes) {
+                classCounts[c]++;
+            }
+        }
+
+        double yShift = rows > 0 ? y[0] : 0.0;
+        double ySum = 0.0;
+        double ySumSq = 0.0;
+        for (int i = 0; i < rows; i++) {
+            double v = y[i] - yShift;
+            ySum += v;
+            ySumSq += v * v;
+        }
+
+        ColumnMoments moments = new ColumnMoments(target, rows, features, classCounts, ySum, ySumSq);
+        int blocks = Math.max(1, (rows + BLOCK_ROWS - 1) / BLOCK_ROWS);
+        if (blocks == 1) {
+            executor.forEach(features, j -> {
+                if (x.isSparse(j))
+                    accumulate(j, x.sparse(j), y, yShift, codes, moments);
+                else
+                    accumulate(j, x.column(j), y, yShift, codes, 0, rows, moments);
+            });
+            return moments;
+        }
+
+        ColumnMoments[] partials = new ColumnMoments[blocks];
+        for (int b = 0; b < blocks; b++) {
+            partials[b] = new ColumnMoments(target, rows, features, classCounts, 0, 0);
+        }
+        executor.forEach(features * blocks, task -> {
+            int j = task / blocks;
+            int b = task % blocks;
+            if (x.isSparse(j)) {
+                if (b == 0)
+                    accumulate(j, x.sparse(j), y, yShift, codes, partials[b]);
+                return;
+            }
+            int from = b * BLOCK_ROWS;
+            int to = Math.min(rows, from + BLOCK_ROWS);
+            accumulate(j, x.column(j), y, yShift, codes, from, to, partials[b]);
+        });
+        executor.forEach(features, j -> {
+            for (ColumnMoments partial : partials) {
+                moments.merge(j, partial);
+            }
+        });
+        return moments;
+    }
+
+    private static void accumulate(int j, double[] col, double[] y, double yShift, int[] codes, int from, int to,
+            ColumnMoments into) {
+        double shift = col.length > 0 ? col[0] : 0.0;
+        double s = 0.0;
+        double ss = 0.0;
+        double sxy = 0.0;
+        int base = j * into.classes;
+        for (int i = from; i < to; i++) {
+            double v = col[i] - shift;
+            s += v;
+            ss += v * v;
+            sxy += v * (y[i] - yShift);
+            if (codes != null) {
+                into.classSum[base + codes[i]] += v;
+            }
+        }
+        into.sum[j] = s;
+        into.sumSq[j] = ss;
+        into.sumXY[j] = sxy;
+    }
+
+    private static void accumulate(int j, SparseColumn col, double[] y, double yShift, int[] codes,
+            ColumnMoments into) {
+        int[] rows = col.rows();
+        double[] values = col.values();
+        double s = 0.0;
+        double ss = 0.0;
+        double sxy = 0.0;
+        int base = j * into.classes;
+        for (int k = 0; k < rows.length; k++) {
+            double v = values[k];
+            int i = rows[k];
+            s += v;
+            ss += v * v;
+            sxy += v * (y[i] - yShift);
+            if (codes != null) {
+                into.classSum[base + codes[i]] += v;
+            }
+        }
+        into.sum[j] = s;
+        into.sumSq[j] = ss;
+        into.sumXY[j] = sxy;
+    }
+
+    private void merge(int j, ColumnMoments partial) {
+        sum[j] += partial.sum[j];
+        sumSq[j] += partial.sumSq[j];
+        sumXY[j] += partial.sumXY[j];
+        int base = j * classes;
+        for (int c = 0; c < classes; c++) {
+            classSum[base + c] += partial.classSum[base + c];
+        }
+    }
+
+    boolean isFor(Object y) {
+        return target == y;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Number of classes with at least one sample (0 for a continuous target).
+     */
+    public int classes() {
+        return nonEmptyClasses;
+    }
+
+    /**
+     * Σ(x - x̄)².
+     */
+    public double centeredSumOfSquares(int j) {
+        return Math.max(0.0, sumSq[j] - sum[j] * sum[j] / rows);
+    }
+
+    /**
+     * Σ(y - ȳ)².
+     */
+    public double targetCenteredSumOfSquares() {
+        return Math.max(0.0, targetSumSq - targetSum * targetSum / rows);
+    }
+
+    /**
+     * Σ(x - x̄)(y - ȳ).
+     */
+    public double centeredCrossProduct(int j) {
+        return sumXY[j] - sum[j] * targetSum / rows;
+    }
+
+    /**
+     * Σ n_c (x̄_c - x̄)², the between-class sum of squares of feature j.
+     */
+    public double betweenClassSumOfSquares(int j) {
+        double between = 0.0;
+        int base = j * classes;
+        for (int c = 0; c < classes; c++) {
+            if (classCounts[c] == 0)
+                continue;
+            double s = classSum[base + c];
+            between += s * s / classCounts[c];
+        }
+        return Math.max(0.0, between - sum[j] * sum[j] / rows);
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.featureselection.data;
+
+import com.univocity.parsers.common.ParsingContext;
+import com.univocity.parsers.common.processor.AbstractRowProcessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Single-pass CSV ingestion. The first row is taken as the header; every
+ * following row is appended straight into typed column buffers while column
+ * types are inferred on the fly:
+ * <ul>
+ * <li>a column is numeric once its first {@value #TYPE_CHECKS} non-empty
+ * values parse as doubles (or the input ends first), and text as soon as one
+ * of those values does not;</li>
+ * <li>raw strings are only retained for undecided and text columns;</li>
+ * <li>the target column is buffered as numbers and dictionary-encoded by first
+ * appearance, until it holds more than
+ * {@value IngestedDataset#MAX_CLASSIFICATION_LABELS} distinct values, all
+ * numeric, and so can only be continuous. Should a non-numeric label follow,
+ * the encoding is rebuilt from the buffered numbers.</li>
+ * </ul>
+ * With text cleaning on, values of text columns and non-numeric target labels
+ * pass through {@link TextCleaner} as they are appended. With a sample size,
+ * a {@link StratifiedReservoir} keyed by the target label draws the row sample
+ * for the model-based stages in the same pass.
+ */
+public class CsvColumnProcessor extends AbstractRowProcessor {
+
+    static final int TYPE_CHECKS = 20;
+
+    private enum Kind {
+        UNDECIDED, NUMERIC, TEXT, IGNORED, TARGET
+    }
+
+    private final String targetFeature;
+    private final Predicate<String> ignoreColumn;
+    private final boolean cleanText;
+    private final StratifiedReservoir reservoir;
+
+    private String[] headers;
+    private int targetIndex = -1;
+    private Kind[] kinds;
+    private int[] typeChecks;
+    private DoubleColumnBuffer[] numeric;
+    private List<List<String>> text;
+    private int rowCount;
+
+    private final DoubleColumnBuffer targetValues = new DoubleColumnBuffer();
+    // Null while the target is known to be continuous.
+    private Map<String, Integer> labelCodes = new HashMap<>();
+    private List<String> labels = new ArrayList<>();
+    private int[] targetCodes = new int[1024];
+    private int numericLabels;
+    private boolean textLabels;
+    // Set by rebuildLabels(): numbers are then keyed by their parsed value.
+    private boolean canonicalNumbers;
+
+    public CsvColumnProcessor(String targetFeature, Predicate<String> ignoreColumn) {
+        this(targetFeature, ignoreColumn, false);
+    }
+
+    public CsvColumnProcessor(String targetFeature, Predicate<String> ignoreColumn, boolean cleanText) {
+        this(targetFeature, ignoreColumn, cleanText, 0);
+    }
+
+    /**
+     * @param sampleRows rows to sample for the model-based stages, 0 for none
+     */
+    public CsvColumnProcessor(String targetFeature, Predicate<String> ignoreColumn, boolean cleanText,
+            int sampleRows) {
+        if (sampleRows < 0) {
+            throw new IllegalArgumentException("sampleRows must not be negative: " + sampleRows);
+        }
+        this.targetFeature = targetFeature;
+        this.ignoreColumn = ignoreColumn;
+        this.cleanText = cleanText;
+        this.reservoir = sampleRows > 0 ? new StratifiedReservoir(sampleRows) : null;
+    }
+
+    @Override
+    public void rowProcessed(String[] row, ParsingContext context) {
+        if (headers == null) {
+            processHeader(row, context);
+            return;
+        }
+
+        for (int c = 0; c < kinds.length; c++) {
+            switch (kinds[c]) {
+                case NUMERIC:
+                    appendNumeric(c, valueAt(row, c));
+                    break;
+                case TEXT:
+                    text.get(c).add(cleanText ? TextCleaner.clean(valueAt(row, c)) : valueAt(row, c));
+                    break;
+                case UNDECIDED:
+                    appendUndecided(c, valueAt(row, c));
+                    break;
+                case TARGET:
+                    appendTarget(valueAt(row, c));
+                    break;
+                default:
+                    break;
+            }
+        }
+        rowCount++;
+    }
+
+    private void processHeader(String[] row, ParsingContext context) {
+        headers = new String[row.length];
+        for (int c = 0; c < row.length; c++) {
+            headers[c] = row[c] == null ? "" : row[c];
+            if (targetIndex < 0 && headers[c].equalsIgnoreCase(targetFeature)) {
+                targetIndex = c;
+            }
+        }
+        if (targetIndex < 0) {
+            // Nothing useful can be scored; the caller reports the missing target.
+            context.stop();
+            return;
+        }
+
+        kinds = new Kind[headers.length];
+        typeChecks = new int[headers.length];
+        numeric = new DoubleColumnBuffer[headers.length];
+        text = new ArrayList<>(Collections.nCopies(headers.length, null));
+        for (int c = 0; c < headers.length; c++) {
+            if (c == targetIndex) {
+                kinds[c] = Kind.TARGET;
+            } else if (ignoreColumn.test(headers[c])) {
+                kinds[c] = Kind.IGNORED;
+            } else {
+                kinds[c] = Kind.UNDECIDED;
+                numeric[c] = new DoubleColumnBuffer();
+                text.set(c, new ArrayList<>());
+            }
+        }
+    }
+
+    private void appendNumeric(int c, String value) {
+        if (value.isEmpty()) {
+            numeric[c].add(0.0, false);
+            return;
+        }
+        try {
+            numeric[c].add(Double.parseDouble(value), true);
+        } catch (NumberFormatException e) {
+            numeric[c].add(0.0, false);
+        }
+    }
+
+    private void appendUndecided(int c, String value) {
+        text.get(c).add(value);
+        if (value.isEmpty()) {
+            numeric[c].add(0.0, false);
+            return;
+        }
+        try {
+            numeric[c].add(Double.parseDouble(value), true);
+        } catch (NumberFormatException e) {
+            kinds[c] = Kind.TEXT;
+            numeric[c] = null;
+            if (cleanText) {
+                text.get(c).replaceAll(TextCleaner::clean);
+            }
+            return;
+        }
+        if (++typeChecks[c] >= TYPE_CHECKS) {
+            kinds[c] = Kind.NUMERIC;
+            text.set(c, null);
+        }
+    }
+
+    private void appendTarget(String value) {
+        boolean number = !value.isEmpty();
+        double parsed = 0.0;
+        if (number) {
+            try {
+                parsed = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                number = false;
+            }
+        }
+        if (cleanText && !number) {
+            value = TextCleaner.clean(value);
+        }
+        targetValues.add(parsed, number);
+
+        if (labelCodes == null) {
+            if (number || value.isEmpty()) {
+                if (reservoir != null)
+                    reservoir.offer(rowCount, StratifiedReservoir.MAX_STRATA);
+                return;
+            }
+            rebuildLabels();
+        }
+        int code = encode(number && canonicalNumbers ? Double.toString(parsed) : value, rowCount);
+        if (code == labels.size() - 1) {
+            if (number)
+                numericLabels++;
+            else if (!value.isEmpty())
+                textLabels = true;
+        }
+        if (reservoir != null) {
+            reservoir.offer(rowCount, code);
+        }
+        if (!textLabels && numericLabels > IngestedDataset.MAX_CLASSIFICATION_LABELS) {
+            labelCodes = null;
+            labels = null;
+            targetCodes = null;
+        }
+    }
+
+    private int encode(String label, int row) {
+        Integer code = labelCodes.get(label);
+        if (code == null) {
+            code = labels.size();
+            labelCodes.put(label, code);
+            labels.add(label);
+        }
+        if (row == targetCodes.length) {
+            targetCodes = Arrays.copyOf(targetCodes, targetCodes.length + (targetCodes.length >> 1));
+        }
+        targetCodes[row] = code;
+        return code;
+    }
+
+    /**
+     * Encodes the rows read while the target looked continuous; their labels
+     * are the parsed numbers, and so are those of later numeric rows.
+     */
+    private void rebuildLabels() {
+        canonicalNumbers = true;
+        labelCodes = new HashMap<>();
+        labels = new ArrayList<>();
+        targetCodes = new int[Math.max(1024, rowCount + 1)];
+        for (int i = 0; i < rowCount; i++) {
+            encode(targetValues.isValid(i) ? Double.toString(targetValues.get(i)) : "", i);
+        }
+    }
+
+    private static String valueAt(String[] row, int index) {
+        if (index >= row.length || row[index] == null) {
+            return "";
+        }
+        return row[index].trim();
+    }
+
+    public IngestedDataset getDataset() {
+        if (headers == null) {
+            return null;
+        }
+        Map<Integer, double[]> numericColumns = new LinkedHashMap<>();
+        Map<Integer, long[]> validity = new HashMap<>();
+        Map<Integer, List<String>> textColumns = new LinkedHashMap<>();
+        List<Integer> ignored = new ArrayList<>();
+
+        if (kinds != null) {
+            for (int c = 0; c < kinds.length; c++) {
+                switch (kinds[c]) {
+                    case NUMERIC:
+                    case UNDECIDED:
+                        numericColumns.put(c, numeric[c].toArray());
+                        validity.put(c, numeric[c].validity());
+                        break;
+                    case TEXT:
+                        textColumns.put(c, text.get(c));
+                        break;
+                    case IGNORED:
+                        ignored.add(c);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        int[] sample = reservoir != null ? reservoir.sample() : null;
+        return new IngestedDataset(headers, targetIndex, rowCount, numericColumns, validity, textColumns, ignored,
+                targetCodes != null ? Arrays.copyOf(targetCodes, rowCount) : null, labels, targetValues.toArray(),
+                sample, sample != null && reservoir.isStratified());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.featureselection.data;
+
+import com.example.featureselection.stats.BinnedColumn;
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.example.featureselection.stats.Discretizer;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Binned view of a {@link FeatureMatrix} under one set of
+ * {@link DiscretizationSettings}. Columns are binned on first request and
+ * kept, so every scorer that works on discrete data shares the same codes.
+ * Obtain it through {@link FeatureMatrix#discretized(DiscretizationSettings)}.
+ */
+public class DiscretizedMatrix {
+
+    private final FeatureMatrix matrix;
+    private final DiscretizationSettings settings;
+    private final AtomicReferenceArray<BinnedColumn> columns;
+    private volatile TargetEntry target;
+
+    DiscretizedMatrix(FeatureMatrix matrix, DiscretizationSettings settings) {
+        this.matrix = matrix;
+        this.settings = settings;
+        this.columns = new AtomicReferenceArray<>(matrix.features());
+    }
+
+    public DiscretizationSettings settings() {
+        return settings;
+    }
+
+    public int features() {
+        return matrix.features();
+    }
+
+    public BinnedColumn column(int j) {
+        BinnedColumn binned = columns.get(j);
+        if (binned == null) {
+            SparseColumn sparse = matrix.sparse(j);
+            binned = sparse != null
+                    ? Discretizer.discretize(sparse.size(), sparse.rows(), sparse.values(), settings)
+                    : Discretizer.discretize(matrix.column(j), settings);
+            if (!columns.compareAndSet(j, null, binned)) {
+                binned = columns.get(j);
+            }
+        }
+        return binned;
+    }
+
+    /**
+     * Bins a continuous target with the same settings. The last target is
+     * cached by identity, so scorers handed the same array share the codes.
+     */
+    public BinnedColumn target(double[] y) {
+        TargetEntry entry = target;
+        if (entry == null || entry.values != y) {
+            entry = new TargetEntry(y, Discretizer.discretize(y, settings));
+            target = entry;
+        }
+        return entry.binned;
+    }
+
+    private static final class TargetEntry {
+        private final double[] values;
+        private final BinnedColumn binned;
+
+        TargetEntry(double[] values, BinnedColumn binned) {
+            this.values = values;
+            this.binned = binned;
+        }
+    }
+}
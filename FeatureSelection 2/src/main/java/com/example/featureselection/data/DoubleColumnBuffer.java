@@ -0,0 +1,69 @@
+package com.example.featureselection.data;
+
+import java.util.Arrays;
+
+/**
+ * Growable primitive column with a validity bitmap, filled row by row during
+ * ingestion.
+ */
+public class DoubleColumnBuffer {
+
+    private double[] values;
+    private long[] validBits;
+    private int size;
+    private int validCount;
+
+    public DoubleColumnBuffer() {
+        this(1024);
+    }
+
+    public DoubleColumnBuffer(int initialCapacity) {
+        values = new double[Math.max(initialCapacity, 16)];
+        validBits = FeatureMatrix.newBitmap(values.length);
+    }
+
+    public void add(double value, boolean valid) {
+        if (size == values.length) {
+            int capacity = values.length + (values.length >> 1);
+            values = Arrays.copyOf(values, capacity);
+            validBits = Arrays.copyOf(validBits, (capacity + 63) >>> 6);
+        }
+        values[size] = value;
+        if (valid) {
+            FeatureMatrix.setValid(validBits, size);
+            validCount++;
+        }
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double get(int i) {
+        return values[i];
+    }
+
+    public boolean isValid(int i) {
+        return (validBits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Returns the values trimmed to {@link #size()}. The buffer must not be
+     * appended to afterwards.
+     */
+    public double[] toArray() {
+        return values.length == size ? values : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Returns the validity bitmap, or null when every value is present.
+     */
+    public long[] validity() {
+        if (validCount == size) {
+            return null;
+        }
+        int words = (size + 63) >>> 6;
+        return validBits.length == words ? validBits : Arrays.copyOf(validBits, words);
+    }
+}
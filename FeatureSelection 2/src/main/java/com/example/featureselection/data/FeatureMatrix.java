@@ -0,0 +1,282 @@
+package com.example.featureselection.data;
+
+import com.example.featureselection.stats.ContingencyTable;
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.example.featureselection.util.ScoringExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Column-major feature storage. Each feature is held once as a primitive
+ * column; scorers read the backing arrays directly through {@link #column(int)}.
+ * Missing cells are tracked in a per-column validity bitmap (bit set = value
+ * present) while the column itself keeps the imputed value.
+ * <p>
+ * Token-count features are held as {@link SparseColumn}s. Scorers that can
+ * use the non-zeros directly check {@link #isSparse(int)}; {@link #column(int)}
+ * still returns a dense copy for the stages that need one.
+ */
+public class FeatureMatrix {
+
+    private final String[] names;
+    private final double[][] columns;
+    private final SparseColumn[] sparse;
+    private final long[][] validity;
+    private final int rows;
+    private final Map<DiscretizationSettings, DiscretizedMatrix> discretized = new ConcurrentHashMap<>();
+    private ColumnMoments moments;
+
+    private FeatureMatrix(String[] names, double[][] columns, SparseColumn[] sparse, long[][] validity, int rows) {
+        this.names = names;
+        this.columns = columns;
+        this.sparse = sparse;
+        this.validity = validity;
+        this.rows = rows;
+    }
+
+    public static Builder builder(int rows) {
+        return new Builder(rows);
+    }
+
+    public static FeatureMatrix fromRows(double[][] x, String[] featureNames) {
+        int samples = x.length;
+        int features = featureNames.length;
+        double[][] columns = new double[features][samples];
+        for (int i = 0; i < samples; i++) {
+            double[] row = x[i];
+            for (int j = 0; j < features; j++) {
+                columns[j][i] = row[j];
+            }
+        }
+        return new FeatureMatrix(featureNames, columns, new SparseColumn[features], new long[features][], samples);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int features() {
+        return columns.length;
+    }
+
+    public String[] names() {
+        return names;
+    }
+
+    public String name(int j) {
+        return names[j];
+    }
+
+    /**
+     * Returns the backing array of column {@code j}. Callers must treat it as
+     * read-only. A sparse column is expanded into a new array on every call.
+     */
+    public double[] column(int j) {
+        return sparse[j] != null ? sparse[j].toDense() : columns[j];
+    }
+
+    public boolean isSparse(int j) {
+        return sparse[j] != null;
+    }
+
+    /**
+     * The sparse form of column {@code j}, or null when it is dense.
+     */
+    public SparseColumn sparse(int j) {
+        return sparse[j];
+    }
+
+    public boolean hasMissing(int j) {
+        return validity[j] != null;
+    }
+
+    public boolean isValid(int row, int j) {
+        long[] bits = validity[j];
+        return bits == null || (bits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    public int validCount(int j) {
+        long[] bits = validity[j];
+        if (bits == null) {
+            return rows;
+        }
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the binned view for {@code settings}, created once per matrix.
+     */
+    public DiscretizedMatrix discretized(DiscretizationSettings settings) {
+        return discretized.computeIfAbsent(settings, s -> new DiscretizedMatrix(this, s));
+    }
+
+    /**
+     * Moments of every column against class labels; Σxy uses the raw label
+     * values. The statistics for the most recent target array are kept.
+     */
+    public synchronized ColumnMoments moments(int[] labels, ScoringExecutor executor) {
+        if (moments == null || !moments.isFor(labels)) {
+            double[] y = new double[labels.length];
+            for (int i = 0; i < y.length; i++) {
+                y[i] = labels[i];
+            }
+            moments = ColumnMoments.compute(this, labels, y, ContingencyTable.compact(labels), executor);
+        }
+        return moments;
+    }
+
+    public synchronized ColumnMoments moments(double[] y, ScoringExecutor executor) {
+        if (moments == null || !moments.isFor(y)) {
+            moments = ColumnMoments.compute(this, y, y, null, executor);
+        }
+        return moments;
+    }
+
+    /**
+     * The given rows of every column as a new matrix; {@code sample} must be
+     * ascending. Sparse columns stay sparse and missing cells stay missing.
+     */
+    public FeatureMatrix subset(int[] sample) {
+        int features = columns.length;
+        double[][] subColumns = new double[features][];
+        SparseColumn[] subSparse = new SparseColumn[features];
+        long[][] subValidity = new long[features][];
+        for (int j = 0; j < features; j++) {
+            if (sparse[j] != null) {
+                subSparse[j] = subset(sparse[j], sample);
+                continue;
+            }
+            double[] col = columns[j];
+            double[] values = new double[sample.length];
+            for (int i = 0; i < sample.length; i++) {
+                values[i] = col[sample[i]];
+            }
+            subColumns[j] = values;
+            if (validity[j] != null) {
+                long[] bits = newBitmap(sample.length);
+                for (int i = 0; i < sample.length; i++) {
+                    if (isValid(sample[i], j))
+                        setValid(bits, i);
+                }
+                subValidity[j] = bits;
+            }
+        }
+        return new FeatureMatrix(names, subColumns, subSparse, subValidity, sample.length);
+    }
+
+    /**
+     * Walks the sample and the column's rows together; both are ascending.
+     */
+    private static SparseColumn subset(SparseColumn column, int[] sample) {
+        int[] at = column.rows();
+        double[] values = column.values();
+        int[] rows = new int[Math.min(at.length, sample.length)];
+        double[] kept = new double[rows.length];
+        int count = 0;
+        for (int i = 0, k = 0; i < sample.length && k < at.length;) {
+            if (sample[i] == at[k]) {
+                rows[count] = i;
+                kept[count++] = values[k];
+                i++;
+                k++;
+            } else if (sample[i] < at[k]) {
+                i++;
+            } else {
+                k++;
+            }
+        }
+        return new SparseColumn(sample.length, Arrays.copyOf(rows, count), Arrays.copyOf(kept, count));
+    }
+
+    /**
+     * Materializes a row-major copy for stages that need it (Smile models).
+     */
+    public double[][] toRows() {
+        int features = columns.length;
+        double[][] x = new double[rows][features];
+        for (int j = 0; j < features; j++) {
+            if (sparse[j] != null) {
+                int[] at = sparse[j].rows();
+                double[] values = sparse[j].values();
+                for (int k = 0; k < at.length; k++) {
+                    x[at[k]][j] = values[k];
+                }
+                continue;
+            }
+            double[] col = columns[j];
+            for (int i = 0; i < rows; i++) {
+                x[i][j] = col[i];
+            }
+        }
+        return x;
+    }
+
+    public static class Builder {
+        private final int rows;
+        private final List<String> names = new ArrayList<>();
+        private final List<double[]> columns = new ArrayList<>();
+        private final List<SparseColumn> sparse = new ArrayList<>();
+        private final List<long[]> validity = new ArrayList<>();
+
+        private Builder(int rows) {
+            this.rows = rows;
+        }
+
+        public Builder addColumn(String name, double[] values) {
+            return addColumn(name, values, null);
+        }
+
+        /**
+         * @param validBits bitmap with one bit per row (set = present), or null
+         *                  when every value is present
+         */
+        public Builder addColumn(String name, double[] values, long[] validBits) {
+            if (values.length != rows) {
+                throw new IllegalArgumentException("Column '" + name + "' has " + values.length
+                        + " values, expected " + rows);
+            }
+            names.add(name);
+            columns.add(values);
+            sparse.add(null);
+            validity.add(validBits);
+            return this;
+        }
+
+        public Builder addColumn(String name, SparseColumn values) {
+            if (values.size() != rows) {
+                throw new IllegalArgumentException("Column '" + name + "' has " + values.size()
+                        + " values, expected " + rows);
+            }
+            names.add(name);
+            columns.add(null);
+            sparse.add(values);
+            validity.add(null);
+            return this;
+        }
+
+        public int size() {
+            return columns.size();
+        }
+
+        public FeatureMatrix build() {
+            return new FeatureMatrix(names.toArray(new String[0]), columns.toArray(new double[0][]),
+                    sparse.toArray(new SparseColumn[0]), validity.toArray(new long[0][]), rows);
+        }
+    }
+
+    public static long[] newBitmap(int rows) {
+        return new long[(rows + 63) >>> 6];
+    }
+
+    public static void setValid(long[] bits, int row) {
+        bits[row >>> 6] |= 1L << row;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.featureselection.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Feature hashing of one text column: every kept token adds +1 or -1 (from a
+ * hash independent of the bucket's) to its bucket's count in the document, so
+ * colliding tokens tend to cancel rather than pile up. Memory is the bucket
+ * columns, a fixed {@link KeptTokens} memo and, per bucket, a Space-Saving
+ * summary of {@code tokensPerBucket} tokens; it does not grow with the
+ * vocabulary. The summary names the bucket by its most frequent tokens.
+ */
+public final class HashedTerms {
+
+    private static final int SIGN_SEED = 0x9e3779b9;
+
+    private final int buckets;
+    private final double[][] columns;
+    private final String[][] tokens;
+    private final int[][] tokenCounts;
+
+    private HashedTerms(int buckets, double[][] columns, String[][] tokens, int[][] tokenCounts) {
+        this.buckets = buckets;
+        this.columns = columns;
+        this.tokens = tokens;
+        this.tokenCounts = tokenCounts;
+    }
+
+    public static HashedTerms fit(List<String> texts, int buckets, int tokensPerBucket, Predicate<String> keep) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("buckets must be positive: " + buckets);
+        }
+        if (tokensPerBucket < 1) {
+            throw new IllegalArgumentException("tokensPerBucket must be positive: " + tokensPerBucket);
+        }
+        int documents = texts.size();
+        double[][] columns = new double[buckets][];
+        String[][] tokens = new String[buckets][tokensPerBucket];
+        int[][] tokenCounts = new int[buckets][tokensPerBucket];
+
+        Tokenizer tokenizer = new Tokenizer();
+        KeptTokens kept = new KeptTokens(keep);
+        for (int d = 0; d < documents; d++) {
+            int count = tokenizer.tokenize(texts.get(d));
+            for (int t = 0; t < count; t++) {
+                String token = kept.get(tokenizer, t);
+                if (token == null)
+                    continue;
+                int hash = tokenizer.hash(t);
+                int bucket = bucket(hash, buckets);
+                if (columns[bucket] == null)
+                    columns[bucket] = new double[documents];
+                columns[bucket][d] += sign(hash);
+                offer(tokens[bucket], tokenCounts[bucket], token);
+            }
+        }
+        return new HashedTerms(buckets, columns, tokens, tokenCounts);
+    }
+
+    /**
+     * Space-Saving update: count a tracked token, fill a free slot, or evict
+     * the least counted token and inherit its count.
+     */
+    private static void offer(String[] slots, int[] counts, String token) {
+        int min = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == null) {
+                slots[i] = token;
+                counts[i] = 1;
+                return;
+            }
+            if (slots[i].equals(token)) {
+                counts[i]++;
+                return;
+            }
+            if (counts[i] < counts[min])
+                min = i;
+        }
+        slots[min] = token;
+        counts[min]++;
+    }
+
+    /**
+     * Bucket of a token with {@link String#hashCode()} {@code hash}.
+     */
+    static int bucket(int hash, int buckets) {
+        return Math.floorMod(mix(hash), buckets);
+    }
+
+    /**
+     * Sign of a token's count, from a differently seeded mix than
+     * {@link #bucket(int, int)} so that it does not depend on the bucket.
+     */
+    static int sign(int hash) {
+        return mix(hash ^ SIGN_SEED) < 0 ? -1 : 1;
+    }
+
+    /**
+     * murmur3 finalizer.
+     */
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+
+    /**
+     * Buckets that received at least one token, ascending.
+     */
+    public List<Integer> usedBuckets() {
+        List<Integer> used = new ArrayList<>();
+        for (int b = 0; b < buckets; b++) {
+            if (columns[b] != null)
+                used.add(b);
+        }
+        return used;
+    }
+
+    /**
+     * Signed token counts of the bucket per document, or null for an unused
+     * bucket.
+     */
+    public double[] column(int bucket) {
+        return columns[bucket];
+    }
+
+    /**
+     * Most frequent tokens of the bucket, most frequent first. Counts are
+     * Space-Saving estimates, so with more distinct tokens than slots the
+     * order is approximate.
+     */
+    public List<String> topTokens(int bucket) {
+        Integer[] order = new Integer[tokens[bucket].length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        int[] counts = tokenCounts[bucket];
+        Arrays.sort(order, (a, b) -> Integer.compare(counts[b], counts[a]));
+        List<String> top = new ArrayList<>();
+        for (int i : order) {
+            if (tokens[bucket][i] != null)
+                top.add(tokens[bucket][i]);
+        }
+        return top;
+    }
+
+    /**
+     * Keep decisions of recently seen tokens in a direct-mapped table keyed by
+     * the span hash, so a recurring token is built and tested once rather than
+     * on every occurrence. A colliding token evicts the slot; memory stays
+     * fixed whatever the vocabulary.
+     */
+    static final class KeptTokens {
+        private static final int SLOTS = 4096;
+
+        private final Predicate<String> keep;
+        private final String[] tokens = new String[SLOTS];
+        private final int[] hashes = new int[SLOTS];
+        private final boolean[] kept = new boolean[SLOTS];
+
+        KeptTokens(Predicate<String> keep) {
+            this.keep = keep;
+        }
+
+        /**
+         * The token as a string when the predicate keeps it, else null.
+         */
+        String get(Tokenizer tokenizer, int token) {
+            int hash = tokenizer.hash(token);
+            int slot = (hash ^ (hash >>> 16)) & (SLOTS - 1);
+            String cached = tokens[slot];
+            if (cached == null || hashes[slot] != hash || !tokenizer.matches(token, cached)) {
+                cached = tokenizer.token(token);
+                tokens[slot] = cached;
+                hashes[slot] = hash;
+                kept[slot] = keep.test(cached);
+            }
+            return kept[slot] ? cached : null;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.featureselection.data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed columns produced by {@link CsvColumnProcessor}. Column maps are keyed
+ * by header index and iterate in header order.
+ */
+public class IngestedDataset {
+
+    static final int MAX_CLASSIFICATION_LABELS = 10;
+
+    private final String[] headers;
+    private final int targetIndex;
+    private final int rowCount;
+    private final Map<Integer, double[]> numericColumns;
+    private final Map<Integer, long[]> validity;
+    private final Map<Integer, List<String>> textColumns;
+    private final List<Integer> ignoredColumns;
+    private final int[] targetCodes;
+    private final List<String> targetLabels;
+    private final double[] targetValues;
+    private final int[] sample;
+    private final boolean stratifiedSample;
+
+    public IngestedDataset(String[] headers, int targetIndex, int rowCount, Map<Integer, double[]> numericColumns,
+            Map<Integer, long[]> validity, Map<Integer, List<String>> textColumns, List<Integer> ignoredColumns,
+            int[] targetCodes, List<String> targetLabels) {
+        this(headers, targetIndex, rowCount, numericColumns, validity, textColumns, ignoredColumns, targetCodes,
+                targetLabels, null, null, false);
+    }
+
+    /**
+     * @param targetCodes      class codes per row, or null (with
+     *                         {@code targetLabels}) for a target known to be
+     *                         continuous
+     * @param targetValues     parsed target per row, 0 where not a number, or
+     *                         null to decode it from the labels
+     * @param sample           ascending rows drawn for the model-based stages,
+     *                         or null when they use every row
+     * @param stratifiedSample whether the sample keeps each label's share
+     */
+    public IngestedDataset(String[] headers, int targetIndex, int rowCount, Map<Integer, double[]> numericColumns,
+            Map<Integer, long[]> validity, Map<Integer, List<String>> textColumns, List<Integer> ignoredColumns,
+            int[] targetCodes, List<String> targetLabels, double[] targetValues, int[] sample,
+            boolean stratifiedSample) {
+        this.headers = headers;
+        this.targetIndex = targetIndex;
+        this.rowCount = rowCount;
+        this.numericColumns = numericColumns;
+        this.validity = validity;
+        this.textColumns = textColumns;
+        this.ignoredColumns = ignoredColumns;
+        this.targetCodes = targetCodes;
+        this.targetLabels = targetLabels;
+        this.targetValues = targetValues;
+        this.sample = sample;
+        this.stratifiedSample = stratifiedSample;
+    }
+
+    public String[] getHeaders() {
+        return headers;
+    }
+
+    public int getTargetIndex() {
+        return targetIndex;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public Map<Integer, double[]> getNumericColumns() {
+        return numericColumns;
+    }
+
+    public long[] getValidity(int columnIndex) {
+        return validity.get(columnIndex);
+    }
+
+    public Map<Integer, List<String>> getTextColumns() {
+        return textColumns;
+    }
+
+    public List<Integer> getIgnoredColumns() {
+        return ignoredColumns;
+    }
+
+    /**
+     * Ascending row sample drawn during ingestion, or null when no sampling
+     * was requested or every row fits.
+     */
+    public int[] getSample() {
+        return sample;
+    }
+
+    public boolean isSampleStratified() {
+        return stratifiedSample;
+    }
+
+    /**
+     * A target is treated as a class label when any non-empty value is not a
+     * number, or when it has at most {@value #MAX_CLASSIFICATION_LABELS}
+     * distinct non-empty values.
+     */
+    public boolean isClassificationTarget() {
+        return targetLabels != null && isClassification(targetLabels);
+    }
+
+    static boolean isClassification(List<String> targetLabels) {
+        int distinct = 0;
+        for (String label : targetLabels) {
+            if (label.isEmpty())
+                continue;
+            distinct++;
+            try {
+                Double.parseDouble(label);
+            } catch (NumberFormatException e) {
+                return true;
+            }
+        }
+        return distinct <= MAX_CLASSIFICATION_LABELS;
+    }
+
+    /**
+     * Class codes in order of first appearance (an empty value is a class too),
+     * or null for a target known to be continuous.
+     */
+    public int[] getClassTarget() {
+        return targetCodes;
+    }
+
+    public double[] getRegressionTarget() {
+        if (targetValues != null)
+            return targetValues;
+        double[] decoded = new double[targetLabels.size()];
+        for (int i = 0; i < decoded.length; i++) {
+            decoded[i] = parseDoubleSafe(targetLabels.get(i));
+        }
+        double[] y = new double[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            y[i] = decoded[targetCodes[i]];
+        }
+        return y;
+    }
+
+    static double parseDoubleSafe(String val) {
+        if (val == null || val.isEmpty())
+            return 0.0;
+        try {
+            return Double.parseDouble(val);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+}
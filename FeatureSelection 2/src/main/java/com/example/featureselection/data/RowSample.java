@@ -0,0 +1,207 @@
+package com.example.featureselection.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Bounded sample of whole rows (feature values and target) drawn from a
+ * stream in one pass, for the stages that need rows when the dataset itself
+ * is never held. A uniform reservoir (Algorithm R) of {@code capacity} rows
+ * keeps each label's share in expectation; a small reservoir per label
+ * (up to {@link StratifiedReservoir#MAX_STRATA} labels) then tops up rare
+ * labels that the uniform draw left short of their share, up to
+ * {@value #RESERVE} rows, so no class is lost. Memory is {@code capacity}
+ * rows plus {@value #RESERVE} per label.
+ * Seeded, so a given input always yields the same sample.
+ */
+public final class RowSample {
+
+    static final int RESERVE = 32;
+    private static final long SEED = 42;
+
+    private final int capacity;
+    private final Random random = new Random(SEED);
+    private final Reservoir uniform;
+    private List<Reservoir> labels = new ArrayList<>();
+    private int seen;
+
+    public RowSample(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.uniform = new Reservoir(capacity);
+    }
+
+    /**
+     * Offers a row; {@code values} is copied only if the row is kept, so the
+     * caller may reuse the array.
+     *
+     * @param label class code of the row, or -1 for a continuous target
+     */
+    public void offer(int row, double[] values, double target, int label) {
+        seen++;
+        Entry entry = uniform.offer(row, values, target, label, random, null);
+        if (labels == null || label < 0)
+            return;
+        if (label >= StratifiedReservoir.MAX_STRATA) {
+            labels = null;
+            return;
+        }
+        while (labels.size() <= label) {
+            labels.add(new Reservoir(RESERVE));
+        }
+        labels.get(label).offer(row, values, target, label, random, entry);
+    }
+
+    public int seen() {
+        return seen;
+    }
+
+    /**
+     * Whether some row was left out.
+     */
+    public boolean isSampled() {
+        return seen > capacity;
+    }
+
+    /**
+     * Whether rare labels were topped up; false for a continuous target or
+     * once the labels exceeded {@link StratifiedReservoir#MAX_STRATA}.
+     */
+    public boolean isStratified() {
+        return labels != null && !labels.isEmpty();
+    }
+
+    /**
+     * The sampled rows in stream order.
+     */
+    public Rows rows() {
+        List<Entry> kept = new ArrayList<>(uniform.entries());
+        if (isStratified()) {
+            int[] inUniform = new int[labels.size()];
+            Set<Integer> taken = new HashSet<>();
+            for (Entry e : kept) {
+                taken.add(e.row);
+                if (e.label >= 0)
+                    inUniform[e.label]++;
+            }
+            Random draw = new Random(SEED);
+            for (int l = 0; l < labels.size(); l++) {
+                Reservoir reserve = labels.get(l);
+                long share = Math.min(RESERVE, Math.max(1, Math.round((double) reserve.seen * capacity / seen)));
+                List<Entry> candidates = new ArrayList<>(reserve.entries());
+                Collections.shuffle(candidates, draw);
+                for (Entry e : candidates) {
+                    if (inUniform[l] >= share)
+                        break;
+                    if (taken.add(e.row)) {
+                        kept.add(e);
+                        inUniform[l]++;
+                    }
+                }
+            }
+        }
+        kept.sort((a, b) -> Integer.compare(a.row, b.row));
+
+        int n = kept.size();
+        int[] rows = new int[n];
+        double[][] values = new double[n][];
+        double[] targets = new double[n];
+        for (int i = 0; i < n; i++) {
+            Entry e = kept.get(i);
+            rows[i] = e.row;
+            values[i] = e.values;
+            targets[i] = e.target;
+        }
+        return new Rows(rows, values, targets);
+    }
+
+    /**
+     * Sampled rows, their feature values and their targets, in stream order.
+     */
+    public static final class Rows {
+        private final int[] rows;
+        private final double[][] values;
+        private final double[] targets;
+
+        Rows(int[] rows, double[][] values, double[] targets) {
+            this.rows = rows;
+            this.values = values;
+            this.targets = targets;
+        }
+
+        public int size() {
+            return rows.length;
+        }
+
+        public int[] rows() {
+            return rows;
+        }
+
+        public double[][] values() {
+            return values;
+        }
+
+        public double[] targets() {
+            return targets;
+        }
+    }
+
+    private static final class Entry {
+        private final int row;
+        private final double[] values;
+        private final double target;
+        private final int label;
+
+        Entry(int row, double[] values, double target, int label) {
+            this.row = row;
+            this.values = values;
+            this.target = target;
+            this.label = label;
+        }
+    }
+
+    /**
+     * Algorithm R over entries; the buffer grows up to the capacity.
+     */
+    private static final class Reservoir {
+        private final int capacity;
+        private Entry[] entries = new Entry[16];
+        private int seen;
+
+        private Reservoir(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * @param shared the entry already made for this row, reused when kept
+         * @return the entry kept for the row, or {@code shared} when not kept
+         */
+        Entry offer(int row, double[] values, double target, int label, Random random, Entry shared) {
+            int slot;
+            if (seen < capacity) {
+                if (seen == entries.length)
+                    entries = Arrays.copyOf(entries, Math.min(capacity, entries.length * 2));
+                slot = seen;
+            } else {
+                slot = random.nextInt(seen + 1);
+            }
+            seen++;
+            if (slot >= capacity)
+                return shared;
+            Entry entry = shared != null ? shared : new Entry(row, values.clone(), target, label);
+            entries[slot] = entry;
+            return entry;
+        }
+
+        List<Entry> entries() {
+            return Arrays.asList(entries).subList(0, Math.min(seen, capacity));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.featureselection.data;
+
+import java.util.Arrays;
+
+/**
+ * A mostly-zero column in compressed form: the ascending rows holding a
+ * non-zero value and those values. Token counts are stored this way, so a
+ * column costs its non-zeros rather than its row count.
+ */
+public final class SparseColumn {
+
+    private final int size;
+    private final int[] rows;
+    private final double[] values;
+
+    /**
+     * @param rows   ascending row indices of the non-zero values
+     * @param values the non-zero values, parallel to {@code rows}
+     */
+    public SparseColumn(int size, int[] rows, double[] values) {
+        if (rows.length != values.length) {
+            throw new IllegalArgumentException("rows and values differ in length: " + rows.length + " vs "
+                    + values.length);
+        }
+        for (int k = 0; k < rows.length; k++) {
+            if (rows[k] < 0 || rows[k] >= size || (k > 0 && rows[k] <= rows[k - 1])) {
+                throw new IllegalArgumentException("rows must be ascending and within [0, " + size + ")");
+            }
+        }
+        this.size = size;
+        this.rows = rows;
+        this.values = values;
+    }
+
+    public static SparseColumn fromDense(double[] values) {
+        int nonZeros = 0;
+        for (double v : values) {
+            if (v != 0)
+                nonZeros++;
+        }
+        int[] rows = new int[nonZeros];
+        double[] kept = new double[nonZeros];
+        for (int i = 0, k = 0; i < values.length; i++) {
+            if (values[i] != 0) {
+                rows[k] = i;
+                kept[k++] = values[i];
+            }
+        }
+        return new SparseColumn(values.length, rows, kept);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int nonZeros() {
+        return rows.length;
+    }
+
+    /**
+     * Backing row indices; callers must treat them as read-only.
+     */
+    public int[] rows() {
+        return rows;
+    }
+
+    /**
+     * Backing values; callers must treat them as read-only.
+     */
+    public double[] values() {
+        return values;
+    }
+
+    public double get(int row) {
+        int k = Arrays.binarySearch(rows, row);
+        return k >= 0 ? values[k] : 0.0;
+    }
+
+    public double[] toDense() {
+        double[] dense = new double[size];
+        for (int k = 0; k < rows.length; k++) {
+            dense[rows[k]] = values[k];
+        }
+        return dense;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.featureselection.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Row sample drawn while rows stream in. Each stratum (target label) keeps a
+ * reservoir of up to {@code capacity} row indices (Algorithm R); at the end
+ * every stratum contributes its share of {@code capacity}, at least one row,
+ * drawn from its reservoir. Past {@link #MAX_STRATA} labels (a continuous
+ * target) the per-stratum reservoirs are dropped for one uniform reservoir.
+ * Seeded, so a given input always yields the same sample.
+ */
+public final class StratifiedReservoir {
+
+    static final int MAX_STRATA = 256;
+    private static final long SEED = 42;
+
+    private final int capacity;
+    private final Random random = new Random(SEED);
+    private List<Reservoir> strata = new ArrayList<>();
+    private final Reservoir uniform;
+    private int seen;
+
+    public StratifiedReservoir(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.uniform = new Reservoir(capacity);
+    }
+
+    public void offer(int row, int stratum) {
+        seen++;
+        uniform.offer(row, random);
+        if (strata == null)
+            return;
+        if (stratum >= MAX_STRATA) {
+            strata = null;
+            return;
+        }
+        while (strata.size() <= stratum) {
+            strata.add(new Reservoir(capacity));
+        }
+        strata.get(stratum).offer(row, random);
+    }
+
+    public int seen() {
+        return seen;
+    }
+
+    /**
+     * Whether the sample keeps each label's share; false once the labels
+     * exceeded {@link #MAX_STRATA}.
+     */
+    public boolean isStratified() {
+        return strata != null;
+    }
+
+    /**
+     * Ascending sampled rows, or null when every row fits.
+     */
+    public int[] sample() {
+        if (seen <= capacity)
+            return null;
+        if (strata == null) {
+            int[] rows = uniform.rows();
+            Arrays.sort(rows);
+            return rows;
+        }
+
+        Random draw = new Random(SEED);
+        int[][] parts = new int[strata.size()][];
+        int total = 0;
+        for (int s = 0; s < parts.length; s++) {
+            Reservoir reservoir = strata.get(s);
+            if (reservoir.seen == 0) {
+                parts[s] = new int[0];
+                continue;
+            }
+            int quota = (int) Math.max(1, Math.round((double) reservoir.seen * capacity / seen));
+            int[] rows = reservoir.rows();
+            int take = Math.min(quota, rows.length);
+            // Partial Fisher-Yates: a uniform subset of a uniform reservoir.
+            for (int i = 0; i < take; i++) {
+                int j = i + draw.nextInt(rows.length - i);
+                int tmp = rows[i];
+                rows[i] = rows[j];
+                rows[j] = tmp;
+            }
+            parts[s] = Arrays.copyOf(rows, take);
+            total += take;
+        }
+        int[] sample = new int[total];
+        int offset = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, sample, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(sample);
+        return sample;
+    }
+
+    /**
+     * Algorithm R over row indices; the buffer grows up to the capacity, so a
+     * small stratum costs only its rows.
+     */
+    private static final class Reservoir {
+        private final int capacity;
+        private int[] rows = new int[16];
+        private int seen;
+
+        private Reservoir(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(int row, Random random) {
+            if (seen < capacity) {
+                if (seen == rows.length)
+                    rows = Arrays.copyOf(rows, Math.min(capacity, rows.length * 2));
+                rows[seen] = row;
+            } else {
+                int j = random.nextInt(seen + 1);
+                if (j < capacity)
+                    rows[j] = row;
+            }
+            seen++;
+        }
+
+        int[] rows() {
+            return Arrays.copyOf(rows, Math.min(seen, capacity));
+        }
+    }
+}
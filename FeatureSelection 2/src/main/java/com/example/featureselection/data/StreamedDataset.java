@@ -0,0 +1,109 @@
+package com.example.featureselection.data;
+
+import java.util.List;
+
+/**
+ * What {@link StreamingColumnProcessor} keeps of a streamed upload: the
+ * column layout, the filter statistics over every row and a bounded row
+ * sample for the stages that need rows. Column lists hold header indices in
+ * header order.
+ */
+public class StreamedDataset {
+
+    private final String[] headers;
+    private final int targetIndex;
+    private final int rowCount;
+    private final List<Integer> numericColumns;
+    private final List<Integer> textColumns;
+    private final List<Integer> ignoredColumns;
+    private final String[] featureNames;
+    private final StreamingStatistics statistics;
+    private final FeatureMatrix sample;
+    private final double[] sampleTargets;
+    private final boolean sampled;
+    private final boolean stratified;
+
+    public StreamedDataset(String[] headers, int targetIndex, int rowCount, List<Integer> numericColumns,
+            List<Integer> textColumns, List<Integer> ignoredColumns, String[] featureNames,
+            StreamingStatistics statistics, FeatureMatrix sample, double[] sampleTargets, boolean sampled,
+            boolean stratified) {
+        this.headers = headers;
+        this.targetIndex = targetIndex;
+        this.rowCount = rowCount;
+        this.numericColumns = numericColumns;
+        this.textColumns = textColumns;
+        this.ignoredColumns = ignoredColumns;
+        this.featureNames = featureNames;
+        this.statistics = statistics;
+        this.sample = sample;
+        this.sampleTargets = sampleTargets;
+        this.sampled = sampled;
+        this.stratified = stratified;
+    }
+
+    public String[] getHeaders() {
+        return headers;
+    }
+
+    public int getTargetIndex() {
+        return targetIndex;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public List<Integer> getNumericColumns() {
+        return numericColumns;
+    }
+
+    public List<Integer> getTextColumns() {
+        return textColumns;
+    }
+
+    public List<Integer> getIgnoredColumns() {
+        return ignoredColumns;
+    }
+
+    /**
+     * Numeric columns, then the features derived from text columns.
+     */
+    public String[] getFeatureNames() {
+        return featureNames;
+    }
+
+    public boolean isClassificationTarget() {
+        return statistics.isClassification();
+    }
+
+    public StreamingStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * The sampled rows, or every row when they fit the sample.
+     */
+    public FeatureMatrix getSample() {
+        return sample;
+    }
+
+    public int[] getSampleClassTarget() {
+        int[] labels = new int[sampleTargets.length];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = (int) sampleTargets[i];
+        }
+        return labels;
+    }
+
+    public double[] getSampleRegressionTarget() {
+        return sampleTargets;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public boolean isSampleStratified() {
+        return stratified;
+    }
+}
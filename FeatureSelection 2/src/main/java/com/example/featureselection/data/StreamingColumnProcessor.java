@@ -0,0 +1,381 @@
+package com.example.featureselection.data;
+
+import com.example.featureselection.stats.BinEdges;
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.univocity.parsers.common.ParsingContext;
+import com.univocity.parsers.common.processor.AbstractRowProcessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Out-of-core counterpart of {@link CsvColumnProcessor}: rows are folded into
+ * {@link StreamingStatistics} and a {@link RowSample} as they are parsed, so
+ * memory does not grow with the row count. Only the first {@code chunkRows}
+ * rows are buffered; from them
+ * <ul>
+ * <li>column types are inferred with the {@link CsvColumnProcessor} rule;</li>
+ * <li>the target is classified with the {@link IngestedDataset} rule;</li>
+ * <li>each text column gets its vocabulary (or named hash buckets), so later
+ * rows only count those terms;</li>
+ * <li>every feature, and a continuous target, gets its bin edges.</li>
+ * </ul>
+ * Later values outside the fitted bins fall in the end bins, and later
+ * non-numeric values of a numeric column count as missing.
+ */
+public class StreamingColumnProcessor extends AbstractRowProcessor {
+
+    private final String targetFeature;
+    private final Predicate<String> ignoreColumn;
+    private final boolean cleanText;
+    private final int chunkRows;
+    private final int sampleRows;
+    private final TextSettings textSettings;
+    private final Predicate<String> keepToken;
+    private final DiscretizationSettings discretization;
+    private final Tokenizer tokenizer = new Tokenizer();
+
+    private String[] headers;
+    private int targetIndex = -1;
+    private List<String[]> chunk = new ArrayList<>();
+    private int rowCount;
+
+    private final List<Integer> numericColumns = new ArrayList<>();
+    private final List<Integer> textColumns = new ArrayList<>();
+    private final List<Integer> ignoredColumns = new ArrayList<>();
+    private final List<TextFeatures> textFeatures = new ArrayList<>();
+    private String[] featureNames;
+    private boolean classification;
+    private final Map<String, Integer> labelCodes = new HashMap<>();
+    private StreamingStatistics statistics;
+    private RowSample sample;
+    private double[] buffer;
+
+    /**
+     * @param keepToken  tokens that may become text features
+     * @param sampleRows rows kept for the model-based stages
+     */
+    public StreamingColumnProcessor(String targetFeature, Predicate<String> ignoreColumn, boolean cleanText,
+            int chunkRows, int sampleRows, TextSettings textSettings, Predicate<String> keepToken,
+            DiscretizationSettings discretization) {
+        if (chunkRows < 1) {
+            throw new IllegalArgumentException("chunkRows must be positive: " + chunkRows);
+        }
+        if (sampleRows < 1) {
+            throw new IllegalArgumentException("sampleRows must be positive: " + sampleRows);
+        }
+        this.targetFeature = targetFeature;
+        this.ignoreColumn = ignoreColumn;
+        this.cleanText = cleanText;
+        this.chunkRows = chunkRows;
+        this.sampleRows = sampleRows;
+        this.textSettings = textSettings;
+        this.keepToken = keepToken;
+        this.discretization = discretization;
+    }
+
+    @Override
+    public void rowProcessed(String[] row, ParsingContext context) {
+        if (headers == null) {
+            processHeader(row, context);
+            return;
+        }
+        if (chunk != null) {
+            chunk.add(row.clone());
+            if (chunk.size() == chunkRows) {
+                fit();
+            }
+            return;
+        }
+        accept(row);
+    }
+
+    @Override
+    public void processEnded(ParsingContext context) {
+        if (chunk != null && targetIndex >= 0) {
+            fit();
+        }
+    }
+
+    private void processHeader(String[] row, ParsingContext context) {
+        headers = new String[row.length];
+        for (int c = 0; c < row.length; c++) {
+            headers[c] = row[c] == null ? "" : row[c];
+            if (targetIndex < 0 && headers[c].equalsIgnoreCase(targetFeature)) {
+                targetIndex = c;
+            }
+        }
+        if (targetIndex < 0) {
+            // Nothing useful can be scored; the caller reports the missing target.
+            context.stop();
+        }
+    }
+
+    private void fit() {
+        List<String[]> rows = chunk;
+        chunk = null;
+
+        Set<String> labels = new LinkedHashSet<>();
+        for (String[] row : rows) {
+            labels.add(label(row));
+        }
+        classification = IngestedDataset.isClassification(new ArrayList<>(labels));
+
+        for (int c = 0; c < headers.length; c++) {
+            if (c == targetIndex)
+                continue;
+            if (ignoreColumn.test(headers[c])) {
+                ignoredColumns.add(c);
+            } else if (isNumeric(rows, c)) {
+                numericColumns.add(c);
+            } else {
+                textColumns.add(c);
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        for (int c : numericColumns) {
+            names.add(headers[c]);
+        }
+        int offset = numericColumns.size();
+        for (int c : textColumns) {
+            List<String> texts = new ArrayList<>(rows.size());
+            for (String[] row : rows) {
+                texts.add(text(row, c));
+            }
+            TextFeatures features = new TextFeatures(c, offset, texts);
+            textFeatures.add(features);
+            for (String name : features.names) {
+                names.add(headers[c] + "_" + name);
+            }
+            offset += features.names.size();
+        }
+        featureNames = names.toArray(new String[0]);
+
+        int features = featureNames.length;
+        int n = rows.size();
+        double[][] x = new double[n][];
+        double[] y = new double[n];
+        double[][] columns = new double[features][n];
+        for (int i = 0; i < n; i++) {
+            x[i] = vectorize(rows.get(i));
+            y[i] = target(rows.get(i));
+            for (int j = 0; j < features; j++) {
+                double v = x[i][j];
+                columns[j][i] = Double.isNaN(v) ? 0.0 : v;
+            }
+        }
+
+        double[] shifts = new double[features];
+        BinEdges[] edges = new BinEdges[features];
+        for (int j = 0; j < features; j++) {
+            shifts[j] = n > 0 ? columns[j][0] : 0.0;
+            edges[j] = BinEdges.fit(columns[j], discretization);
+        }
+        BinEdges targetEdges = classification ? null : BinEdges.fit(y, discretization);
+        statistics = new StreamingStatistics(shifts, n > 0 ? y[0] : 0.0, edges, targetEdges);
+        sample = new RowSample(sampleRows);
+        buffer = new double[features];
+
+        for (int i = 0; i < n; i++) {
+            add(x[i], y[i]);
+        }
+    }
+
+    private boolean isNumeric(List<String[]> rows, int c) {
+        int checks = 0;
+        for (String[] row : rows) {
+            String value = valueAt(row, c);
+            if (value.isEmpty())
+                continue;
+            if (!isNumber(value))
+                return false;
+            if (++checks >= CsvColumnProcessor.TYPE_CHECKS)
+                break;
+        }
+        return true;
+    }
+
+    private void accept(String[] row) {
+        add(vectorize(row), target(row));
+    }
+
+    private void add(double[] x, double y) {
+        if (classification) {
+            statistics.add(x, (int) y);
+            sample.offer(rowCount, x, y, (int) y);
+        } else {
+            statistics.add(x, y);
+            sample.offer(rowCount, x, y, -1);
+        }
+        rowCount++;
+    }
+
+    /**
+     * Feature values of a row into the shared buffer; NaN marks a missing
+     * cell.
+     */
+    private double[] vectorize(String[] row) {
+        double[] x = buffer != null ? buffer : new double[featureNames.length];
+        for (int k = 0; k < numericColumns.size(); k++) {
+            x[k] = parse(valueAt(row, numericColumns.get(k)));
+        }
+        for (TextFeatures features : textFeatures) {
+            features.count(text(row, features.column), x);
+        }
+        return x;
+    }
+
+    private static double parse(String value) {
+        if (value.isEmpty())
+            return Double.NaN;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private String label(String[] row) {
+        String value = valueAt(row, targetIndex);
+        return cleanText && !isNumber(value) ? TextCleaner.clean(value) : value;
+    }
+
+    /**
+     * Class code by first appearance, or the parsed value of a continuous
+     * target.
+     */
+    private double target(String[] row) {
+        String value = label(row);
+        if (!classification)
+            return IngestedDataset.parseDoubleSafe(value);
+        Integer code = labelCodes.get(value);
+        if (code == null) {
+            code = labelCodes.size();
+            labelCodes.put(value, code);
+        }
+        return code;
+    }
+
+    private String text(String[] row, int c) {
+        String value = valueAt(row, c);
+        return cleanText ? TextCleaner.clean(value) : value;
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String valueAt(String[] row, int index) {
+        if (index >= row.length || row[index] == null) {
+            return "";
+        }
+        return row[index].trim();
+    }
+
+    public StreamedDataset getDataset() {
+        if (headers == null) {
+            return null;
+        }
+        if (statistics == null) {
+            return new StreamedDataset(headers, targetIndex, 0, numericColumns, textColumns, ignoredColumns,
+                    new String[0], null, null, null, false, false);
+        }
+
+        RowSample.Rows rows = sample.rows();
+        int n = rows.size();
+        FeatureMatrix.Builder builder = FeatureMatrix.builder(n);
+        for (int j = 0; j < featureNames.length; j++) {
+            double[] values = new double[n];
+            long[] bits = null;
+            for (int i = 0; i < n; i++) {
+                double v = rows.values()[i][j];
+                if (Double.isNaN(v)) {
+                    if (bits == null) {
+                        bits = FeatureMatrix.newBitmap(n);
+                        for (int k = 0; k < i; k++)
+                            FeatureMatrix.setValid(bits, k);
+                    }
+                    continue;
+                }
+                values[i] = v;
+                if (bits != null)
+                    FeatureMatrix.setValid(bits, i);
+            }
+            if (j < numericColumns.size())
+                builder.addColumn(featureNames[j], values, bits);
+            else
+                builder.addColumn(featureNames[j], SparseColumn.fromDense(values));
+        }
+        return new StreamedDataset(headers, targetIndex, rowCount, numericColumns, textColumns, ignoredColumns,
+                featureNames, statistics, builder.build(), rows.targets(), sample.isSampled(),
+                sample.isSampled() && sample.isStratified());
+    }
+
+    /**
+     * Token counts of one text column over the terms fitted on the chunk:
+     * its vocabulary, or its used hash buckets.
+     */
+    private final class TextFeatures {
+        private final int column;
+        private final int offset;
+        private final List<String> names = new ArrayList<>();
+        private final Map<String, Integer> vocabulary = new HashMap<>();
+        private final int[] buckets;
+        private final HashedTerms.KeptTokens kept;
+
+        TextFeatures(int column, int offset, List<String> texts) {
+            this.column = column;
+            this.offset = offset;
+            if (textSettings.getVectorizer() == TextVectorizer.HASHING) {
+                HashedTerms hashed = HashedTerms.fit(texts, textSettings.getHashBuckets(),
+                        textSettings.getBucketTokens(), keepToken);
+                buckets = new int[hashed.buckets()];
+                kept = new HashedTerms.KeptTokens(keepToken);
+                Arrays.fill(buckets, -1);
+                for (int bucket : hashed.usedBuckets()) {
+                    buckets[bucket] = names.size();
+                    names.add(String.join("|", hashed.topTokens(bucket)));
+                }
+            } else {
+                buckets = null;
+                kept = null;
+                for (String term : BagOfWords.fit(texts, textSettings.getVocabularySize(), keepToken)
+                        .vocabulary()) {
+                    vocabulary.put(term, names.size());
+                    names.add(term);
+                }
+            }
+        }
+
+        void count(String text, double[] x) {
+            Arrays.fill(x, offset, offset + names.size(), 0.0);
+            int tokens = tokenizer.tokenize(text);
+            for (int t = 0; t < tokens; t++) {
+                if (buckets == null) {
+                    Integer index = vocabulary.get(tokenizer.token(t));
+                    if (index != null)
+                        x[offset + index]++;
+                    continue;
+                }
+                if (kept.get(tokenizer, t) == null)
+                    continue;
+                int hash = tokenizer.hash(t);
+                int index = buckets[HashedTerms.bucket(hash, buckets.length)];
+                if (index >= 0)
+                    x[offset + index] += HashedTerms.sign(hash);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.featureselection.data;
+
+import java.util.Objects;
+
+/**
+ * Out-of-core analysis. Uploads of at least {@code minUploadBytes} (0 turns
+ * the mode off) are streamed through {@link StreamingColumnProcessor}
+ * instead of being loaded; its first {@code chunkRows} rows fix the column
+ * types, bin edges and text features.
+ */
+public final class StreamingSettings {
+
+    public static final int DEFAULT_CHUNK_ROWS = 10_000;
+
+    private final long minUploadBytes;
+    private final int chunkRows;
+
+    public StreamingSettings(long minUploadBytes, int chunkRows) {
+        if (minUploadBytes < 0) {
+            throw new IllegalArgumentException("minUploadBytes must not be negative: " + minUploadBytes);
+        }
+        if (chunkRows < 1) {
+            throw new IllegalArgumentException("chunkRows must be positive: " + chunkRows);
+        }
+        this.minUploadBytes = minUploadBytes;
+        this.chunkRows = chunkRows;
+    }
+
+    public static StreamingSettings disabled() {
+        return new StreamingSettings(0, DEFAULT_CHUNK_ROWS);
+    }
+
+    public boolean appliesTo(long uploadBytes) {
+        return minUploadBytes > 0 && uploadBytes >= minUploadBytes;
+    }
+
+    public long getMinUploadBytes() {
+        return minUploadBytes;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof StreamingSettings))
+            return false;
+        StreamingSettings that = (StreamingSettings) o;
+        return minUploadBytes == that.minUploadBytes && chunkRows == that.chunkRows;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(minUploadBytes, chunkRows);
+    }
+}
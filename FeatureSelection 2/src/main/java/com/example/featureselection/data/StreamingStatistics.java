@@ -0,0 +1,203 @@
+package com.example.featureselection.data;
+
+import com.example.featureselection.stats.BinEdges;
+import com.example.featureselection.stats.ContingencyTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Filter statistics of every feature against one target, accumulated row by
+ * row so that no column is ever held: the shifted sums behind
+ * {@link ColumnMoments} and, per feature, the joint counts of its bin and the
+ * target's class (or bin, for a continuous target). Memory is features x bins
+ * x classes, independent of the row count.
+ * <p>
+ * Shifts and bin edges are fixed up front, normally from the first chunk of
+ * rows. Accumulators created by {@link #newPartial()} share them and merge by
+ * addition, so chunks can be accumulated apart and combined in any order.
+ * A missing cell (NaN) counts as 0, as it does in a {@link FeatureMatrix}.
+ */
+public final class StreamingStatistics {
+
+    private final int features;
+    private final double[] shifts;
+    private final double targetShift;
+    private final BinEdges[] edges;
+    private final BinEdges targetEdges;
+
+    private int rows;
+    private int[] classCounts = new int[0];
+    private double targetSum;
+    private double targetSumSq;
+    private final double[] sum;
+    private final double[] sumSq;
+    private final double[] sumXY;
+    private final List<double[]> classSums = new ArrayList<>();
+    private final int[][] joint;
+    private int targetCodes;
+
+    /**
+     * @param shifts      subtracted from each feature before summing, for
+     *                    accuracy; typically the first row
+     * @param targetShift subtracted from the target likewise
+     * @param edges       bin edges of each feature
+     * @param targetEdges bin edges of a continuous target, or null for class
+     *                    labels
+     */
+    public StreamingStatistics(double[] shifts, double targetShift, BinEdges[] edges, BinEdges targetEdges) {
+        if (shifts.length != edges.length) {
+            throw new IllegalArgumentException("shifts and edges differ in length: " + shifts.length + " vs "
+                    + edges.length);
+        }
+        this.features = shifts.length;
+        this.shifts = shifts;
+        this.targetShift = targetShift;
+        this.edges = edges;
+        this.targetEdges = targetEdges;
+        this.sum = new double[features];
+        this.sumSq = new double[features];
+        this.sumXY = new double[features];
+        this.joint = new int[features][];
+        this.targetCodes = targetEdges != null ? targetEdges.bins() : 0;
+        for (int j = 0; j < features; j++) {
+            joint[j] = new int[Math.max(1, targetCodes) * edges[j].bins()];
+        }
+    }
+
+    /**
+     * An empty accumulator with the same shifts and edges, which
+     * {@link #merge(StreamingStatistics)} accepts.
+     */
+    public StreamingStatistics newPartial() {
+        return new StreamingStatistics(shifts, targetShift, edges, targetEdges);
+    }
+
+    public int features() {
+        return features;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public boolean isClassification() {
+        return targetEdges == null;
+    }
+
+    /**
+     * Adds a row with a class label; labels are compact codes from 0.
+     */
+    public void add(double[] x, int label) {
+        if (targetEdges != null) {
+            throw new IllegalStateException("Accumulating a continuous target");
+        }
+        if (label >= classCounts.length) {
+            growClasses(label + 1);
+        }
+        classCounts[label]++;
+        accumulate(x, label, label, classSums.get(label));
+    }
+
+    public void add(double[] x, double y) {
+        if (targetEdges == null) {
+            throw new IllegalStateException("Accumulating class labels");
+        }
+        accumulate(x, y, targetEdges.code(y), null);
+    }
+
+    private void accumulate(double[] x, double y, int targetCode, double[] classSum) {
+        rows++;
+        double dy = y - targetShift;
+        targetSum += dy;
+        targetSumSq += dy * dy;
+        for (int j = 0; j < features; j++) {
+            double v = value(x, j);
+            double d = v - shifts[j];
+            sum[j] += d;
+            sumSq[j] += d * d;
+            sumXY[j] += d * dy;
+            if (classSum != null)
+                classSum[j] += d;
+            joint[j][targetCode * edges[j].bins() + edges[j].code(v)]++;
+        }
+    }
+
+    private static double value(double[] x, int j) {
+        double v = x[j];
+        return Double.isNaN(v) ? 0.0 : v;
+    }
+
+    /**
+     * Class-major layout, so a new class appends its cells.
+     */
+    private void growClasses(int classes) {
+        int from = classCounts.length;
+        classCounts = Arrays.copyOf(classCounts, classes);
+        for (int c = from; c < classes; c++) {
+            classSums.add(new double[features]);
+        }
+        if (classes > targetCodes) {
+            int capacity = Math.max(classes, targetCodes * 2);
+            for (int j = 0; j < features; j++) {
+                joint[j] = Arrays.copyOf(joint[j], capacity * edges[j].bins());
+            }
+            targetCodes = capacity;
+        }
+    }
+
+    public void merge(StreamingStatistics other) {
+        if (other.shifts != shifts || other.edges != edges || other.targetEdges != targetEdges) {
+            throw new IllegalArgumentException("Only accumulators from newPartial() can be merged");
+        }
+        if (other.classCounts.length > classCounts.length) {
+            growClasses(other.classCounts.length);
+        }
+        rows += other.rows;
+        targetSum += other.targetSum;
+        targetSumSq += other.targetSumSq;
+        for (int c = 0; c < other.classCounts.length; c++) {
+            classCounts[c] += other.classCounts[c];
+            double[] into = classSums.get(c);
+            double[] from = other.classSums.get(c);
+            for (int j = 0; j < features; j++) {
+                into[j] += from[j];
+            }
+        }
+        for (int j = 0; j < features; j++) {
+            sum[j] += other.sum[j];
+            sumSq[j] += other.sumSq[j];
+            sumXY[j] += other.sumXY[j];
+            int cells = Math.min(joint[j].length, other.joint[j].length);
+            for (int k = 0; k < cells; k++) {
+                joint[j][k] += other.joint[j][k];
+            }
+        }
+    }
+
+    /**
+     * The sums as {@link ColumnMoments}, for the linear scorers. For class
+     * labels Σxy uses the label codes, as {@link FeatureMatrix#moments(int[],
+     * com.example.featureselection.util.ScoringExecutor)} does.
+     */
+    public ColumnMoments moments() {
+        int classes = classCounts.length;
+        double[] classSum = new double[features * classes];
+        for (int c = 0; c < classes; c++) {
+            double[] s = classSums.get(c);
+            for (int j = 0; j < features; j++) {
+                classSum[j * classes + c] = s[j];
+            }
+        }
+        return ColumnMoments.of(rows, classCounts.clone(), targetSum, targetSumSq, sum, sumSq, sumXY, classSum);
+    }
+
+    /**
+     * I(X_j;Y) in nats over the fitted bins of feature j and the target.
+     */
+    public double mutualInformation(int j) {
+        int codes = targetEdges != null ? targetEdges.bins() : classCounts.length;
+        return ContingencyTable.mutualInformation(joint[j], codes, edges[j].bins());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.featureselection.data;
+
+import java.util.Locale;
+
+/**
+ * The text normalization formerly done by {@code text_tokenizer.py}:
+ * lowercase, replace {@code , ; " ' `} with a space, collapse whitespace runs
+ * to one space and trim. Runs in one scan over the characters.
+ */
+public final class TextCleaner {
+
+    private TextCleaner() {
+    }
+
+    public static String clean(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isSeparator(c) || isSpace(c)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(c);
+        }
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == ';' || c == '"' || c == '\'' || c == '`';
+    }
+
+    /**
+     * Python's {@code \s} on str: Unicode whitespace, including no-break spaces.
+     */
+    private static boolean isSpace(char c) {
+        return Character.isWhitespace(c) || Character.isSpaceChar(c);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.featureselection.data;
+
+import java.util.Objects;
+
+/**
+ * Text column vectorization. {@code vocabularySize} applies to
+ * {@link TextVectorizer#VOCABULARY}; {@code hashBuckets} and
+ * {@code bucketTokens} (tokens named per bucket) to
+ * {@link TextVectorizer#HASHING}.
+ */
+public final class TextSettings {
+
+    public static final int DEFAULT_VOCABULARY_SIZE = 30;
+    public static final int DEFAULT_HASH_BUCKETS = 64;
+    public static final int DEFAULT_BUCKET_TOKENS = 3;
+
+    private final TextVectorizer vectorizer;
+    private final int vocabularySize;
+    private final int hashBuckets;
+    private final int bucketTokens;
+
+    public TextSettings(TextVectorizer vectorizer, int vocabularySize, int hashBuckets, int bucketTokens) {
+        if (vectorizer == null) {
+            throw new IllegalArgumentException("vectorizer must not be null");
+        }
+        if (vocabularySize < 0) {
+            throw new IllegalArgumentException("vocabularySize must not be negative: " + vocabularySize);
+        }
+        if (hashBuckets < 1) {
+            throw new IllegalArgumentException("hashBuckets must be positive: " + hashBuckets);
+        }
+        if (bucketTokens < 1) {
+            throw new IllegalArgumentException("bucketTokens must be positive: " + bucketTokens);
+        }
+        this.vectorizer = vectorizer;
+        this.vocabularySize = vocabularySize;
+        this.hashBuckets = hashBuckets;
+        this.bucketTokens = bucketTokens;
+    }
+
+    public static TextSettings defaults() {
+        return new TextSettings(TextVectorizer.VOCABULARY, DEFAULT_VOCABULARY_SIZE, DEFAULT_HASH_BUCKETS,
+                DEFAULT_BUCKET_TOKENS);
+    }
+
+    public TextVectorizer getVectorizer() {
+        return vectorizer;
+    }
+
+    public int getVocabularySize() {
+        return vocabularySize;
+    }
+
+    public int getHashBuckets() {
+        return hashBuckets;
+    }
+
+    public int getBucketTokens() {
+        return bucketTokens;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof TextSettings))
+            return false;
+        TextSettings that = (TextSettings) o;
+        return vectorizer == that.vectorizer && vocabularySize == that.vocabularySize
+                && hashBuckets == that.hashBuckets && bucketTokens == that.bucketTokens;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(vectorizer, vocabularySize, hashBuckets, bucketTokens);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.featureselection.data;
+
+/**
+ * How text columns become numeric features.
+ */
+public enum TextVectorizer {
+    /** Counts of the most frequent terms of the column ({@link BagOfWords}). */
+    VOCABULARY,
+    /** Signed counts per hash bucket, in memory independent of the vocabulary ({@link HashedTerms}). */
+    HASHING
+}
@@ -0,0 +1,161 @@
+package com.example.featureselection.data;
+
+import java.util.Arrays;
+
+/**
+ * Word tokens of a text, equal to
+ * {@code cleanText(text).toLowerCase(Locale.ROOT).split("\\W+")} where
+ * {@code cleanText} replaces {@code , ; " ' `} with a space, collapses
+ * whitespace and trims. One scan lowercases the characters into a reusable
+ * buffer and records token spans; no regex runs and no string is built unless
+ * {@link #token(int)} asks for one. Like {@code split}, a text that cleans
+ * to nothing yields one empty token, and one whose first kept character is
+ * not a word character yields a leading empty token.
+ * Instances are not thread-safe; reuse one per thread.
+ */
+public final class Tokenizer {
+
+    private static final char DOTTED_CAPITAL_I = '\u0130';
+
+    private char[] chars = new char[256];
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private int count;
+    private int length;
+
+    /**
+     * Tokenizes {@code text}, replacing the previous tokens.
+     *
+     * @return the number of tokens
+     */
+    public int tokenize(String text) {
+        count = 0;
+        length = 0;
+        if (text == null || text.isEmpty())
+            return 0;
+        int n = text.length();
+        int i = 0;
+        // cleanText trims separators, whitespace and control characters.
+        while (i < n && isTrimmed(text.charAt(i)))
+            i++;
+        if (i == n) {
+            // "".split yields a single empty token.
+            add(0, 0);
+            return count;
+        }
+        boolean leadingEmpty = lowerWordChar(text.charAt(i)) == 0;
+        // Every character lowercases to at most one kept character.
+        if (n - i > chars.length)
+            chars = new char[Math.max(chars.length * 2, n - i)];
+
+        int start = -1;
+        for (; i < n; i++) {
+            char c = text.charAt(i);
+            char w = lowerWordChar(c);
+            if (w == 0) {
+                start = close(start);
+                continue;
+            }
+            if (start < 0) {
+                if (leadingEmpty) {
+                    add(0, 0);
+                    leadingEmpty = false;
+                }
+                start = length;
+            }
+            chars[length++] = w;
+            // Lowercases to "i" plus a combining dot, which is not a word character.
+            if (c == DOTTED_CAPITAL_I)
+                start = close(start);
+        }
+        close(start);
+        return count;
+    }
+
+    private int close(int start) {
+        if (start >= 0)
+            add(start, length);
+        return -1;
+    }
+
+    private void add(int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+    }
+
+    private static boolean isTrimmed(char c) {
+        return c <= ' ' || c == ',' || c == ';' || c == '"' || c == '\'' || c == '`';
+    }
+
+    /**
+     * The lowercase of {@code c} when that is a {@code \w} character
+     * ({@code [a-z0-9_]}), otherwise 0.
+     */
+    static char lowerWordChar(char c) {
+        if (c < 128) {
+            if (c >= 'A' && c <= 'Z')
+                return (char) (c + ('a' - 'A'));
+            return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_' ? c : 0;
+        }
+        if (c == DOTTED_CAPITAL_I)
+            return 'i';
+        char lower = Character.toLowerCase(c);
+        // e.g. the Kelvin sign, which lowercases to "k".
+        return lower < 128 ? lowerWordChar(lower) : 0;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Shared buffer holding the lowercased tokens; valid until the next call
+     * to {@link #tokenize(String)}.
+     */
+    public char[] chars() {
+        return chars;
+    }
+
+    public int start(int token) {
+        return starts[token];
+    }
+
+    public int end(int token) {
+        return ends[token];
+    }
+
+    public int length(int token) {
+        return ends[token] - starts[token];
+    }
+
+    public String token(int token) {
+        return new String(chars, starts[token], ends[token] - starts[token]);
+    }
+
+    /**
+     * {@link String#hashCode()} of the token, without building it.
+     */
+    public int hash(int token) {
+        int h = 0;
+        for (int i = starts[token]; i < ends[token]; i++)
+            h = 31 * h + chars[i];
+        return h;
+    }
+
+    public boolean matches(int token, String value) {
+        int start = starts[token];
+        int len = ends[token] - start;
+        if (value.length() != len)
+            return false;
+        for (int i = 0; i < len; i++) {
+            if (chars[start + i] != value.charAt(i))
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.featureselection.embedded;
+
+import com.example.featureselection.model.ForestStats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Raw importance per feature plus the cost of the forest that produced it.
+ */
+public final class ForestImportance {
+
+    private final Map<String, Double> scores;
+    private final ForestStats stats;
+
+    public ForestImportance(Map<String, Double> scores, ForestStats stats) {
+        this.scores = scores;
+        this.stats = stats;
+    }
+
+    public static ForestImportance empty() {
+        return new ForestImportance(new HashMap<>(), null);
+    }
+
+    public Map<String, Double> getScores() {
+        return scores;
+    }
+
+    /**
+     * Null when no forest was trained.
+     */
+    public ForestStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.featureselection.embedded;
+
+import java.util.Objects;
+
+/**
+ * Cost controls for {@link RandomForestImportance}. In adaptive mode the forest
+ * grows {@code batchTrees} at a time, up to {@code maxTrees}, and stops once
+ * the top-k importance ranking stops moving. Above {@code sampleRows} rows
+ * (0 disables sampling) the forest trains on a stratified row sample.
+ */
+public final class ForestSettings {
+
+    public static final int DEFAULT_MAX_TREES = 100;
+    public static final int DEFAULT_BATCH_TREES = 20;
+    public static final double DEFAULT_STABILITY_THRESHOLD = 0.95;
+    public static final int DEFAULT_TOP_K = 20;
+    public static final int DEFAULT_SAMPLE_ROWS = 50_000;
+
+    private final boolean adaptive;
+    private final int maxTrees;
+    private final int batchTrees;
+    private final double stabilityThreshold;
+    private final int topK;
+    private final int sampleRows;
+
+    public ForestSettings(boolean adaptive, int maxTrees, int batchTrees, double stabilityThreshold, int topK,
+            int sampleRows) {
+        if (maxTrees < 1) {
+            throw new IllegalArgumentException("maxTrees must be positive: " + maxTrees);
+        }
+        if (batchTrees < 1) {
+            throw new IllegalArgumentException("batchTrees must be positive: " + batchTrees);
+        }
+        if (topK < 2) {
+            throw new IllegalArgumentException("topK must be at least 2: " + topK);
+        }
+        if (sampleRows < 0) {
+            throw new IllegalArgumentException("sampleRows must not be negative: " + sampleRows);
+        }
+        this.adaptive = adaptive;
+        this.maxTrees = maxTrees;
+        this.batchTrees = Math.min(batchTrees, maxTrees);
+        this.stabilityThreshold = stabilityThreshold;
+        this.topK = topK;
+        this.sampleRows = sampleRows;
+    }
+
+    public static ForestSettings defaults() {
+        return new ForestSettings(true, DEFAULT_MAX_TREES, DEFAULT_BATCH_TREES, DEFAULT_STABILITY_THRESHOLD,
+                DEFAULT_TOP_K, DEFAULT_SAMPLE_ROWS);
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public int getMaxTrees() {
+        return maxTrees;
+    }
+
+    public int getBatchTrees() {
+        return batchTrees;
+    }
+
+    public double getStabilityThreshold() {
+        return stabilityThreshold;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public int getSampleRows() {
+        return sampleRows;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof ForestSettings))
+            return false;
+        ForestSettings that = (ForestSettings) o;
+        return adaptive == that.adaptive && maxTrees == that.maxTrees && batchTrees == that.batchTrees
+                && Double.compare(stabilityThreshold, that.stabilityThreshold) == 0 && topK == that.topK
+                && sampleRows == that.sampleRows;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(adaptive, maxTrees, batchTrees, stabilityThreshold, topK, sampleRows);
+    }
+}
@@ -1,106 +1,241 @@
 package com.example.featureselection.embedded;
 
+import com.example.featureselection.data.FeatureMatrix;
+import com.example.featureselection.model.ForestStats;
+import com.example.featureselection.util.SmileHelper;
+import com.example.featureselection.util.StageRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import smile.classification.RandomForest;
 import smile.data.DataFrame;
-import smile.data.Tuple;
 import smile.data.formula.Formula;
-import smile.data.type.StructField;
-import smile.data.type.StructType;
-import smile.data.type.DataTypes;
-import java.util.List;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.Properties;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Random Forest impurity importance. With adaptive settings the forest grows in
+ * batches and stops once the top-k ranking has been stable for
+ * {@link #STABLE_CHECKS} consecutive batches; large inputs are trained on a
+ * stratified row sample. See {@link ForestSettings}.
+ */
 @Component
 public class RandomForestImportance {
 
-    public Map<String, Double> calculate(double[][] x, int[] y, String[] featureNames) {
+    private static final Logger log = LoggerFactory.getLogger(RandomForestImportance.class);
+
+    static final int STABLE_CHECKS = 2;
+    private static final long SAMPLE_SEED = 42;
+
+    private final ForestSettings settings;
 
-        return calculateInternal(x, y, featureNames, true);
+    public RandomForestImportance() {
+        this(ForestSettings.defaults());
+    }
+
+    @Autowired
+    public RandomForestImportance(ForestSettings settings) {
+        this.settings = settings;
+    }
+
+    public Map<String, Double> calculate(double[][] x, int[] y, String[] featureNames) {
+        return calculate(FeatureMatrix.fromRows(x, featureNames), y);
     }
 
     public Map<String, Double> calculate(double[][] x, double[] y, String[] featureNames) {
+        return calculate(FeatureMatrix.fromRows(x, featureNames), y);
+    }
 
-        return calculateInternal(x, y, featureNames, false);
+    public Map<String, Double> calculate(FeatureMatrix x, int[] y) {
+        return fit(x, y).getScores();
     }
 
-    private Map<String, Double> calculateInternal(double[][] x, Object y, String[] featureNames,
-            boolean isClassification) {
-        Map<String, Double> scores = new HashMap<>();
+    public Map<String, Double> calculate(FeatureMatrix x, double[] y) {
+        return fit(x, y).getScores();
+    }
 
-        StructField[] fields = new StructField[featureNames.length + 1];
-        for (int i = 0; i < featureNames.length; i++) {
-            fields[i] = new StructField(featureNames[i], DataTypes.DoubleType);
-        }
+    public ForestImportance fit(FeatureMatrix x, int[] y) {
+        return fitInternal(x, features(x).intColumn("Class", y).build(), y, true);
+    }
 
-        if (isClassification) {
-            fields[featureNames.length] = new StructField("Class", DataTypes.IntegerType);
-        } else {
-            fields[featureNames.length] = new StructField("Target", DataTypes.DoubleType);
-        }
+    public ForestImportance fit(FeatureMatrix x, double[] y) {
+        return fitInternal(x, features(x).doubleColumn("Target", y).build(), null, false);
+    }
 
-        StructType schema = new StructType(fields);
+    /**
+     * Wraps the matrix columns directly; no row-major copy is needed.
+     */
+    private SmileHelper.FrameBuilder features(FeatureMatrix x) {
+        SmileHelper.FrameBuilder builder = SmileHelper.builder();
+        for (int j = 0; j < x.features(); j++) {
+            builder.doubleColumn(x.name(j), x.column(j));
+        }
+        return builder;
+    }
 
-        int rows = x.length;
+    private ForestImportance fitInternal(FeatureMatrix x, DataFrame df, int[] strata, boolean isClassification) {
+        Map<String, Double> scores = new HashMap<>();
+        String[] featureNames = x.names();
+        int rows = x.rows();
         // If we have fewer than 2 rows, we cannot train a forest or calculate potential
         // splits.
         // Return clear (zero) importance to avoid library errors (like "Invalid maximum
         // leaves: 1").
         if (rows < 2) {
-            return scores;
-        }
-
-        List<Tuple> data = new java.util.ArrayList<>();
-
-        int[] yInt = isClassification ? (int[]) y : null;
-        double[] yDouble = !isClassification ? (double[]) y : null;
-
-        for (int i = 0; i < rows; i++) {
-            Object[] row = new Object[featureNames.length + 1];
-            for (int j = 0; j < featureNames.length; j++) {
-                row[j] = x[i][j];
-            }
-            if (isClassification) {
-                row[featureNames.length] = yInt[i];
-            } else {
-                row[featureNames.length] = yDouble[i];
-            }
-            data.add(Tuple.of(row, schema));
+            return new ForestImportance(scores, null);
         }
 
-        DataFrame df = DataFrame.of(data, schema);
+        int[] sample = sampleRows(rows, strata, settings.getSampleRows());
+        DataFrame train = sample == null ? df : df.of(sample);
+        int trainRows = train.nrows();
 
-        java.util.Properties props = new java.util.Properties();
-        props.setProperty("smile.random.forest.trees", "100");
+        Properties props = new Properties();
         int mtry = (int) Math.sqrt(featureNames.length);
         if (mtry < 1)
             mtry = 1;
         props.setProperty("smile.random.forest.mtry", String.valueOf(mtry));
 
         // Ensure max.nodes is at least 2 even for small datasets
-        int maxNodes = Math.max(rows, 2);
-        System.out.println("RandomForestImportance: rows=" + rows + ", maxNodes=" + maxNodes);
+        int maxNodes = Math.max(trainRows, 2);
         props.setProperty("smile.random.forest.max.nodes", String.valueOf(maxNodes));
         props.setProperty("smile.random.forest.node.size", "1");
 
-        double[] importance;
-        if (isClassification) {
-            RandomForest model = RandomForest.fit(Formula.lhs("Class"), df, props);
-            importance = model.importance();
-        } else {
-            smile.regression.RandomForest model = smile.regression.RandomForest.fit(Formula.lhs("Target"), df, props);
-            importance = model.importance();
+        // A merged forest's importance is the sum over its trees, so batches only
+        // need their importance vectors added up.
+        double[] importance = new double[featureNames.length];
+        double[] previous = null;
+        int trees = 0;
+        int stable = 0;
+        Double rankCorrelation = null;
+        int batchSize = settings.isAdaptive() ? settings.getBatchTrees() : settings.getMaxTrees();
+        while (trees < settings.getMaxTrees()) {
+            StageRunner.checkInterrupted();
+            int batch = Math.min(batchSize, settings.getMaxTrees() - trees);
+            props.setProperty("smile.random.forest.trees", String.valueOf(batch));
+            double[] batchImportance = isClassification
+                    ? RandomForest.fit(Formula.lhs("Class"), train, props).importance()
+                    : smile.regression.RandomForest.fit(Formula.lhs("Target"), train, props).importance();
+            for (int i = 0; i < Math.min(importance.length, batchImportance.length); i++) {
+                importance[i] += batchImportance[i];
+            }
+            trees += batch;
+
+            if (previous != null) {
+                double rho = topKRankCorrelation(previous, importance, settings.getTopK());
+                rankCorrelation = rho;
+                stable = rho >= settings.getStabilityThreshold() ? stable + 1 : 0;
+                if (stable >= STABLE_CHECKS)
+                    break;
+            }
+            previous = importance.clone();
         }
+        boolean converged = stable >= STABLE_CHECKS;
+        log.debug("Random forest: {} trees on {} of {} rows, converged={}, rank correlation={}", trees, trainRows,
+                rows, converged, rankCorrelation);
 
         for (int i = 0; i < featureNames.length; i++) {
-            double imp = 0.0;
-            if (i < importance.length) {
-                imp = importance[i];
-            }
-            scores.put(featureNames[i], imp);
+            scores.put(featureNames[i], importance[i]);
+        }
+
+        ForestStats stats = ForestStats.builder()
+                .trees(trees)
+                .sampledRows(trainRows)
+                .totalRows(rows)
+                .converged(converged)
+                .rankCorrelation(rankCorrelation)
+                .build();
+        return new ForestImportance(scores, stats);
+    }
+
+    /**
+     * Sorted row indices of a seeded sample of {@code limit} rows, or null when
+     * all rows fit. With class labels each class keeps its share of the sample
+     * and at least one row; otherwise rows are drawn uniformly.
+     */
+    static int[] sampleRows(int rows, int[] labels, int limit) {
+        if (limit <= 0 || rows <= limit)
+            return null;
+        Random random = new Random(SAMPLE_SEED);
+        if (labels == null) {
+            int[] sample = draw(IntStream.range(0, rows).toArray(), limit, random);
+            Arrays.sort(sample);
+            return sample;
         }
 
-        return scores;
+        Map<Integer, List<Integer>> byClass = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            byClass.computeIfAbsent(labels[i], k -> new ArrayList<>()).add(i);
+        }
+        List<Integer> classes = new ArrayList<>(byClass.keySet());
+        classes.sort(Comparator.naturalOrder());
+        List<int[]> parts = new ArrayList<>();
+        int total = 0;
+        for (int c : classes) {
+            int[] members = byClass.get(c).stream().mapToInt(Integer::intValue).toArray();
+            int quota = (int) Math.max(1, Math.round((double) members.length * limit / rows));
+            int[] part = draw(members, Math.min(quota, members.length), random);
+            parts.add(part);
+            total += part.length;
+        }
+        int[] sample = new int[total];
+        int offset = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, sample, offset, part.length);
+            offset += part.length;
+        }
+        Arrays.sort(sample);
+        return sample;
+    }
+
+    /**
+     * First {@code count} elements of a partial Fisher-Yates shuffle.
+     */
+    private static int[] draw(int[] pool, int count, Random random) {
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(pool.length - i);
+            int tmp = pool[i];
+            pool[i] = pool[j];
+            pool[j] = tmp;
+        }
+        return Arrays.copyOf(pool, count);
+    }
+
+    /**
+     * Spearman correlation between the two importance vectors, restricted to
+     * the current top-k features.
+     */
+    static double topKRankCorrelation(double[] previous, double[] current, int topK) {
+        int k = Math.min(topK, current.length);
+        if (k < 2)
+            return 1.0;
+        int[] top = byDescending(current, IntStream.range(0, current.length).toArray());
+        int[] subset = Arrays.copyOf(top, k);
+        int[] previousOrder = byDescending(previous, subset);
+        int[] previousRank = new int[current.length];
+        for (int r = 0; r < k; r++) {
+            previousRank[previousOrder[r]] = r;
+        }
+        double d2 = 0.0;
+        for (int r = 0; r < k; r++) {
+            double d = r - previousRank[subset[r]];
+            d2 += d * d;
+        }
+        return 1.0 - 6.0 * d2 / ((double) k * ((double) k * k - 1));
+    }
+
+    private static int[] byDescending(double[] values, int[] indices) {
+        return Arrays.stream(indices).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> -values[i]).thenComparingInt(i -> i))
+                .mapToInt(Integer::intValue)
+                .toArray();
     }
 }
@@ -37,6 +37,24 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(JobNotFoundException.class)
+    public ResponseEntity<Object> handleJobNotFound(JobNotFoundException ex) {
+        log.warn("Job not found: {}", ex.getMessage());
+        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(JobStateException.class)
+    public ResponseEntity<Object> handleJobState(JobStateException ex) {
+        log.warn("Job conflict: {}", ex.getMessage());
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<Object> handleJobQueueFull(JobQueueFullException ex) {
+        log.warn("Rejected analysis job: {}", ex.getMessage());
+        return buildResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+    }
+
     @ExceptionHandler(MaxUploadSizeExceededException.class)
     public ResponseEntity<Object> handleMaxSizeException(MaxUploadSizeExceededException exc) {
         log.warn("File too large: {}", exc.getMessage());
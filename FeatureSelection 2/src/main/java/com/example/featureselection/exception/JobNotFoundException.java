@@ -0,0 +1,10 @@
+package com.example.featureselection.exception;
+
+public class JobNotFoundException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JobNotFoundException(String jobId) {
+        super("Job '" + jobId + "' not found");
+    }
+}
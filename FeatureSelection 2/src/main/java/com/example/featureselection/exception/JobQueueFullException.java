@@ -0,0 +1,10 @@
+package com.example.featureselection.exception;
+
+public class JobQueueFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JobQueueFullException(int capacity) {
+        super("Analysis queue is full (" + capacity + " jobs waiting); retry later");
+    }
+}
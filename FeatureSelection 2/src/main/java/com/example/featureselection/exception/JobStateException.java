@@ -0,0 +1,13 @@
+package com.example.featureselection.exception;
+
+/**
+ * The job exists but is not in a state that allows the request.
+ */
+public class JobStateException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JobStateException(String message) {
+        super(message);
+    }
+}
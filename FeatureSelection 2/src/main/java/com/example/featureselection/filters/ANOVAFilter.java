@@ -1,85 +1,77 @@
 package com.example.featureselection.filters;
 
+import com.example.featureselection.data.ColumnMoments;
+import com.example.featureselection.data.FeatureMatrix;
+import com.example.featureselection.util.ScoringExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import smile.math.MathEx;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.IntStream;
 
 @Component
 public class ANOVAFilter {
 
+    private final ScoringExecutor executor;
+
+    public ANOVAFilter() {
+        this(ScoringExecutor.sequential());
+    }
+
+    @Autowired
+    public ANOVAFilter(ScoringExecutor executor) {
+        this.executor = executor;
+    }
+
     public Map<String, Double> calculate(double[][] x, int[] y, String[] featureNames) {
+        return calculate(FeatureMatrix.fromRows(x, featureNames), y);
+    }
+
+    public Map<String, Double> calculate(FeatureMatrix x, int[] y) {
+        return calculate(x.moments(y, executor), x.names());
+    }
+
+    /**
+     * Scores from class-target moments gathered elsewhere, e.g. while
+     * streaming.
+     */
+    public Map<String, Double> calculate(ColumnMoments moments, String[] featureNames) {
         Map<String, Double> scores = new HashMap<>();
-        int features = x[0].length;
-        int samples = x.length;
-
-        
-        int[] uniqueClasses = IntStream.of(y).distinct().sorted().toArray();
-        int k = uniqueClasses.length;
-
-        for (int j = 0; j < features; j++) {
-            double[] featureCol = new double[samples];
-            for (int i = 0; i < samples; i++) {
-                featureCol[i] = x[i][j];
-            }
-
-            
-            List<double[]> groups = new ArrayList<>();
-            for (int label : uniqueClasses) {
-                
-                
-                List<Double> groupList = new ArrayList<>();
-                for (int i = 0; i < samples; i++) {
-                    if (y[i] == label) {
-                        groupList.add(featureCol[i]);
-                    }
-                }
-                groups.add(groupList.stream().mapToDouble(d -> d).toArray());
-            }
-
-            
-            
-            
-            
-
-            double globalMean = MathEx.mean(featureCol);
-            double ssb = 0.0;
-            double ssw = 0.0;
-
-            for (double[] group : groups) {
-                double groupMean = MathEx.mean(group);
-                ssb += group.length * Math.pow(groupMean - globalMean, 2);
-
-                for (double val : group) {
-                    ssw += Math.pow(val - groupMean, 2);
-                }
-            }
-
-            double msb = ssb / (k - 1);
-            double msw = ssw / (samples - k);
-
-            double fScore = 0.0;
-            if (msw > 1e-10) {
-                fScore = msb / msw;
-            } else {
-                fScore = 0.0; 
-            }
-
-            if (Double.isNaN(fScore))
-                fScore = 0.0;
-
-            scores.put(featureNames[j], fScore);
+        for (int j = 0; j < featureNames.length; j++) {
+            scores.put(featureNames[j], fScore(moments, j));
         }
         return scores;
     }
 
+    private double fScore(ColumnMoments moments, int j) {
+        int samples = moments.rows();
+        int k = moments.classes();
+        double ssb = moments.betweenClassSumOfSquares(j);
+        double ssw = Math.max(0.0, moments.centeredSumOfSquares(j) - ssb);
+
+        double msb = ssb / (k - 1);
+        double msw = ssw / (samples - k);
+
+        double fScore = 0.0;
+        if (msw > 1e-10) {
+            fScore = msb / msw;
+        } else {
+            fScore = 0.0; 
+        }
+
+        if (Double.isNaN(fScore))
+            fScore = 0.0;
+
+        return fScore;
+    }
+
     public Map<String, Double> calculate(double[][] x, double[] y, String[] featureNames) {
+        return calculate(FeatureMatrix.fromRows(x, featureNames), y);
+    }
+
+    public Map<String, Double> calculate(FeatureMatrix x, double[] y) {
         Map<String, Double> scores = new HashMap<>();
-        for (String name : featureNames) {
+        for (String name : x.names()) {
             scores.put(name, 0.0);
         }
         return scores;
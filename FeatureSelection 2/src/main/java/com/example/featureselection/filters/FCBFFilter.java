@@ -1,43 +1,62 @@
 package com.example.featureselection.filters;
 
+import com.example.featureselection.data.DiscretizedMatrix;
+import com.example.featureselection.data.FeatureMatrix;
+import com.example.featureselection.stats.BinnedColumn;
+import com.example.featureselection.stats.ContingencyTable;
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.example.featureselection.util.ScoringExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Component
 public class FCBFFilter {
 
+    private final ScoringExecutor executor;
+    private final DiscretizationSettings discretization;
+
+    public FCBFFilter() {
+        this(ScoringExecutor.sequential(), DiscretizationSettings.defaults());
+    }
+
+    @Autowired
+    public FCBFFilter(ScoringExecutor executor, DiscretizationSettings discretization) {
+        this.executor = executor;
+        this.discretization = discretization;
+    }
+
     public List<String> calculate(double[][] x, int[] y, String[] featureNames) {
-        return calculateInternal(x, y, featureNames);
+        return calculate(FeatureMatrix.fromRows(x, featureNames), y);
     }
 
     public List<String> calculate(double[][] x, double[] y, String[] featureNames) {
-        int[] discretizedY = discretize(y, 10);
-        return calculateInternal(x, discretizedY, featureNames);
+        return calculate(FeatureMatrix.fromRows(x, featureNames), y);
+    }
+
+    public List<String> calculate(FeatureMatrix x, int[] y) {
+        return calculateInternal(x.discretized(discretization), x, BinnedColumn.ofLabels(y));
+    }
+
+    public List<String> calculate(FeatureMatrix x, double[] y) {
+        DiscretizedMatrix binned = x.discretized(discretization);
+        return calculateInternal(binned, x, binned.target(y));
     }
 
-    private List<String> calculateInternal(double[][] x, int[] y, String[] featureNames) {
-        int samples = x.length;
-        int features = x[0].length;
+    private List<String> calculateInternal(DiscretizedMatrix binned, FeatureMatrix x, BinnedColumn y) {
+        int features = x.features();
+        String[] featureNames = x.names();
 
         
-        int[][] discretizedX = new int[features][samples];
-        for (int j = 0; j < features; j++) {
-            double[] col = new double[samples];
-            for (int i = 0; i < samples; i++)
-                col[i] = x[i][j];
-            discretizedX[j] = discretize(col, 10);
-        }
+        double[] relevance = executor.map(features, j -> calculateSU(binned.column(j), y));
 
         
         List<FeatureSU> featureSUs = new ArrayList<>();
         for (int j = 0; j < features; j++) {
-            double su = calculateSU(discretizedX[j], y);
+            double su = relevance[j];
             
             if (su > 1e-4) {
                 featureSUs.add(new FeatureSU(decisionIndex(j, featureNames), j, su, featureNames[j]));
@@ -49,28 +68,33 @@ public class FCBFFilter {
 
         
         List<String> selectedFeatures = new ArrayList<>();
-        boolean[] removed = new boolean[featureSUs.size()];
+        int size = featureSUs.size();
+        boolean[] removed = new boolean[size];
+        int[] candidates = new int[size];
 
-        for (int i = 0; i < featureSUs.size(); i++) {
+        for (int i = 0; i < size; i++) {
             if (removed[i])
                 continue;
 
             FeatureSU fTop = featureSUs.get(i);
             selectedFeatures.add(fTop.name);
-
-            for (int k = i + 1; k < featureSUs.size(); k++) {
-                if (removed[k])
-                    continue;
-
+            BinnedColumn top = binned.column(fTop.index);
+
+            // Each candidate is checked against this predominant feature only,
+            // so the checks are independent and each flag has a single writer.
+            int live = 0;
+            for (int k = i + 1; k < size; k++) {
+                if (!removed[k])
+                    candidates[live++] = k;
+            }
+            executor.forEach(live, c -> {
+                int k = candidates[c];
                 FeatureSU fCandidate = featureSUs.get(k);
-                
-                double suXX = calculateSU(discretizedX[fTop.index], discretizedX[fCandidate.index]);
-
-                
+                double suXX = calculateSU(top, binned.column(fCandidate.index));
                 if (suXX >= fCandidate.su) {
                     removed[k] = true;
                 }
-            }
+            });
         }
 
         return selectedFeatures;
@@ -92,66 +116,7 @@ public class FCBFFilter {
         }
     }
 
-    private int[] discretize(double[] feature, int bins) {
-        int n = feature.length;
-        int[] discretized = new int[n];
-        double min = Arrays.stream(feature).min().orElse(0);
-        double max = Arrays.stream(feature).max().orElse(1);
-        double width = (max - min) / bins;
-
-        if (width == 0) {
-            return new int[n];
-        }
-
-        for (int i = 0; i < n; i++) {
-            int bin = (int) ((feature[i] - min) / width);
-            if (bin >= bins)
-                bin = bins - 1;
-            discretized[i] = bin;
-        }
-        return discretized;
-    }
-
-    private double calculateSU(int[] x, int[] y) {
-        double hx = entropy(x);
-        double hy = entropy(y);
-        double hxy = jointEntropy(x, y);
-        double mi = hx + hy - hxy;
-
-        if (hx + hy == 0)
-            return 0.0;
-
-        return 2.0 * mi / (hx + hy);
-    }
-
-    private double entropy(int[] data) {
-        Map<Integer, Integer> counts = new HashMap<>();
-        for (int val : data) {
-            counts.put(val, counts.getOrDefault(val, 0) + 1);
-        }
-
-        double entropy = 0.0;
-        int n = data.length;
-        for (int count : counts.values()) {
-            double p = (double) count / n;
-            entropy -= p * Math.log(p);
-        }
-        return entropy;
-    }
-
-    private double jointEntropy(int[] x, int[] y) {
-        Map<String, Integer> counts = new HashMap<>();
-        int n = x.length;
-        for (int i = 0; i < n; i++) {
-            String key = x[i] + "," + y[i];
-            counts.put(key, counts.getOrDefault(key, 0) + 1);
-        }
-
-        double entropy = 0.0;
-        for (int count : counts.values()) {
-            double p = (double) count / n;
-            entropy -= p * Math.log(p);
-        }
-        return entropy;
+    private double calculateSU(BinnedColumn x, BinnedColumn y) {
+        return ContingencyTable.symmetricalUncertainty(x, y);
     }
 }
@@ -1,104 +1,73 @@
 package com.example.featureselection.filters;
 
+import com.example.featureselection.data.DiscretizedMatrix;
+import com.example.featureselection.data.FeatureMatrix;
+import com.example.featureselection.data.StreamingStatistics;
+import com.example.featureselection.stats.BinnedColumn;
+import com.example.featureselection.stats.ContingencyTable;
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.example.featureselection.util.ScoringExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Arrays;
 
 @Component
 public class MutualInformationFilter {
 
-    public Map<String, Double> calculate(double[][] x, int[] y, String[] featureNames) {
-        return calculateInternal(x, y, featureNames);
-    }
+    private final ScoringExecutor executor;
+    private final DiscretizationSettings discretization;
 
-    public Map<String, Double> calculate(double[][] x, double[] y, String[] featureNames) {
-        
-        int[] discretizedY = discretize(y, 10);
-        return calculateInternal(x, discretizedY, featureNames);
+    public MutualInformationFilter() {
+        this(ScoringExecutor.sequential(), DiscretizationSettings.defaults());
     }
 
-    private Map<String, Double> calculateInternal(double[][] x, int[] y, String[] featureNames) {
-        Map<String, Double> scores = new HashMap<>();
-        int samples = x.length;
-        int features = x[0].length;
-
-        for (int j = 0; j < features; j++) {
-            double[] featureCol = new double[samples];
-            for (int i = 0; i < samples; i++) {
-                featureCol[i] = x[i][j];
-            }
-
-            
-            int[] discretizedFeature = discretize(featureCol, 10);
-
-            
-            double mi = calculateMutualInformation(discretizedFeature, y);
-            scores.put(featureNames[j], mi);
-        }
-        return scores;
+    @Autowired
+    public MutualInformationFilter(ScoringExecutor executor, DiscretizationSettings discretization) {
+        this.executor = executor;
+        this.discretization = discretization;
     }
 
-    private int[] discretize(double[] feature, int bins) {
-        int n = feature.length;
-        int[] discretized = new int[n];
-        double min = Arrays.stream(feature).min().orElse(0);
-        double max = Arrays.stream(feature).max().orElse(1);
-        double width = (max - min) / bins;
-
-        if (width == 0) {
-            return new int[n]; 
-        }
-
-        for (int i = 0; i < n; i++) {
-            int bin = (int) ((feature[i] - min) / width);
-            if (bin >= bins)
-                bin = bins - 1;
-            discretized[i] = bin;
-        }
-        return discretized;
+    public Map<String, Double> calculate(double[][] x, int[] y, String[] featureNames) {
+        return calculate(FeatureMatrix.fromRows(x, featureNames), y);
     }
 
-    private double calculateMutualInformation(int[] x, int[] y) {
-        
-        
-
-        double hx = entropy(x);
-        double hy = entropy(y);
-        double hxy = jointEntropy(x, y);
+    public Map<String, Double> calculate(double[][] x, double[] y, String[] featureNames) {
+        return calculate(FeatureMatrix.fromRows(x, featureNames), y);
+    }
 
-        return hx + hy - hxy;
+    public Map<String, Double> calculate(FeatureMatrix x, int[] y) {
+        return calculateInternal(x.discretized(discretization), x, BinnedColumn.ofLabels(y));
     }
 
-    private double entropy(int[] data) {
-        Map<Integer, Integer> counts = new HashMap<>();
-        for (int val : data) {
-            counts.put(val, counts.getOrDefault(val, 0) + 1);
-        }
+    public Map<String, Double> calculate(FeatureMatrix x, double[] y) {
+        DiscretizedMatrix binned = x.discretized(discretization);
+        return calculateInternal(binned, x, binned.target(y));
+    }
 
-        double entropy = 0.0;
-        int n = data.length;
-        for (int count : counts.values()) {
-            double p = (double) count / n;
-            entropy -= p * Math.log(p);
+    /**
+     * Scores from the joint counts of a streamed upload; its bins were
+     * fitted on the first chunk.
+     */
+    public Map<String, Double> calculate(StreamingStatistics statistics, String[] featureNames) {
+        Map<String, Double> scores = new HashMap<>();
+        double[] mi = executor.map(featureNames.length, statistics::mutualInformation);
+        for (int j = 0; j < featureNames.length; j++) {
+            scores.put(featureNames[j], mi[j]);
         }
-        return entropy;
+        return scores;
     }
 
-    private double jointEntropy(int[] x, int[] y) {
-        Map<String, Integer> counts = new HashMap<>();
-        int n = x.length;
-        for (int i = 0; i < n; i++) {
-            String key = x[i] + "," + y[i];
-            counts.put(key, counts.getOrDefault(key, 0) + 1);
-        }
+    private Map<String, Double> calculateInternal(DiscretizedMatrix binned, FeatureMatrix x, BinnedColumn y) {
+        Map<String, Double> scores = new HashMap<>();
+        int features = x.features();
 
-        double entropy = 0.0;
-        for (int count : counts.values()) {
-            double p = (double) count / n;
-            entropy -= p * Math.log(p);
+        double[] mi = executor.map(features, j -> ContingencyTable.mutualInformation(binned.column(j), y));
+
+        for (int j = 0; j < features; j++) {
+            scores.put(x.name(j), mi[j]);
         }
-        return entropy;
+        return scores;
     }
 }
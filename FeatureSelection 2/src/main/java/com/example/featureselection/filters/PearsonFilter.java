@@ -1,7 +1,10 @@
 package com.example.featureselection.filters;
 
+import com.example.featureselection.data.ColumnMoments;
+import com.example.featureselection.data.FeatureMatrix;
+import com.example.featureselection.util.ScoringExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import smile.math.MathEx;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -9,36 +12,45 @@ import java.util.Map;
 @Component
 public class PearsonFilter {
 
+    private final ScoringExecutor executor;
+
+    public PearsonFilter() {
+        this(ScoringExecutor.sequential());
+    }
+
+    @Autowired
+    public PearsonFilter(ScoringExecutor executor) {
+        this.executor = executor;
+    }
+
     public Map<String, Double> calculate(double[][] x, int[] y, String[] featureNames) {
-        int samples = x.length;
-        double[] target = new double[samples];
-        for (int i = 0; i < samples; i++) {
-            target[i] = (double) y[i];
-        }
-        return calculateInternal(x, target, featureNames);
+        return calculate(FeatureMatrix.fromRows(x, featureNames), y);
     }
 
     public Map<String, Double> calculate(double[][] x, double[] y, String[] featureNames) {
-        return calculateInternal(x, y, featureNames);
+        return calculate(FeatureMatrix.fromRows(x, featureNames), y);
+    }
+
+    public Map<String, Double> calculate(FeatureMatrix x, int[] y) {
+        return calculate(x.moments(y, executor), x.names());
+    }
+
+    public Map<String, Double> calculate(FeatureMatrix x, double[] y) {
+        return calculate(x.moments(y, executor), x.names());
     }
 
-    private Map<String, Double> calculateInternal(double[][] x, double[] y, String[] featureNames) {
+    /**
+     * Scores from moments gathered elsewhere, e.g. while streaming.
+     */
+    public Map<String, Double> calculate(ColumnMoments moments, String[] featureNames) {
         Map<String, Double> scores = new HashMap<>();
-        int samples = x.length;
-        int features = x[0].length;
+        int features = featureNames.length;
+        double syy = moments.targetCenteredSumOfSquares();
 
         for (int j = 0; j < features; j++) {
-            double[] featureCol = new double[samples];
-            for (int i = 0; i < samples; i++) {
-                featureCol[i] = x[i][j];
-            }
-
-            
-            double correlation = Math.abs(MathEx.cor(featureCol, y));
-            if (Double.isNaN(correlation)) {
-                correlation = 0.0;
-            }
-            scores.put(featureNames[j], correlation);
+            double correlation = Math.abs(moments.centeredCrossProduct(j)
+                    / Math.sqrt(moments.centeredSumOfSquares(j) * syy));
+            scores.put(featureNames[j], Double.isNaN(correlation) || Double.isInfinite(correlation) ? 0.0 : correlation);
         }
         return scores;
     }
@@ -0,0 +1,101 @@
+package com.example.featureselection.model;
+
+public class ForestStats {
+    private int trees;
+    private int sampledRows;
+    private int totalRows;
+    private boolean converged;
+    private Double rankCorrelation;
+
+    public ForestStats() {
+    }
+
+    public ForestStats(int trees, int sampledRows, int totalRows, boolean converged, Double rankCorrelation) {
+        this.trees = trees;
+        this.sampledRows = sampledRows;
+        this.totalRows = totalRows;
+        this.converged = converged;
+        this.rankCorrelation = rankCorrelation;
+    }
+
+    public static ForestStatsBuilder builder() {
+        return new ForestStatsBuilder();
+    }
+
+    public int getTrees() {
+        return trees;
+    }
+
+    public void setTrees(int trees) {
+        this.trees = trees;
+    }
+
+    public int getSampledRows() {
+        return sampledRows;
+    }
+
+    public void setSampledRows(int sampledRows) {
+        this.sampledRows = sampledRows;
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+
+    public void setConverged(boolean converged) {
+        this.converged = converged;
+    }
+
+    public Double getRankCorrelation() {
+        return rankCorrelation;
+    }
+
+    public void setRankCorrelation(Double rankCorrelation) {
+        this.rankCorrelation = rankCorrelation;
+    }
+
+    public static class ForestStatsBuilder {
+        private int trees;
+        private int sampledRows;
+        private int totalRows;
+        private boolean converged;
+        private Double rankCorrelation;
+
+        public ForestStatsBuilder trees(int trees) {
+            this.trees = trees;
+            return this;
+        }
+
+        public ForestStatsBuilder sampledRows(int sampledRows) {
+            this.sampledRows = sampledRows;
+            return this;
+        }
+
+        public ForestStatsBuilder totalRows(int totalRows) {
+            this.totalRows = totalRows;
+            return this;
+        }
+
+        public ForestStatsBuilder converged(boolean converged) {
+            this.converged = converged;
+            return this;
+        }
+
+        public ForestStatsBuilder rankCorrelation(Double rankCorrelation) {
+            this.rankCorrelation = rankCorrelation;
+            return this;
+        }
+
+        public ForestStats build() {
+            return new ForestStats(trees, sampledRows, totalRows, converged, rankCorrelation);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.featureselection.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class JobInfo {
+    private String jobId;
+    private JobStatus status;
+    private Map<String, String> stages;
+    private String error;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    public JobInfo() {
+    }
+
+    public JobInfo(String jobId, JobStatus status, Map<String, String> stages, String error, Instant submittedAt,
+            Instant startedAt, Instant finishedAt) {
+        this.jobId = jobId;
+        this.status = status;
+        this.stages = stages;
+        this.error = error;
+        this.submittedAt = submittedAt;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+    }
+
+    public static JobInfoBuilder builder() {
+        return new JobInfoBuilder();
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * Stage name to RUNNING, COMPLETED or FAILED, in start order.
+     */
+    public Map<String, String> getStages() {
+        return stages;
+    }
+
+    public void setStages(Map<String, String> stages) {
+        this.stages = stages;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public static class JobInfoBuilder {
+        private String jobId;
+        private JobStatus status;
+        private Map<String, String> stages;
+        private String error;
+        private Instant submittedAt;
+        private Instant startedAt;
+        private Instant finishedAt;
+
+        public JobInfoBuilder jobId(String jobId) {
+            this.jobId = jobId;
+            return this;
+        }
+
+        public JobInfoBuilder status(JobStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public JobInfoBuilder stages(Map<String, String> stages) {
+            this.stages = stages;
+            return this;
+        }
+
+        public JobInfoBuilder error(String error) {
+            this.error = error;
+            return this;
+        }
+
+        public JobInfoBuilder submittedAt(Instant submittedAt) {
+            this.submittedAt = submittedAt;
+            return this;
+        }
+
+        public JobInfoBuilder startedAt(Instant startedAt) {
+            this.startedAt = startedAt;
+            return this;
+        }
+
+        public JobInfoBuilder finishedAt(Instant finishedAt) {
+            this.finishedAt = finishedAt;
+            return this;
+        }
+
+        public JobInfo build() {
+            return new JobInfo(jobId, status, stages, error, submittedAt, startedAt, finishedAt);
+        }
+    }
+}
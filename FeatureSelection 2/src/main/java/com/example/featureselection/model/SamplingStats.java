@@ -0,0 +1,89 @@
+package com.example.featureselection.model;
+
+/**
+ * Rows seen by the model-based stages (Random Forest, FCBF and the wrapper);
+ * the other filters always score every row.
+ */
+public class SamplingStats {
+    private boolean sampled;
+    private int sampleRows;
+    private int totalRows;
+    private boolean stratified;
+
+    public SamplingStats() {
+    }
+
+    public SamplingStats(boolean sampled, int sampleRows, int totalRows, boolean stratified) {
+        this.sampled = sampled;
+        this.sampleRows = sampleRows;
+        this.totalRows = totalRows;
+        this.stratified = stratified;
+    }
+
+    public static SamplingStatsBuilder builder() {
+        return new SamplingStatsBuilder();
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public void setSampled(boolean sampled) {
+        this.sampled = sampled;
+    }
+
+    public int getSampleRows() {
+        return sampleRows;
+    }
+
+    public void setSampleRows(int sampleRows) {
+        this.sampleRows = sampleRows;
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(int totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public boolean isStratified() {
+        return stratified;
+    }
+
+    public void setStratified(boolean stratified) {
+        this.stratified = stratified;
+    }
+
+    public static class SamplingStatsBuilder {
+        private boolean sampled;
+        private int sampleRows;
+        private int totalRows;
+        private boolean stratified;
+
+        public SamplingStatsBuilder sampled(boolean sampled) {
+            this.sampled = sampled;
+            return this;
+        }
+
+        public SamplingStatsBuilder sampleRows(int sampleRows) {
+            this.sampleRows = sampleRows;
+            return this;
+        }
+
+        public SamplingStatsBuilder totalRows(int totalRows) {
+            this.totalRows = totalRows;
+            return this;
+        }
+
+        public SamplingStatsBuilder stratified(boolean stratified) {
+            this.stratified = stratified;
+            return this;
+        }
+
+        public SamplingStats build() {
+            return new SamplingStats(sampled, sampleRows, totalRows, stratified);
+        }
+    }
+}
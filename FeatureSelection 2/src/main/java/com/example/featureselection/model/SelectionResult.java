@@ -7,6 +7,10 @@ public class SelectionResult {
     private List<String> rejectedFeatures;
     private List<FeatureScore> featureScores;
     private String mode;
+    private ForestStats forestStats;
+    private WrapperBudget wrapperBudget;
+    private SamplingStats sampling;
+    private boolean cacheHit;
 
     public SelectionResult() {
     }
@@ -19,6 +23,13 @@ public class SelectionResult {
         this.mode = mode;
     }
 
+    public SelectionResult(List<String> selectedFeatures, List<String> rejectedFeatures,
+            List<FeatureScore> featureScores, String mode, ForestStats forestStats, WrapperBudget wrapperBudget) {
+        this(selectedFeatures, rejectedFeatures, featureScores, mode);
+        this.forestStats = forestStats;
+        this.wrapperBudget = wrapperBudget;
+    }
+
     public static SelectionResultBuilder builder() {
         return new SelectionResultBuilder();
     }
@@ -55,11 +66,46 @@ public class SelectionResult {
         this.mode = mode;
     }
 
+    public ForestStats getForestStats() {
+        return forestStats;
+    }
+
+    public void setForestStats(ForestStats forestStats) {
+        this.forestStats = forestStats;
+    }
+
+    public WrapperBudget getWrapperBudget() {
+        return wrapperBudget;
+    }
+
+    public void setWrapperBudget(WrapperBudget wrapperBudget) {
+        this.wrapperBudget = wrapperBudget;
+    }
+
+    public SamplingStats getSampling() {
+        return sampling;
+    }
+
+    public void setSampling(SamplingStats sampling) {
+        this.sampling = sampling;
+    }
+
+    public boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    public void setCacheHit(boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+
     public static class SelectionResultBuilder {
         private List<String> selectedFeatures;
         private List<String> rejectedFeatures;
         private List<FeatureScore> featureScores;
         private String mode;
+        private ForestStats forestStats;
+        private WrapperBudget wrapperBudget;
+        private SamplingStats sampling;
 
         public SelectionResultBuilder selectedFeatures(List<String> selectedFeatures) {
             this.selectedFeatures = selectedFeatures;
@@ -81,8 +127,26 @@ public class SelectionResult {
             return this;
         }
 
+        public SelectionResultBuilder forestStats(ForestStats forestStats) {
+            this.forestStats = forestStats;
+            return this;
+        }
+
+        public SelectionResultBuilder wrapperBudget(WrapperBudget wrapperBudget) {
+            this.wrapperBudget = wrapperBudget;
+            return this;
+        }
+
+        public SelectionResultBuilder sampling(SamplingStats sampling) {
+            this.sampling = sampling;
+            return this;
+        }
+
         public SelectionResult build() {
-            return new SelectionResult(selectedFeatures, rejectedFeatures, featureScores, mode);
+            SelectionResult result = new SelectionResult(selectedFeatures, rejectedFeatures, featureScores, mode,
+                    forestStats, wrapperBudget);
+            result.setSampling(sampling);
+            return result;
         }
     }
 }
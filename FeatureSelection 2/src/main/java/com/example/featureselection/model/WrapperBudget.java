@@ -0,0 +1,108 @@
+package com.example.featureselection.model;
+
+public class WrapperBudget {
+    private int evaluations;
+    private int maxEvaluations;
+    private long elapsedMillis;
+    private long maxMillis;
+    private boolean exhausted;
+
+    public WrapperBudget() {
+    }
+
+    public WrapperBudget(int evaluations, int maxEvaluations, long elapsedMillis, long maxMillis,
+            boolean exhausted) {
+        this.evaluations = evaluations;
+        this.maxEvaluations = maxEvaluations;
+        this.elapsedMillis = elapsedMillis;
+        this.maxMillis = maxMillis;
+        this.exhausted = exhausted;
+    }
+
+    public static WrapperBudgetBuilder builder() {
+        return new WrapperBudgetBuilder();
+    }
+
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    public void setEvaluations(int evaluations) {
+        this.evaluations = evaluations;
+    }
+
+    /**
+     * 0 when evaluations are not limited.
+     */
+    public int getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    public void setMaxEvaluations(int maxEvaluations) {
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * 0 when wall time is not limited.
+     */
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public void setMaxMillis(long maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    public void setExhausted(boolean exhausted) {
+        this.exhausted = exhausted;
+    }
+
+    public static class WrapperBudgetBuilder {
+        private int evaluations;
+        private int maxEvaluations;
+        private long elapsedMillis;
+        private long maxMillis;
+        private boolean exhausted;
+
+        public WrapperBudgetBuilder evaluations(int evaluations) {
+            this.evaluations = evaluations;
+            return this;
+        }
+
+        public WrapperBudgetBuilder maxEvaluations(int maxEvaluations) {
+            this.maxEvaluations = maxEvaluations;
+            return this;
+        }
+
+        public WrapperBudgetBuilder elapsedMillis(long elapsedMillis) {
+            this.elapsedMillis = elapsedMillis;
+            return this;
+        }
+
+        public WrapperBudgetBuilder maxMillis(long maxMillis) {
+            this.maxMillis = maxMillis;
+            return this;
+        }
+
+        public WrapperBudgetBuilder exhausted(boolean exhausted) {
+            this.exhausted = exhausted;
+            return this;
+        }
+
+        public WrapperBudget build() {
+            return new WrapperBudget(evaluations, maxEvaluations, elapsedMillis, maxMillis, exhausted);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.featureselection.service;
+
+import com.example.featureselection.model.SelectionResult;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Analysis results keyed by the SHA-256 of the uploaded bytes, the target, the
+ * vectorization flag and a fingerprint of the settings that shape results
+ * (every property under {@link #SCORING_PREFIXES}). Results are held as JSON,
+ * so every hit is a fresh copy and an entry weighs its serialized size. The
+ * in-memory store is LRU, bounded by total weight, and entries expire after
+ * the TTL (0 keeps them). With a directory configured, entries are also
+ * written there and read back on a memory miss, so they survive restarts; a
+ * configuration change gives new keys, so stale entries are never served.
+ */
+@Component
+public class AnalysisCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisCache.class);
+
+    private static final String SUFFIX = ".json";
+
+    /**
+     * Properties that change scores. Parallelism, stage, job and cache
+     * settings do not, and are left out.
+     */
+    static final List<String> SCORING_PREFIXES = List.of("featureselection.text.", "featureselection.sampling.",
+            "featureselection.streaming.", "featureselection.discretization.", "featureselection.rf.",
+            "featureselection.wrappers.");
+
+    private final boolean enabled;
+    private final long maxWeight;
+    private final long ttlMillis;
+    private final Path directory;
+    private final Clock clock;
+    private final String settings;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    @Autowired
+    public AnalysisCache(@Value("${featureselection.cache.enabled:true}") boolean enabled,
+            @Value("${featureselection.cache.max-weight-mb:64}") long maxWeightMb,
+            @Value("${featureselection.cache.ttl-minutes:60}") long ttlMinutes,
+            @Value("${featureselection.cache.directory:}") String directory, ConfigurableEnvironment environment) {
+        this(enabled, maxWeightMb * 1024 * 1024, Duration.ofMinutes(ttlMinutes),
+                directory == null || directory.isBlank() ? null : Path.of(directory), Clock.systemUTC(),
+                settingsFingerprint(environment));
+    }
+
+    AnalysisCache(boolean enabled, long maxWeightBytes, Duration ttl, Path directory, Clock clock) {
+        this(enabled, maxWeightBytes, ttl, directory, clock, "");
+    }
+
+    /**
+     * @param settings fingerprint of the scoring settings, part of every key
+     */
+    AnalysisCache(boolean enabled, long maxWeightBytes, Duration ttl, Path directory, Clock clock,
+            String settings) {
+        this.enabled = enabled;
+        this.settings = settings;
+        this.maxWeight = maxWeightBytes;
+        this.ttlMillis = ttl.toMillis();
+        this.directory = directory;
+        this.clock = clock;
+        if (enabled && directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot create cache directory " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * The resolved value of every property under {@link #SCORING_PREFIXES}
+     * that the environment sets, sorted by name. Properties left at their code
+     * defaults are absent, so setting or removing one changes it too.
+     */
+    static String settingsFingerprint(ConfigurableEnvironment environment) {
+        TreeMap<String, String> properties = new TreeMap<>();
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            if (!(source instanceof EnumerablePropertySource<?> enumerable))
+                continue;
+            for (String name : enumerable.getPropertyNames()) {
+                // Environment variables (FEATURESELECTION_RF_TOP_K) in dotted form.
+                String key = name.indexOf('.') < 0 ? name.toLowerCase(Locale.ROOT).replace('_', '.') : name;
+                if (SCORING_PREFIXES.stream().anyMatch(key::startsWith))
+                    properties.putIfAbsent(key, environment.getProperty(key));
+            }
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        properties.forEach((name, value) -> fingerprint.append(name).append('=').append(value).append('\n'));
+        return fingerprint.toString();
+    }
+
+    /**
+     * Cache key of an analysis request, or null when caching is disabled or the
+     * upload cannot be read.
+     */
+    public String key(MultipartFile file, String targetFeature, boolean skipTextVectorization) {
+        if (!enabled || file == null || file.isEmpty())
+            return null;
+        try (InputStream in = file.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            digest.update((byte) 0);
+            digest.update(String.valueOf(targetFeature).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update((byte) (skipTextVectorization ? 1 : 0));
+            digest.update(settings.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            log.warn("Cannot hash upload for the result cache: {}", e.getMessage());
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The cached result marked as a cache hit, or null.
+     */
+    public SelectionResult get(String key) {
+        if (!enabled || key == null)
+            return null;
+        byte[] json = lookup(key);
+        if (json == null)
+            json = load(key);
+        if (json == null)
+            return null;
+        try {
+            SelectionResult result = mapper.readValue(json, SelectionResult.class);
+            result.setCacheHit(true);
+            return result;
+        } catch (IOException e) {
+            log.warn("Dropping unreadable cache entry {}: {}", key, e.getMessage());
+            invalidate(key);
+            return null;
+        }
+    }
+
+    public void put(String key, SelectionResult result) {
+        if (!enabled || key == null || result == null)
+            return;
+        byte[] json;
+        try {
+            json = mapper.writeValueAsBytes(result);
+        } catch (IOException e) {
+            log.warn("Cannot serialize result for the cache: {}", e.getMessage());
+            return;
+        }
+        store(key, new Entry(json, clock.millis()));
+        persist(key, json);
+    }
+
+    public synchronized void invalidate(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null)
+            weight -= removed.json.length;
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(file(key));
+            } catch (IOException e) {
+                log.warn("Cannot delete cache file for {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long weight() {
+        return weight;
+    }
+
+    private synchronized byte[] lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null)
+            return null;
+        if (expired(entry.createdMillis)) {
+            entries.remove(key);
+            weight -= entry.json.length;
+            return null;
+        }
+        return entry.json;
+    }
+
+    private synchronized void store(String key, Entry entry) {
+        if (entry.json.length > maxWeight)
+            return;
+        Entry previous = entries.put(key, entry);
+        if (previous != null)
+            weight -= previous.json.length;
+        weight += entry.json.length;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Map.Entry<String, Entry> e = eldest.next();
+            weight -= e.getValue().json.length;
+            eldest.remove();
+        }
+    }
+
+    private byte[] load(String key) {
+        if (directory == null)
+            return null;
+        Path path = file(key);
+        try {
+            if (!Files.isRegularFile(path))
+                return null;
+            long created = Files.getLastModifiedTime(path).toMillis();
+            if (expired(created)) {
+                Files.deleteIfExists(path);
+                return null;
+            }
+            byte[] json = Files.readAllBytes(path);
+            store(key, new Entry(json, created));
+            return json;
+        } catch (IOException e) {
+            log.warn("Cannot read cache file {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private void persist(String key, byte[] json) {
+        if (directory == null)
+            return;
+        try {
+            Path tmp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(tmp, json);
+            Files.move(tmp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Cannot persist cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    private boolean expired(long createdMillis) {
+        return ttlMillis > 0 && clock.millis() - createdMillis >= ttlMillis;
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static final class Entry {
+        private final byte[] json;
+        private final long createdMillis;
+
+        private Entry(byte[] json, long createdMillis) {
+            this.json = json;
+            this.createdMillis = createdMillis;
+        }
+    }
+}
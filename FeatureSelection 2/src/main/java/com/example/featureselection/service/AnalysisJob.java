@@ -0,0 +1,134 @@
+package com.example.featureselection.service;
+
+import com.example.featureselection.model.JobInfo;
+import com.example.featureselection.model.JobStatus;
+import com.example.featureselection.model.SelectionResult;
+import com.example.featureselection.util.StageListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+
+/**
+ * State of one asynchronous analysis. It is the analysis' stage listener, so
+ * it records per-stage progress. Cancelling it interrupts the stages that are
+ * running and aborts the next stage that starts.
+ */
+final class AnalysisJob implements StageListener {
+
+    private final String id;
+    private final Instant submittedAt = Instant.now();
+    private final Map<String, String> stages = new LinkedHashMap<>();
+    private final Map<String, Future<?>> running = new HashMap<>();
+
+    private JobStatus status = JobStatus.QUEUED;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private SelectionResult result;
+    private String error;
+
+    AnalysisJob(String id) {
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+
+    /**
+     * Moves a queued job to RUNNING; false if it was cancelled meanwhile.
+     */
+    synchronized boolean start() {
+        if (status != JobStatus.QUEUED)
+            return false;
+        status = JobStatus.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    synchronized void succeed(SelectionResult result) {
+        if (status == JobStatus.RUNNING) {
+            this.result = result;
+            finish(JobStatus.SUCCEEDED);
+        }
+    }
+
+    synchronized void fail(Throwable e) {
+        if (status == JobStatus.RUNNING) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            this.error = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+            finish(JobStatus.FAILED);
+        }
+    }
+
+    /**
+     * Cancels a queued or running job; false if it had already finished. A
+     * queued job is skipped when its turn comes, so its upload is still
+     * cleaned up by the worker.
+     */
+    synchronized boolean cancel() {
+        if (status.isFinished())
+            return false;
+        finish(JobStatus.CANCELLED);
+        // Cancelling completes the stage, which calls back into finished().
+        for (Future<?> execution : new ArrayList<>(running.values())) {
+            execution.cancel(true);
+        }
+        return true;
+    }
+
+    private void finish(JobStatus finalStatus) {
+        status = finalStatus;
+        finishedAt = Instant.now();
+    }
+
+    synchronized JobStatus status() {
+        return status;
+    }
+
+    synchronized SelectionResult result() {
+        return result;
+    }
+
+    synchronized Instant finishedAt() {
+        return finishedAt;
+    }
+
+    synchronized JobInfo info() {
+        return JobInfo.builder()
+                .jobId(id)
+                .status(status)
+                .stages(new LinkedHashMap<>(stages))
+                .error(error)
+                .submittedAt(submittedAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+
+    @Override
+    public synchronized void started(String stage) {
+        if (status == JobStatus.CANCELLED)
+            throw new CancellationException("Job " + id + " was cancelled");
+        stages.put(stage, "RUNNING");
+    }
+
+    @Override
+    public synchronized void running(String stage, Future<?> execution) {
+        if (status == JobStatus.CANCELLED) {
+            execution.cancel(true);
+            return;
+        }
+        running.put(stage, execution);
+    }
+
+    @Override
+    public synchronized void finished(String stage, boolean succeeded) {
+        running.remove(stage);
+        stages.put(stage, succeeded ? "COMPLETED" : "FAILED");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.featureselection.service;
+
+import com.example.featureselection.exception.JobNotFoundException;
+import com.example.featureselection.exception.JobQueueFullException;
+import com.example.featureselection.exception.JobStateException;
+import com.example.featureselection.model.JobInfo;
+import com.example.featureselection.model.JobStatus;
+import com.example.featureselection.model.SelectionResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs analyses as background jobs on the bounded job executor. A submission
+ * that finds the queue full is rejected rather than waiting. Finished jobs
+ * are kept for the retention period so clients can fetch their results.
+ */
+@Service
+public class AnalysisJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisJobService.class);
+
+    private final FeatureSelectionService featureSelectionService;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration retention;
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+
+    public AnalysisJobService(FeatureSelectionService featureSelectionService,
+            @Qualifier("analysisJobExecutor") ThreadPoolTaskExecutor executor,
+            @Value("${featureselection.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.featureSelectionService = featureSelectionService;
+        this.executor = executor;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    public JobInfo submit(MultipartFile file, String targetFeature, String userId, boolean skipTextVectorization) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("The uploaded file is empty.");
+        }
+        purgeExpired();
+
+        StoredUpload upload;
+        try {
+            upload = StoredUpload.copyOf(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store upload", e);
+        }
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID().toString());
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> run(job, upload, targetFeature, userId, skipTextVectorization));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id());
+            upload.delete();
+            throw new JobQueueFullException(executor.getQueueCapacity());
+        }
+        log.info("Queued analysis job {} for target {} (userId: {})", job.id(), targetFeature, userId);
+        return job.info();
+    }
+
+    private void run(AnalysisJob job, StoredUpload upload, String targetFeature, String userId,
+            boolean skipTextVectorization) {
+        try {
+            if (!job.start())
+                return;
+            SelectionResult result = featureSelectionService.analyze(upload, targetFeature, userId,
+                    skipTextVectorization, job);
+            job.succeed(result);
+            log.info("Analysis job {} finished with status {}", job.id(), job.status());
+        } catch (RuntimeException e) {
+            job.fail(e);
+            log.warn("Analysis job {} ended with status {}: {}", job.id(), job.status(), e.getMessage());
+        } finally {
+            upload.delete();
+        }
+    }
+
+    public JobInfo status(String jobId) {
+        return find(jobId).info();
+    }
+
+    public SelectionResult result(String jobId) {
+        AnalysisJob job = find(jobId);
+        JobStatus status = job.status();
+        if (status != JobStatus.SUCCEEDED) {
+            throw new JobStateException("Job '" + jobId + "' has no result; status is " + status);
+        }
+        return job.result();
+    }
+
+    public JobInfo cancel(String jobId) {
+        AnalysisJob job = find(jobId);
+        if (!job.cancel()) {
+            throw new JobStateException("Job '" + jobId + "' already finished with status " + job.status());
+        }
+        log.info("Cancelled analysis job {}", jobId);
+        return job.info();
+    }
+
+    private AnalysisJob find(String jobId) {
+        AnalysisJob job = jobs.get(jobId);
+        if (job == null)
+            throw new JobNotFoundException(jobId);
+        return job;
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            Instant finishedAt = job.finishedAt();
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        });
+    }
+}
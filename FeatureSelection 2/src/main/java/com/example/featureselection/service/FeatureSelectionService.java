@@ -1,18 +1,40 @@
 package com.example.featureselection.service;
 
+import com.example.featureselection.data.BagOfWords;
+import com.example.featureselection.data.ColumnMoments;
+import com.example.featureselection.data.CsvColumnProcessor;
+import com.example.featureselection.data.FeatureMatrix;
+import com.example.featureselection.data.HashedTerms;
+import com.example.featureselection.data.IngestedDataset;
+import com.example.featureselection.data.SparseColumn;
+import com.example.featureselection.data.StreamedDataset;
+import com.example.featureselection.data.StreamingColumnProcessor;
+import com.example.featureselection.data.StreamingSettings;
+import com.example.featureselection.data.StreamingStatistics;
+import com.example.featureselection.data.TextSettings;
+import com.example.featureselection.data.TextVectorizer;
+import com.example.featureselection.embedded.ForestImportance;
 import com.example.featureselection.embedded.RandomForestImportance;
 import com.example.featureselection.filters.ANOVAFilter;
 import com.example.featureselection.filters.FCBFFilter;
 import com.example.featureselection.filters.MutualInformationFilter;
 import com.example.featureselection.filters.PearsonFilter;
 import com.example.featureselection.model.FeatureScore;
+import com.example.featureselection.model.SamplingStats;
 import com.example.featureselection.model.SelectionResult;
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.example.featureselection.util.StageListener;
+import com.example.featureselection.util.StageRunner;
+import com.example.featureselection.wrappers.RFE;
+import com.example.featureselection.wrappers.SBS;
 import com.example.featureselection.wrappers.SFS;
-import com.univocity.parsers.common.processor.RowListProcessor;
+import com.example.featureselection.wrappers.SubsetSearch;
+import com.example.featureselection.wrappers.WrapperMethod;
 import com.univocity.parsers.csv.CsvParser;
 import com.univocity.parsers.csv.CsvParserSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import smile.math.MathEx;
@@ -20,7 +42,11 @@ import smile.math.MathEx;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 public class FeatureSelectionService {
@@ -68,50 +94,115 @@ public class FeatureSelectionService {
     private final FCBFFilter fcbfFilter;
     private final RandomForestImportance rfImportance;
     private final SFS sfsWrapper;
+    private final RFE rfeWrapper;
+    private final SBS sbsWrapper;
+    private final WrapperMethod wrapperMethod;
     private final FirebaseNotificationService firebaseNotificationService;
+    private final StageRunner stageRunner;
+    private final AnalysisCache analysisCache;
+    private final boolean pythonPreprocessing;
+    private final TextSettings textSettings;
+    private final int modelSampleRows;
+    private final DiscretizationSettings discretization;
+    private final StreamingSettings streamingSettings;
 
     public FeatureSelectionService(MutualInformationFilter miFilter, PearsonFilter pearsonFilter,
             ANOVAFilter anovaFilter, FCBFFilter fcbfFilter,
-            RandomForestImportance rfImportance, SFS sfsWrapper,
-            FirebaseNotificationService firebaseNotificationService) {
+            RandomForestImportance rfImportance, SFS sfsWrapper, RFE rfeWrapper, SBS sbsWrapper,
+            @Value("${featureselection.wrappers.method:SFS}") WrapperMethod wrapperMethod,
+            FirebaseNotificationService firebaseNotificationService, StageRunner stageRunner,
+            AnalysisCache analysisCache,
+            @Value("${featureselection.text.python-preprocessing:false}") boolean pythonPreprocessing,
+            TextSettings textSettings,
+            @Value("${featureselection.sampling.model-rows:100000}") int modelSampleRows,
+            DiscretizationSettings discretization, StreamingSettings streamingSettings) {
         this.miFilter = miFilter;
         this.pearsonFilter = pearsonFilter;
         this.anovaFilter = anovaFilter;
         this.fcbfFilter = fcbfFilter;
         this.rfImportance = rfImportance;
         this.sfsWrapper = sfsWrapper;
+        this.rfeWrapper = rfeWrapper;
+        this.sbsWrapper = sbsWrapper;
+        this.wrapperMethod = wrapperMethod;
         this.firebaseNotificationService = firebaseNotificationService;
+        this.stageRunner = stageRunner;
+        this.analysisCache = analysisCache;
+        this.pythonPreprocessing = pythonPreprocessing;
+        this.textSettings = textSettings;
+        this.modelSampleRows = modelSampleRows;
+        this.discretization = discretization;
+        this.streamingSettings = streamingSettings;
     }
 
-    private List<String[]> parseCsvFile(File csvFile) {
-        try (FileInputStream fis = new FileInputStream(csvFile);
-                InputStreamReader reader = new InputStreamReader(fis)) {
+    private IngestedDataset parseCsvFile(File csvFile, String targetFeature) {
+        try (FileInputStream fis = new FileInputStream(csvFile)) {
+            return parseCsv(fis, targetFeature, false);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse CSV file", e);
+        }
+    }
+
+    private IngestedDataset parseCsv(InputStream in, String targetFeature, boolean cleanText) {
+        try (InputStreamReader reader = new InputStreamReader(in)) {
             CsvParserSettings settings = new CsvParserSettings();
             settings.setMaxCharsPerColumn(20000);
-            RowListProcessor processor = new RowListProcessor();
+            CsvColumnProcessor processor = new CsvColumnProcessor(targetFeature, this::isProbableId, cleanText,
+                    modelSampleRows);
             settings.setProcessor(processor);
 
             CsvParser parser = new CsvParser(settings);
             parser.parse(reader);
-            return processor.getRows();
+            return processor.getDataset();
         } catch (Exception e) {
             throw new RuntimeException("Failed to parse CSV file", e);
         }
     }
 
+    private boolean isProbableId(String header) {
+        String h = header.toLowerCase();
+        return h.equals("id") || h.startsWith("id_") || h.endsWith("_id") || h.contains("matricule");
+    }
+
     public SelectionResult analyze(MultipartFile file, String targetFeature) {
         return analyze(file, targetFeature, null, false);
     }
 
     public SelectionResult analyze(MultipartFile file, String targetFeature, String userId,
             boolean skipTextVectorization) {
-        return analyzeInternal(file, targetFeature, userId, skipTextVectorization);
+        return analyze(file, targetFeature, userId, skipTextVectorization, StageListener.NONE);
     }
 
-    private File writeRawTemp(MultipartFile file) throws IOException {
-        File tmp = File.createTempFile("raw", ".csv");
-        file.transferTo(tmp);
-        return tmp;
+    /**
+     * @param listener notified of every stage, including the preprocessing,
+     *                 parsing and aggregation phases, or of a single "cache"
+     *                 stage on a cache hit; throwing from
+     *                 {@link StageListener#started(String)} aborts the
+     *                 analysis at the next phase
+     */
+    public SelectionResult analyze(MultipartFile file, String targetFeature, String userId,
+            boolean skipTextVectorization, StageListener listener) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("The uploaded file is empty.");
+        }
+        String cacheKey = analysisCache.key(file, targetFeature, skipTextVectorization);
+        SelectionResult cached = analysisCache.get(cacheKey);
+        if (cached != null) {
+            listener.started("cache");
+            log.info("Returning cached analysis for target: {} (key {})", targetFeature, cacheKey);
+            listener.finished("cache", true);
+            notifyCompletion(userId, cached);
+            return cached;
+        }
+        FallbackTracker tracker = new FallbackTracker(listener);
+        SelectionResult result = analyzeInternal(file, targetFeature, userId, skipTextVectorization, tracker);
+        // A stage that fell back after a timeout or failure must not be served for the whole TTL.
+        if (tracker.fellBack().isEmpty()) {
+            analysisCache.put(cacheKey, result);
+        } else {
+            log.warn("Not caching analysis for target: {}; stages fell back: {}", targetFeature, tracker.fellBack());
+        }
+        return result;
     }
 
     private File preprocessWithPython(MultipartFile file) throws IOException {
@@ -168,403 +259,512 @@ public class FeatureSelectionService {
     }
 
     private SelectionResult analyzeInternal(MultipartFile file, String targetFeature, String userId,
-            boolean skipTextVectorization) {
+            boolean skipTextVectorization, StageListener listener) {
         log.info("Starting feature selection analysis for target: {} with auto-detected mode (userId: {})",
                 targetFeature, userId);
 
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("The uploaded file is empty.");
-        }
-
         MathEx.setSeed(42);
+        StageRunner stages = stageRunner.observed(listener);
 
         try {
-
-            File csvFile;
-            if (!skipTextVectorization) {
-
-                csvFile = preprocessWithPython(file);
-            } else {
-
-                csvFile = writeRawTemp(file);
+            if (streamingSettings.appliesTo(file.getSize()) && (skipTextVectorization || !pythonPreprocessing)) {
+                return analyzeStreaming(file, targetFeature, userId, skipTextVectorization, listener, stages);
             }
 
-            List<String[]> rows = parseCsvFile(csvFile);
+            IngestedDataset dataset;
+            if (!skipTextVectorization && pythonPreprocessing) {
+                listener.started("preprocess");
+                File csvFile = preprocessWithPython(file);
+                listener.finished("preprocess", true);
 
-            try {
-                csvFile.delete();
-            } catch (Exception ignored) {
+                listener.started("parse");
+                dataset = parseCsvFile(csvFile, targetFeature);
+
+                try {
+                    csvFile.delete();
+                } catch (Exception ignored) {
+                }
+            } else {
+                // Text cleaning is fused into ingestion; the upload is read once.
+                listener.started("parse");
+                try (InputStream in = file.getInputStream()) {
+                    dataset = parseCsv(in, targetFeature, !skipTextVectorization);
+                }
             }
-            if (rows.isEmpty())
+            listener.finished("parse", true);
+            if (dataset == null)
                 throw new IllegalArgumentException("CSV file is empty");
 
-            String[] headers = rows.get(0);
-            rows.remove(0);
-
-            int targetIndex = findTargetIndex(headers, targetFeature);
-
-            List<Integer> numericCols = new ArrayList<>();
-            List<Integer> textCols = new ArrayList<>();
-            Set<Integer> ignoredIndices = new HashSet<>();
-
-            for (int i = 0; i < headers.length; i++) {
-                if (i == targetIndex)
-                    continue;
-                String h = headers[i].toLowerCase();
-                if (h.equals("id") || h.startsWith("id_") || h.endsWith("_id") || h.contains("matricule")) {
-                    ignoredIndices.add(i);
-                    log.info("Ignoring probable ID feature: {}", headers[i]);
-                    continue;
-                }
+            String[] headers = dataset.getHeaders();
+            findTargetIndex(headers, targetFeature);
 
-                if (isNumericColumn(rows, i)) {
-                    numericCols.add(i);
-                } else {
-                    textCols.add(i);
-                }
+            for (int idx : dataset.getIgnoredColumns()) {
+                log.info("Ignoring probable ID feature: {}", headers[idx]);
             }
+            List<Integer> numericCols = new ArrayList<>(dataset.getNumericColumns().keySet());
+            List<Integer> textCols = new ArrayList<>(dataset.getTextColumns().keySet());
 
             if (skipTextVectorization && !textCols.isEmpty()) {
-                List<String> textColumnNames = new ArrayList<>();
-                for (int idx : textCols) {
-                    textColumnNames.add(headers[idx]);
-                }
-                throw new IllegalArgumentException(
-                        "Dataset contains text columns: " + textColumnNames +
-                                ". This API only supports numeric features when skipTextVectorization=true. " +
-                                "Please provide a dataset with only numeric columns, or set skipTextVectorization=false to enable automatic text vectorization.");
+                throw textColumnsNotSupported(headers, textCols);
             }
 
-            int sampleCount = rows.size();
+            int sampleCount = dataset.getRowCount();
 
-            boolean isClassification = detectMode(rows, targetIndex);
-            String modeString = isClassification ? "CLASSIFICATION" : "REGRESSION";
-            if (!textCols.isEmpty()) {
-                modeString += " (Tokenized)";
-            }
+            boolean isClassification = dataset.isClassificationTarget();
+            String modeString = describeMode(isClassification, textCols);
             log.info("Detected mode: {}", modeString);
 
-            Object y = isClassification ? new int[sampleCount] : new double[sampleCount];
-            Map<String, Integer> labelMap = new HashMap<>();
-
-            for (int i = 0; i < sampleCount; i++) {
-                String val = getVal(rows.get(i), targetIndex);
-                if (isClassification) {
-                    labelMap.putIfAbsent(val, labelMap.size());
-                    ((int[]) y)[i] = labelMap.get(val);
-                } else {
-                    ((double[]) y)[i] = parseDoubleSafe(val);
-                }
-            }
+            Object y = isClassification ? dataset.getClassTarget() : dataset.getRegressionTarget();
 
-            List<double[]> featureColumns = new ArrayList<>();
-            List<String> finalFeatureNamesList = new ArrayList<>();
+            FeatureMatrix.Builder matrixBuilder = FeatureMatrix.builder(sampleCount);
 
-            for (int colIdx : numericCols) {
-                finalFeatureNamesList.add(headers[colIdx]);
-                double[] colData = new double[sampleCount];
-                for (int i = 0; i < sampleCount; i++) {
-                    colData[i] = parseDoubleSafe(getVal(rows.get(i), colIdx));
-                }
-                featureColumns.add(colData);
+            for (Map.Entry<Integer, double[]> column : dataset.getNumericColumns().entrySet()) {
+                int colIdx = column.getKey();
+                matrixBuilder.addColumn(headers[colIdx], column.getValue(), dataset.getValidity(colIdx));
             }
 
-            for (int colIdx : textCols) {
-                List<String> rawText = new ArrayList<>();
-                for (String[] r : rows)
-                    rawText.add(getVal(r, colIdx));
-
-                List<String> vocabulary = buildVocabulary(rawText, 30);
+            for (Map.Entry<Integer, List<String>> column : dataset.getTextColumns().entrySet()) {
+                int colIdx = column.getKey();
+                List<String> rawText = column.getValue();
 
-                for (String term : vocabulary) {
-                    finalFeatureNamesList.add(headers[colIdx] + "_" + term);
-                    double[] termCol = new double[sampleCount];
-                    for (int i = 0; i < sampleCount; i++) {
-                        termCol[i] = countTerm(rawText.get(i), term);
-                    }
-                    featureColumns.add(termCol);
-                }
+                addTextFeatures(matrixBuilder, headers[colIdx], rawText);
             }
 
-            int featureCount = finalFeatureNamesList.size();
-            String[] featureNames = finalFeatureNamesList.toArray(new String[0]);
-            double[][] x = new double[sampleCount][featureCount];
-
-            for (int i = 0; i < sampleCount; i++) {
-                for (int j = 0; j < featureCount; j++) {
-                    x[i][j] = featureColumns.get(j)[i];
-                }
-            }
+            FeatureMatrix matrix = matrixBuilder.build();
+
+            // The filters score every row; the model-based stages (forest,
+            // FCBF, wrapper) fit on the reservoir sample drawn while parsing.
+            int[] sample = dataset.getSample();
+            FeatureMatrix modelMatrix = sample == null ? matrix : matrix.subset(sample);
+            SamplingStats sampling = SamplingStats.builder()
+                    .sampled(sample != null)
+                    .sampleRows(modelMatrix.rows())
+                    .totalRows(sampleCount)
+                    .stratified(sample != null && dataset.isSampleStratified())
+                    .build();
 
-            Map<String, Double> miScores;
-            Map<String, Double> pearsonScores;
-            Map<String, Double> anovaScores;
-            Map<String, Double> rfScores;
-            List<String> fcbfSelected;
+            CompletableFuture<Map<String, Double>> miStage;
+            CompletableFuture<Map<String, Double>> pearsonStage;
+            CompletableFuture<Map<String, Double>> anovaStage;
+            Object yModel;
 
             if (isClassification) {
                 int[] yInt = (int[]) y;
-                miScores = normalize(miFilter.calculate(x, yInt, featureNames));
-                pearsonScores = normalize(pearsonFilter.calculate(x, yInt, featureNames));
-                anovaScores = normalize(anovaFilter.calculate(x, yInt, featureNames));
-                try {
-                    if (sampleCount > 50) {
-                        rfScores = normalize(rfImportance.calculate(x, yInt, featureNames));
-                    } else {
-                        log.info("Skipping Random Forest importance: sampleCount {} too small (threshold 50)",
-                                sampleCount);
-                        rfScores = new HashMap<>();
-                    }
-                } catch (Exception e) {
-                    log.warn("Random Forest importance calculation failed (classification): {}", e.getMessage());
-                    rfScores = new HashMap<>();
-                }
-                fcbfSelected = fcbfFilter.calculate(x, yInt, featureNames);
+                yModel = sample == null ? yInt : subset(yInt, sample);
+                miStage = stages.submit("mutual information",
+                        () -> normalize(miFilter.calculate(matrix, yInt)), new HashMap<>());
+                pearsonStage = stages.submit("pearson",
+                        () -> normalize(pearsonFilter.calculate(matrix, yInt)), new HashMap<>());
+                anovaStage = stages.submit("anova",
+                        () -> normalize(anovaFilter.calculate(matrix, yInt)), new HashMap<>());
             } else {
                 double[] yDouble = (double[]) y;
-                miScores = normalize(miFilter.calculate(x, yDouble, featureNames));
-                pearsonScores = normalize(pearsonFilter.calculate(x, yDouble, featureNames));
-                anovaScores = normalize(anovaFilter.calculate(x, yDouble, featureNames));
+                yModel = sample == null ? yDouble : subset(yDouble, sample);
+                miStage = stages.submit("mutual information",
+                        () -> normalize(miFilter.calculate(matrix, yDouble)), new HashMap<>());
+                pearsonStage = stages.submit("pearson",
+                        () -> normalize(pearsonFilter.calculate(matrix, yDouble)), new HashMap<>());
+                anovaStage = stages.submit("anova",
+                        () -> normalize(anovaFilter.calculate(matrix, yDouble)), new HashMap<>());
+            }
 
-                try {
-                    if (sampleCount > 50) {
-                        rfScores = normalize(rfImportance.calculate(x, yDouble, featureNames));
-                    } else {
-                        log.info("Skipping Random Forest importance: sampleCount {} too small (threshold 50)",
-                                sampleCount);
-                        rfScores = new HashMap<>();
-                    }
-                } catch (Exception e) {
-                    log.warn("Random Forest importance calculation failed (regression): {}", e.getMessage());
-                    rfScores = new HashMap<>();
-                }
+            return select(stages, listener, userId, new ScoringInput(headers, numericCols, textCols, modeString,
+                    modelMatrix, yModel, sampling, miStage, pearsonStage, anovaStage));
 
-                fcbfSelected = fcbfFilter.calculate(x, yDouble, featureNames);
-            }
+        } catch (Exception e) {
+            log.error("Error during analysis", e);
+            throw new RuntimeException("Analysis failed: " + e.getMessage(), e);
+        }
+    }
 
-            List<FeatureScore> featureScoreList = new ArrayList<>();
-            Map<String, Double> finalScoresMap = new HashMap<>();
+    /**
+     * Out-of-core path: the upload is parsed once into streaming statistics
+     * and a bounded row sample, so nothing proportional to the row count is
+     * held. The filters score the statistics, the model-based stages the
+     * sample.
+     */
+    private SelectionResult analyzeStreaming(MultipartFile file, String targetFeature, String userId,
+            boolean skipTextVectorization, StageListener listener, StageRunner stages) throws IOException {
+        listener.started("parse");
+        StreamedDataset dataset;
+        try (InputStream in = file.getInputStream()) {
+            dataset = parseStreaming(in, targetFeature, !skipTextVectorization);
+        }
+        listener.finished("parse", true);
+        if (dataset == null)
+            throw new IllegalArgumentException("CSV file is empty");
 
-            for (String name : featureNames) {
-                double mi = miScores.getOrDefault(name, 0.0);
-                double pearson = pearsonScores.getOrDefault(name, 0.0);
-                double anova = anovaScores.getOrDefault(name, 0.0);
-                double rf = rfScores.getOrDefault(name, 0.0);
+        String[] headers = dataset.getHeaders();
+        findTargetIndex(headers, targetFeature);
 
-                double finalScore = 0.30 * mi + 0.20 * pearson + 0.20 * anova + 0.30 * rf;
-                finalScoresMap.put(name, finalScore);
+        for (int idx : dataset.getIgnoredColumns()) {
+            log.info("Ignoring probable ID feature: {}", headers[idx]);
+        }
+        List<Integer> textCols = dataset.getTextColumns();
+        if (skipTextVectorization && !textCols.isEmpty()) {
+            throw textColumnsNotSupported(headers, textCols);
+        }
 
-                String explanation = "";
+        boolean isClassification = dataset.isClassificationTarget();
+        String modeString = describeMode(isClassification, textCols);
+        log.info("Detected mode: {} (streamed {} rows)", modeString, dataset.getRowCount());
+
+        String[] featureNames = dataset.getFeatureNames();
+        StreamingStatistics statistics = dataset.getStatistics();
+        ColumnMoments moments = statistics.moments();
+        FeatureMatrix sample = dataset.getSample();
+        Object yModel = isClassification ? dataset.getSampleClassTarget() : dataset.getSampleRegressionTarget();
+
+        CompletableFuture<Map<String, Double>> miStage = stages.submit("mutual information",
+                () -> normalize(miFilter.calculate(statistics, featureNames)), new HashMap<>());
+        CompletableFuture<Map<String, Double>> pearsonStage = stages.submit("pearson",
+                () -> normalize(pearsonFilter.calculate(moments, featureNames)), new HashMap<>());
+        CompletableFuture<Map<String, Double>> anovaStage = isClassification
+                ? stages.submit("anova", () -> normalize(anovaFilter.calculate(moments, featureNames)),
+                        new HashMap<>())
+                : stages.submit("anova",
+                        () -> normalize(anovaFilter.calculate(sample, dataset.getSampleRegressionTarget())),
+                        new HashMap<>());
+
+        SamplingStats sampling = SamplingStats.builder()
+                .sampled(dataset.isSampled())
+                .sampleRows(sample.rows())
+                .totalRows(dataset.getRowCount())
+                .stratified(dataset.isSampleStratified())
+                .build();
+        return select(stages, listener, userId, new ScoringInput(headers, dataset.getNumericColumns(), textCols,
+                modeString, sample, yModel, sampling, miStage, pearsonStage, anovaStage));
+    }
 
-                if (mi == 0 && pearson == 0 && anova == 0 && rf == 0) {
-                    explanation = "Rejected: all metrics zero";
-                }
+    private StreamedDataset parseStreaming(InputStream in, String targetFeature, boolean cleanText) {
+        try (InputStreamReader reader = new InputStreamReader(in)) {
+            CsvParserSettings settings = new CsvParserSettings();
+            settings.setMaxCharsPerColumn(20000);
+            // Streaming always samples: model-rows = 0 falls back to one chunk.
+            int sampleRows = modelSampleRows > 0 ? modelSampleRows : streamingSettings.getChunkRows();
+            StreamingColumnProcessor processor = new StreamingColumnProcessor(targetFeature, this::isProbableId,
+                    cleanText, streamingSettings.getChunkRows(), sampleRows, textSettings, FeatureSelectionService::isVocabularyTerm,
+                    discretization);
+            settings.setProcessor(processor);
 
-                if (fcbfSelected.contains(name)) {
-                    explanation += (explanation.isEmpty() ? "" : ", ") + "Selected by FCBF";
-                }
+            CsvParser parser = new CsvParser(settings);
+            parser.parse(reader);
+            return processor.getDataset();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse CSV file", e);
+        }
+    }
 
-                FeatureScore fs = FeatureScore.builder()
-                        .featureName(name)
-                        .miScore(mi)
-                        .pearsonScore(pearson)
-                        .anovaScore(anova)
-                        .rfImportance(rf)
-                        .finalScore(finalScore)
-                        .explanation(explanation)
-                        .build();
-                featureScoreList.add(fs);
-            }
+    private static IllegalArgumentException textColumnsNotSupported(String[] headers, List<Integer> textCols) {
+        List<String> textColumnNames = new ArrayList<>();
+        for (int idx : textCols) {
+            textColumnNames.add(headers[idx]);
+        }
+        return new IllegalArgumentException(
+                "Dataset contains text columns: " + textColumnNames +
+                        ". This API only supports numeric features when skipTextVectorization=true. " +
+                        "Please provide a dataset with only numeric columns, or set skipTextVectorization=false to enable automatic text vectorization.");
+    }
 
-            Set<String> sfsSelectedNames = new HashSet<>();
-            if (sampleCount >= MIN_SAMPLES_FOR_WRAPPER) {
-                List<Integer> sfsIndices;
-                if (isClassification) {
-                    sfsIndices = sfsWrapper.select(x, (int[]) y);
-                } else {
-                    sfsIndices = sfsWrapper.select(x, (double[]) y);
-                }
-                for (int idx : sfsIndices) {
-                    sfsSelectedNames.add(featureNames[idx]);
-                }
-            } else {
-                log.info("Skipping SFS: Sample count {} < MIN_SAMPLES_FOR_WRAPPER {}", sampleCount,
-                        MIN_SAMPLES_FOR_WRAPPER);
-            }
+    private static String describeMode(boolean isClassification, List<Integer> textCols) {
+        String modeString = isClassification ? "CLASSIFICATION" : "REGRESSION";
+        if (!textCols.isEmpty()) {
+            modeString += " (Tokenized)";
+        }
+        return modeString;
+    }
 
-            for (FeatureScore fs : featureScoreList) {
-                boolean sfsSel = sfsSelectedNames.contains(fs.getFeatureName());
-                boolean fcbfSel = fcbfSelected.contains(fs.getFeatureName());
-                boolean hasScore = fs.getFinalScore() >= 0.10;
-
-                if (sfsSel) {
-                    String currentExpl = fs.getExplanation();
-                    if (!currentExpl.contains("Selected by SFS")) {
-                        if (currentExpl.isEmpty())
-                            fs.setExplanation("Selected by SFS");
-                        else
-                            fs.setExplanation(currentExpl + ", Selected by SFS");
-                    }
-                }
+    /**
+     * Runs the model-based stages on the input's sample next to its already
+     * submitted filter stages, then combines every score into the result.
+     */
+    private SelectionResult select(StageRunner stages, StageListener listener, String userId, ScoringInput input) {
+        String[] headers = input.headers;
+        List<Integer> numericCols = input.numericCols;
+        List<Integer> textCols = input.textCols;
+        FeatureMatrix modelMatrix = input.modelMatrix;
+        String[] featureNames = modelMatrix.names();
+        SamplingStats sampling = input.sampling;
+        int modelCount = modelMatrix.rows();
+        if (sampling.isSampled()) {
+            log.info("Model-based stages use a {} sample of {} of {} rows",
+                    sampling.isStratified() ? "stratified" : "uniform", modelCount, sampling.getTotalRows());
+        }
 
-                if (sfsSel || fcbfSel || hasScore) {
-                    fs.setSelected(true);
-                    if (hasScore && fs.getExplanation().isEmpty()) {
-                        fs.setExplanation("Selected by Final Score");
-                    }
-                } else {
-                    fs.setSelected(false);
-                    if (fs.getExplanation().isEmpty()) {
-                        fs.setExplanation("Rejected: Low score and not selected by wrappers");
-                    }
-                }
+        boolean runRf = modelCount > 50;
+        boolean runWrapper = modelCount >= MIN_SAMPLES_FOR_WRAPPER;
+        if (!runRf) {
+            log.info("Skipping Random Forest importance: sampleCount {} too small (threshold 50)", modelCount);
+        }
+        if (!runWrapper) {
+            log.info("Skipping {}: Sample count {} < MIN_SAMPLES_FOR_WRAPPER {}", wrapperMethod, modelCount,
+                    MIN_SAMPLES_FOR_WRAPPER);
+        }
+
+        // The stages only share read-only inputs; the row-major copy is built
+        // once, and only for the wrapper.
+        CompletableFuture<double[][]> rows = runWrapper
+                ? stages.submit("row-major copy", modelMatrix::toRows, null)
+                : CompletableFuture.completedFuture(null);
+
+        CompletableFuture<ForestImportance> rfStage = CompletableFuture.completedFuture(ForestImportance.empty());
+        CompletableFuture<List<String>> fcbfStage;
+        CompletableFuture<SubsetSearch> wrapperStage = CompletableFuture.completedFuture(SubsetSearch.empty());
+
+        if (input.y instanceof int[]) {
+            int[] yModel = (int[]) input.y;
+            fcbfStage = stages.submit("fcbf", () -> fcbfFilter.calculate(modelMatrix, yModel), new ArrayList<>());
+            if (runRf) {
+                rfStage = stages.submit("random forest",
+                        () -> seeded(() -> rfImportance.fit(modelMatrix, yModel)), ForestImportance.empty());
+            }
+            if (runWrapper && wrapperMethod == WrapperMethod.RFE) {
+                CompletableFuture<ForestImportance> forest = rfStage;
+                wrapperStage = stages.then(CompletableFuture.allOf(rows, forest), "rfe",
+                        ready -> seeded(() -> SubsetSearch.of(rfeWrapper.select(rows.join(), yModel,
+                                warmStart(forest.join(), featureNames)))),
+                        SubsetSearch.empty());
+            } else if (runWrapper && wrapperMethod == WrapperMethod.SBS) {
+                wrapperStage = stages.then(rows, "sbs", x -> seeded(() -> sbsWrapper.search(x, yModel)),
+                        SubsetSearch.empty());
+            } else if (runWrapper) {
+                wrapperStage = stages.then(rows, "sfs",
+                        x -> seeded(() -> SubsetSearch.of(sfsWrapper.select(x, yModel))), SubsetSearch.empty());
             }
+        } else {
+            double[] yModel = (double[]) input.y;
+            fcbfStage = stages.submit("fcbf", () -> fcbfFilter.calculate(modelMatrix, yModel),
+                    new ArrayList<>());
+            if (runRf) {
+                rfStage = stages.submit("random forest",
+                        () -> seeded(() -> rfImportance.fit(modelMatrix, yModel)), ForestImportance.empty());
+            }
+            if (runWrapper && wrapperMethod == WrapperMethod.RFE) {
+                CompletableFuture<ForestImportance> forest = rfStage;
+                wrapperStage = stages.then(CompletableFuture.allOf(rows, forest), "rfe",
+                        ready -> seeded(() -> SubsetSearch.of(rfeWrapper.select(rows.join(), yModel,
+                                warmStart(forest.join(), featureNames)))),
+                        SubsetSearch.empty());
+            } else if (runWrapper && wrapperMethod == WrapperMethod.SBS) {
+                wrapperStage = stages.then(rows, "sbs", x -> seeded(() -> sbsWrapper.search(x, yModel)),
+                        SubsetSearch.empty());
+            } else if (runWrapper) {
+                wrapperStage = stages.then(rows, "sfs",
+                        x -> seeded(() -> SubsetSearch.of(sfsWrapper.select(x, yModel))), SubsetSearch.empty());
+            }
+        }
 
-            List<FeatureScore> aggregatedScores = new ArrayList<>();
-            List<String> finalSelected = new ArrayList<>();
-            List<String> finalRejected = new ArrayList<>();
+        Map<String, Double> miScores = input.miStage.join();
+        Map<String, Double> pearsonScores = input.pearsonStage.join();
+        Map<String, Double> anovaScores = input.anovaStage.join();
+        ForestImportance forest = rfStage.join();
+        Map<String, Double> rfScores = normalize(forest.getScores());
+        List<String> fcbfSelected = fcbfStage.join();
 
-            Map<String, List<FeatureScore>> textColTokens = new HashMap<>();
+        List<FeatureScore> featureScoreList = new ArrayList<>();
+        Map<String, Double> finalScoresMap = new HashMap<>();
 
-            Map<String, FeatureScore> numericScores = new HashMap<>();
+        for (String name : featureNames) {
+            double mi = miScores.getOrDefault(name, 0.0);
+            double pearson = pearsonScores.getOrDefault(name, 0.0);
+            double anova = anovaScores.getOrDefault(name, 0.0);
+            double rf = rfScores.getOrDefault(name, 0.0);
 
-            for (FeatureScore fs : featureScoreList) {
-                String name = fs.getFeatureName();
-                boolean isTextToken = false;
-                String originCol = null;
+            double finalScore = 0.30 * mi + 0.20 * pearson + 0.20 * anova + 0.30 * rf;
+            finalScoresMap.put(name, finalScore);
 
-                for (int tIdx : textCols) {
-                    String colName = headers[tIdx];
-                    if (name.startsWith(colName + "_")) {
-                        isTextToken = true;
-                        originCol = colName;
-                        break;
-                    }
-                }
+            String explanation = "";
 
-                if (isTextToken) {
-                    textColTokens.computeIfAbsent(originCol, k -> new ArrayList<>()).add(fs);
-                } else {
-                    numericScores.put(name, fs);
-                }
+            if (mi == 0 && pearson == 0 && anova == 0 && rf == 0) {
+                explanation = "Rejected: all metrics zero";
             }
 
-            for (int idx : numericCols) {
-                String name = headers[idx];
-                if (numericScores.containsKey(name)) {
-                    FeatureScore fs = numericScores.get(name);
-                    aggregatedScores.add(fs);
-                    if (fs.isSelected())
-                        finalSelected.add(name);
+            if (fcbfSelected.contains(name)) {
+                explanation += (explanation.isEmpty() ? "" : ", ") + "Selected by FCBF";
+            }
+
+            FeatureScore fs = FeatureScore.builder()
+                    .featureName(name)
+                    .miScore(mi)
+                    .pearsonScore(pearson)
+                    .anovaScore(anova)
+                    .rfImportance(rf)
+                    .finalScore(finalScore)
+                    .explanation(explanation)
+                    .build();
+            featureScoreList.add(fs);
+        }
+
+        SubsetSearch wrapperSearch = wrapperStage.join();
+        Set<String> wrapperSelectedNames = new HashSet<>();
+        for (int idx : wrapperSearch.getSelected()) {
+            wrapperSelectedNames.add(featureNames[idx]);
+        }
+
+        for (FeatureScore fs : featureScoreList) {
+            boolean wrapperSel = wrapperSelectedNames.contains(fs.getFeatureName());
+            boolean fcbfSel = fcbfSelected.contains(fs.getFeatureName());
+            boolean hasScore = fs.getFinalScore() >= 0.10;
+
+            if (wrapperSel) {
+                String currentExpl = fs.getExplanation();
+                String wrapperExpl = "Selected by " + wrapperMethod;
+                if (!currentExpl.contains(wrapperExpl)) {
+                    if (currentExpl.isEmpty())
+                        fs.setExplanation(wrapperExpl);
                     else
-                        finalRejected.add(name);
+                        fs.setExplanation(currentExpl + ", " + wrapperExpl);
+                }
+            }
+
+            if (wrapperSel || fcbfSel || hasScore) {
+                fs.setSelected(true);
+                if (hasScore && fs.getExplanation().isEmpty()) {
+                    fs.setExplanation("Selected by Final Score");
+                }
+            } else {
+                fs.setSelected(false);
+                if (fs.getExplanation().isEmpty()) {
+                    fs.setExplanation("Rejected: Low score and not selected by wrappers");
                 }
             }
+        }
 
-            for (int idx : textCols) {
-                String name = headers[idx];
-                List<FeatureScore> tokens = textColTokens.get(name);
+        listener.started("aggregate");
+        List<FeatureScore> aggregatedScores = new ArrayList<>();
+        List<String> finalSelected = new ArrayList<>();
+        List<String> finalRejected = new ArrayList<>();
 
-                if (tokens == null || tokens.isEmpty()) {
+        Map<String, List<FeatureScore>> textColTokens = new HashMap<>();
 
-                    FeatureScore emptyFs = FeatureScore.builder()
-                            .featureName(name)
-                            .finalScore(0.0)
-                            .explanation("Rejected: No usable text tokens found")
-                            .selected(false)
-                            .build();
-                    aggregatedScores.add(emptyFs);
-                    finalRejected.add(name);
-                    continue;
-                }
+        Map<String, FeatureScore> numericScores = new HashMap<>();
 
-                boolean anySelected = tokens.stream().anyMatch(FeatureScore::isSelected);
-                double maxScore = tokens.stream().mapToDouble(FeatureScore::getFinalScore).max().orElse(0.0);
-
-                String explanation;
-                if (anySelected) {
-
-                    String topTokens = tokens.stream()
-                            .filter(FeatureScore::isSelected)
-                            .sorted(Comparator.comparingDouble(FeatureScore::getFinalScore).reversed())
-                            .limit(3)
-                            .map(fs -> fs.getFeatureName().replace(name + "_", ""))
-                            .reduce((a, b) -> a + ", " + b)
-                            .orElse("");
-                    explanation = "Selected due to key terms: " + topTokens;
-                } else {
-                    explanation = "Rejected: No significant terms found";
+        for (FeatureScore fs : featureScoreList) {
+            String name = fs.getFeatureName();
+            boolean isTextToken = false;
+            String originCol = null;
+
+            for (int tIdx : textCols) {
+                String colName = headers[tIdx];
+                if (name.startsWith(colName + "_")) {
+                    isTextToken = true;
+                    originCol = colName;
+                    break;
                 }
+            }
 
-                FeatureScore aggFs = FeatureScore.builder()
-                        .featureName(name)
-                        .finalScore(maxScore)
-
-                        .miScore(tokens.stream().mapToDouble(FeatureScore::getMiScore).max().orElse(0.0))
-                        .pearsonScore(tokens.stream().mapToDouble(FeatureScore::getPearsonScore).max().orElse(0.0))
-                        .anovaScore(tokens.stream().mapToDouble(FeatureScore::getAnovaScore).max().orElse(0.0))
-                        .rfImportance(tokens.stream().mapToDouble(FeatureScore::getRfImportance).max().orElse(0.0))
-                        .explanation(explanation)
-                        .selected(anySelected)
-                        .build();
+            if (isTextToken) {
+                textColTokens.computeIfAbsent(originCol, k -> new ArrayList<>()).add(fs);
+            } else {
+                numericScores.put(name, fs);
+            }
+        }
 
-                aggregatedScores.add(aggFs);
-                if (anySelected)
+        for (int idx : numericCols) {
+            String name = headers[idx];
+            if (numericScores.containsKey(name)) {
+                FeatureScore fs = numericScores.get(name);
+                aggregatedScores.add(fs);
+                if (fs.isSelected())
                     finalSelected.add(name);
                 else
                     finalRejected.add(name);
             }
+        }
 
-            aggregatedScores.sort(Comparator.comparingDouble(FeatureScore::getFinalScore).reversed());
+        for (int idx : textCols) {
+            String name = headers[idx];
+            List<FeatureScore> tokens = textColTokens.get(name);
 
-            SelectionResult result = SelectionResult.builder()
-                    .selectedFeatures(finalSelected)
-                    .rejectedFeatures(finalRejected)
-                    .featureScores(aggregatedScores)
-                    .mode(modeString)
-                    .build();
+            if (tokens == null || tokens.isEmpty()) {
 
-            // Send notification if userId is provided
-            if (userId != null && !userId.isEmpty()) {
-                try {
-                    String notificationTitle = "Feature Selection Complete";
-                    String notificationBody = String.format(
-                            "Analysis completed: %d features selected out of %d total features.",
-                            finalSelected.size(),
-                            finalSelected.size() + finalRejected.size());
-                    Map<String, String> data = Map.of(
-                            "type", "FEATURE_SELECTION_COMPLETE",
-                            "selectedCount", String.valueOf(finalSelected.size()),
-                            "totalCount", String.valueOf(finalSelected.size() + finalRejected.size()),
-                            "mode", modeString);
-                    firebaseNotificationService.sendNotificationToUser(userId, notificationTitle, notificationBody,
-                            data);
-                    log.info("Feature selection notification sent to user: {}", userId);
-                } catch (Exception e) {
-                    log.error("Failed to send notification to user {}: {}", userId, e.getMessage());
-                }
+                FeatureScore emptyFs = FeatureScore.builder()
+                        .featureName(name)
+                        .finalScore(0.0)
+                        .explanation("Rejected: No usable text tokens found")
+                        .selected(false)
+                        .build();
+                aggregatedScores.add(emptyFs);
+                finalRejected.add(name);
+                continue;
             }
 
-            return result;
+            boolean anySelected = tokens.stream().anyMatch(FeatureScore::isSelected);
+            double maxScore = tokens.stream().mapToDouble(FeatureScore::getFinalScore).max().orElse(0.0);
 
-        } catch (Exception e) {
-            log.error("Error during analysis", e);
-            throw new RuntimeException("Analysis failed: " + e.getMessage(), e);
+            String explanation;
+            if (anySelected) {
+
+                String topTokens = tokens.stream()
+                        .filter(FeatureScore::isSelected)
+                        .sorted(Comparator.comparingDouble(FeatureScore::getFinalScore).reversed())
+                        .limit(3)
+                        .map(fs -> fs.getFeatureName().replace(name + "_", ""))
+                        .reduce((a, b) -> a + ", " + b)
+                        .orElse("");
+                explanation = "Selected due to key terms: " + topTokens;
+            } else {
+                explanation = "Rejected: No significant terms found";
+            }
+
+            FeatureScore aggFs = FeatureScore.builder()
+                    .featureName(name)
+                    .finalScore(maxScore)
+
+                    .miScore(tokens.stream().mapToDouble(FeatureScore::getMiScore).max().orElse(0.0))
+                    .pearsonScore(tokens.stream().mapToDouble(FeatureScore::getPearsonScore).max().orElse(0.0))
+                    .anovaScore(tokens.stream().mapToDouble(FeatureScore::getAnovaScore).max().orElse(0.0))
+                    .rfImportance(tokens.stream().mapToDouble(FeatureScore::getRfImportance).max().orElse(0.0))
+                    .explanation(explanation)
+                    .selected(anySelected)
+                    .build();
+
+            aggregatedScores.add(aggFs);
+            if (anySelected)
+                finalSelected.add(name);
+            else
+                finalRejected.add(name);
         }
+
+        aggregatedScores.sort(Comparator.comparingDouble(FeatureScore::getFinalScore).reversed());
+
+        SelectionResult result = SelectionResult.builder()
+                .selectedFeatures(finalSelected)
+                .rejectedFeatures(finalRejected)
+                .featureScores(aggregatedScores)
+                .mode(input.modeString)
+                .forestStats(forest.getStats())
+                .wrapperBudget(wrapperSearch.getBudget())
+                .sampling(sampling)
+                .build();
+        listener.finished("aggregate", true);
+
+        notifyCompletion(userId, result);
+
+        return result;
     }
 
-    private List<String[]> parseCsv(MultipartFile file) {
+    /**
+     * Sends the completion notification if userId is provided.
+     */
+    private void notifyCompletion(String userId, SelectionResult result) {
+        if (userId == null || userId.isEmpty())
+            return;
+        int selected = result.getSelectedFeatures().size();
+        int total = selected + result.getRejectedFeatures().size();
         try {
-            CsvParserSettings settings = new CsvParserSettings();
-            settings.setMaxCharsPerColumn(20000);
-            RowListProcessor processor = new RowListProcessor();
-            settings.setProcessor(processor);
-
-            CsvParser parser = new CsvParser(settings);
-            parser.parse(new InputStreamReader(file.getInputStream()));
-            return processor.getRows();
+            String notificationTitle = "Feature Selection Complete";
+            String notificationBody = String.format(
+                    "Analysis completed: %d features selected out of %d total features.", selected, total);
+            Map<String, String> data = Map.of(
+                    "type", "FEATURE_SELECTION_COMPLETE",
+                    "selectedCount", String.valueOf(selected),
+                    "totalCount", String.valueOf(total),
+                    "mode", result.getMode());
+            firebaseNotificationService.sendNotificationToUser(userId, notificationTitle, notificationBody, data);
+            log.info("Feature selection notification sent to user: {}", userId);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to parse CSV", e);
+            log.error("Failed to send notification to user {}: {}", userId, e.getMessage());
         }
     }
 
@@ -576,6 +776,45 @@ public class FeatureSelectionService {
         throw new IllegalArgumentException("Target feature '" + target + "' not found in dataset");
     }
 
+    /**
+     * The forest stage's raw importance in column order, or null when it
+     * produced none.
+     */
+    private static double[] warmStart(ForestImportance forest, String[] featureNames) {
+        Map<String, Double> scores = forest.getScores();
+        if (scores.isEmpty())
+            return null;
+        double[] importance = new double[featureNames.length];
+        for (int j = 0; j < featureNames.length; j++) {
+            importance[j] = scores.getOrDefault(featureNames[j], 0.0);
+        }
+        return importance;
+    }
+
+    private static int[] subset(int[] values, int[] sample) {
+        int[] kept = new int[sample.length];
+        for (int i = 0; i < sample.length; i++) {
+            kept[i] = values[sample[i]];
+        }
+        return kept;
+    }
+
+    private static double[] subset(double[] values, int[] sample) {
+        double[] kept = new double[sample.length];
+        for (int i = 0; i < sample.length; i++) {
+            kept[i] = values[sample[i]];
+        }
+        return kept;
+    }
+
+    /**
+     * Smile keeps its RNG per thread, so stages that train models seed their own.
+     */
+    private static <T> T seeded(Supplier<T> stage) {
+        MathEx.setSeed(42);
+        return stage.get();
+    }
+
     private Map<String, Double> normalize(Map<String, Double> scores) {
         if (scores.isEmpty())
             return scores;
@@ -600,135 +839,109 @@ public class FeatureSelectionService {
         return normalized;
     }
 
-    private boolean detectMode(List<String[]> rows, int targetIndex) {
-        Set<String> uniqueValues = new HashSet<>();
-        boolean allNumeric = true;
-
-        int maxUniqueForClassification = 10;
-
-        for (String[] row : rows) {
-            if (row.length <= targetIndex)
-                continue;
-            String val = row[targetIndex];
-            if (val == null || val.trim().isEmpty())
-                continue;
-
-            val = val.trim();
-            uniqueValues.add(val);
-
-            if (allNumeric) {
-                try {
-                    Double.parseDouble(val);
-                } catch (NumberFormatException e) {
-                    allNumeric = false;
-                }
+    private void addTextFeatures(FeatureMatrix.Builder matrixBuilder, String header, List<String> rawText) {
+        if (textSettings.getVectorizer() == TextVectorizer.HASHING) {
+            HashedTerms hashed = HashedTerms.fit(rawText, textSettings.getHashBuckets(),
+                    textSettings.getBucketTokens(), FeatureSelectionService::isVocabularyTerm);
+            List<Integer> used = hashed.usedBuckets();
+            log.info("Hashed {} into {} of {} buckets", header, used.size(), hashed.buckets());
+            // A token lands in one bucket only, so the names stay unique.
+            for (int bucket : used) {
+                matrixBuilder.addColumn(header + "_" + String.join("|", hashed.topTokens(bucket)),
+                        hashed.column(bucket));
             }
+            return;
         }
 
-        if (!allNumeric) {
-            return true;
+        BagOfWords bag = BagOfWords.fit(rawText, textSettings.getVocabularySize(), FeatureSelectionService::isVocabularyTerm);
+        log.info("Built vocabulary (limit {}): {}", textSettings.getVocabularySize(), bag.vocabulary());
+        SparseColumn[] termColumns = bag.columns();
+        for (int t = 0; t < termColumns.length; t++) {
+            matrixBuilder.addColumn(header + "_" + bag.vocabulary().get(t), termColumns[t]);
         }
-
-        return uniqueValues.size() <= maxUniqueForClassification;
     }
 
-    private String getVal(String[] row, int index) {
-        if (row == null || index < 0 || index >= row.length || row[index] == null) {
-            return "";
-        }
-        return row[index].trim();
+    /**
+     * Whether a token may become a text feature: longer than two characters,
+     * not a number and not a stop word.
+     */
+    static boolean isVocabularyTerm(String token) {
+        return token.length() > 2 && !isNumeric(token) && !STOP_WORDS.contains(token);
     }
 
-    private double parseDoubleSafe(String val) {
-        if (val == null || val.isEmpty())
-            return 0.0;
+    private static boolean isNumeric(String str) {
         try {
-            return Double.parseDouble(val);
-        } catch (NumberFormatException e) {
-            return 0.0;
+            Double.parseDouble(str);
+            return true;
+        } catch (Exception e) {
+            return false;
         }
     }
 
-    private boolean isNumericColumn(List<String[]> rows, int colIndex) {
-        int checkCount = 0;
-        int maxChecks = 20;
-        for (String[] row : rows) {
-            String val = getVal(row, colIndex);
-            if (!val.isEmpty()) {
-                try {
-                    Double.parseDouble(val);
-                    checkCount++;
-                } catch (NumberFormatException e) {
-                    return false;
-                }
-            }
-            if (checkCount >= maxChecks)
-                return true;
+    /**
+     * What {@link #select} needs from either ingestion path: the column
+     * layout, the rows for the model-based stages and the submitted filters.
+     */
+    private static final class ScoringInput {
+        private final String[] headers;
+        private final List<Integer> numericCols;
+        private final List<Integer> textCols;
+        private final String modeString;
+        private final FeatureMatrix modelMatrix;
+        private final Object y;
+        private final SamplingStats sampling;
+        private final CompletableFuture<Map<String, Double>> miStage;
+        private final CompletableFuture<Map<String, Double>> pearsonStage;
+        private final CompletableFuture<Map<String, Double>> anovaStage;
+
+        ScoringInput(String[] headers, List<Integer> numericCols, List<Integer> textCols, String modeString,
+                FeatureMatrix modelMatrix, Object y, SamplingStats sampling,
+                CompletableFuture<Map<String, Double>> miStage, CompletableFuture<Map<String, Double>> pearsonStage,
+                CompletableFuture<Map<String, Double>> anovaStage) {
+            this.headers = headers;
+            this.numericCols = numericCols;
+            this.textCols = textCols;
+            this.modeString = modeString;
+            this.modelMatrix = modelMatrix;
+            this.y = y;
+            this.sampling = sampling;
+            this.miStage = miStage;
+            this.pearsonStage = pearsonStage;
+            this.anovaStage = anovaStage;
         }
-
-        return true;
     }
 
-    private List<String> buildVocabulary(List<String> texts, int limit) {
-        Map<String, Integer> freq = new HashMap<>();
-        for (String text : texts) {
-            if (text == null || text.isEmpty())
-                continue;
-
-            String cleanedText = cleanText(text);
-
-            String[] tokens = cleanedText.toLowerCase().split("\\W+");
-            for (String token : tokens) {
+    /**
+     * Forwards to the caller's listener and records the stages that completed
+     * with their fallback.
+     */
+    private static final class FallbackTracker implements StageListener {
+        private final StageListener delegate;
+        private final Set<String> fellBack = ConcurrentHashMap.newKeySet();
 
-                if (token.length() > 2 && !isNumeric(token) && !STOP_WORDS.contains(token)) {
-                    freq.put(token, freq.getOrDefault(token, 0) + 1);
-                }
-            }
+        FallbackTracker(StageListener delegate) {
+            this.delegate = delegate;
         }
 
-        List<Map.Entry<String, Integer>> list = new ArrayList<>(freq.entrySet());
-        list.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
-
-        List<String> topTerms = new ArrayList<>();
-
-        int finalLimit = Math.min(list.size(), limit);
-        for (int i = 0; i < finalLimit; i++) {
-            topTerms.add(list.get(i).getKey());
+        Set<String> fellBack() {
+            return fellBack;
         }
-        log.info("Built vocabulary (limit {}): {}", limit, topTerms);
-        return topTerms;
-    }
-
-    private double countTerm(String text, String term) {
-        if (text == null || text.isEmpty())
-            return 0.0;
 
-        String cleanedText = cleanText(text);
-        String[] tokens = cleanedText.toLowerCase().split("\\W+");
-        int count = 0;
-        for (String t : tokens) {
-            if (t.equals(term))
-                count++;
+        @Override
+        public void started(String stage) {
+            delegate.started(stage);
         }
-        return count;
-    }
 
-    private String cleanText(String text) {
-        if (text == null || text.isEmpty()) {
-            return "";
+        @Override
+        public void running(String stage, Future<?> execution) {
+            delegate.running(stage, execution);
         }
 
-        return text.replaceAll("[,;\"'`]", " ")
-                .replaceAll("\\s+", " ")
-                .trim();
-    }
-
-    private boolean isNumeric(String str) {
-        try {
-            Double.parseDouble(str);
-            return true;
-        } catch (Exception e) {
-            return false;
+        @Override
+        public void finished(String stage, boolean succeeded) {
+            if (!succeeded)
+                fellBack.add(stage);
+            delegate.finished(stage, succeeded);
         }
     }
 }
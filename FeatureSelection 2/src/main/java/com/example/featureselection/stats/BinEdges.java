@@ -0,0 +1,88 @@
+package com.example.featureselection.stats;
+
+import java.util.Arrays;
+
+/**
+ * Cut points fitted on one set of values and applicable to any other: the
+ * streaming path fits them on the first chunk of a column and bins every
+ * later value with them. Values beyond the fitted range fall in the first or
+ * last bin.
+ */
+public final class BinEdges {
+
+    private final int bins;
+    private final double min;
+    private final double width;
+    private final double[] cuts;
+
+    private BinEdges(int bins, double min, double width, double[] cuts) {
+        this.bins = bins;
+        this.min = min;
+        this.width = width;
+        this.cuts = cuts;
+    }
+
+    public static BinEdges fit(double[] values, DiscretizationSettings settings) {
+        if (settings.getBinning() == Binning.EQUAL_FREQUENCY) {
+            return equalFrequency(values, settings.getBins());
+        }
+        return equalWidth(values, settings.getBins());
+    }
+
+    /**
+     * {@code bins} equal intervals over [min, max]; a constant column gets a
+     * zero width and codes everything as bin 0.
+     */
+    public static BinEdges equalWidth(double[] values, int bins) {
+        int n = values.length;
+        double min = n == 0 ? 0 : Double.POSITIVE_INFINITY;
+        double max = n == 0 ? 1 : Double.NEGATIVE_INFINITY;
+        for (double v : values) {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        return new BinEdges(bins, min, (max - min) / bins, null);
+    }
+
+    /**
+     * The {@code b/bins} sample quantiles, with repeated cut points merged.
+     */
+    public static BinEdges equalFrequency(double[] values, int bins) {
+        int n = values.length;
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        double[] cuts = new double[Math.max(0, bins - 1)];
+        int distinct = 0;
+        for (int b = 1; b < bins && n > 0; b++) {
+            double cut = sorted[(int) ((long) b * n / bins)];
+            if (cut > sorted[0] && (distinct == 0 || cut > cuts[distinct - 1])) {
+                cuts[distinct++] = cut;
+            }
+        }
+        return new BinEdges(distinct + 1, 0, 0, Arrays.copyOf(cuts, distinct));
+    }
+
+    public int bins() {
+        return bins;
+    }
+
+    public int code(double value) {
+        if (cuts != null) {
+            int pos = Arrays.binarySearch(cuts, value);
+            return pos >= 0 ? pos + 1 : -pos - 1;
+        }
+        if (width == 0)
+            return 0;
+        int bin = (int) ((value - min) / width);
+        return bin < 0 ? 0 : Math.min(bin, bins - 1);
+    }
+
+    public BinnedColumn apply(double[] values) {
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            codes[i] = code(values[i]);
+        }
+        return BinnedColumn.of(codes, bins);
+    }
+}
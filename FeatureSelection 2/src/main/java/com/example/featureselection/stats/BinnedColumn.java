@@ -0,0 +1,148 @@
+package com.example.featureselection.stats;
+
+import java.util.Arrays;
+
+/**
+ * Discrete codes for one column, stored as bytes when there are at most 256
+ * bins. The marginal entropy is computed on first use and kept.
+ * <p>
+ * A sparse column stores codes only for its entry rows (the non-zero values of
+ * the source column); every other row has the {@link #fill()} code, the bin of
+ * zero. {@link ContingencyTable} counts such columns in time proportional to
+ * their entries.
+ */
+public final class BinnedColumn {
+
+    private final byte[] bytes;
+    private final int[] ints;
+    private final int bins;
+    private final int size;
+    private final int[] rows;
+    private final int fill;
+    private volatile int[] counts;
+    private volatile double entropy = Double.NaN;
+
+    private BinnedColumn(byte[] bytes, int[] ints, int bins, int size, int[] rows, int fill) {
+        this.bytes = bytes;
+        this.ints = ints;
+        this.bins = bins;
+        this.size = size;
+        this.rows = rows;
+        this.fill = fill;
+    }
+
+    /**
+     * Wraps codes in {@code [0, bins)}; narrows them to bytes when they fit.
+     */
+    public static BinnedColumn of(int[] codes, int bins) {
+        if (bins <= 256) {
+            return new BinnedColumn(pack(codes), null, bins, codes.length, null, 0);
+        }
+        return new BinnedColumn(null, codes, bins, codes.length, null, 0);
+    }
+
+    /**
+     * @param rows  ascending entry rows
+     * @param codes codes of the entry rows
+     * @param fill  code of every other row
+     */
+    public static BinnedColumn sparse(int size, int[] rows, int[] codes, int fill, int bins) {
+        if (bins <= 256) {
+            return new BinnedColumn(pack(codes), null, bins, size, rows, fill);
+        }
+        return new BinnedColumn(null, codes, bins, size, rows, fill);
+    }
+
+    private static byte[] pack(int[] codes) {
+        byte[] packed = new byte[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            packed[i] = (byte) codes[i];
+        }
+        return packed;
+    }
+
+    /**
+     * Wraps class labels, which are compacted to {@code 0..k-1} first.
+     */
+    public static BinnedColumn ofLabels(int[] labels) {
+        int[] codes = ContingencyTable.compact(labels);
+        return of(codes, ContingencyTable.cardinality(codes));
+    }
+
+    public int get(int i) {
+        if (rows == null)
+            return code(i);
+        int k = Arrays.binarySearch(rows, i);
+        return k >= 0 ? code(k) : fill;
+    }
+
+    private int code(int k) {
+        return bytes != null ? bytes[k] & 0xFF : ints[k];
+    }
+
+    public int bins() {
+        return bins;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isSparse() {
+        return rows != null;
+    }
+
+    /**
+     * Code of the rows without an entry; only meaningful when sparse.
+     */
+    public int fill() {
+        return fill;
+    }
+
+    /**
+     * Number of entry rows of a sparse column.
+     */
+    public int entries() {
+        return rows == null ? 0 : rows.length;
+    }
+
+    public int entryRow(int k) {
+        return rows[k];
+    }
+
+    public int entryCode(int k) {
+        return code(k);
+    }
+
+    /**
+     * Rows per bin, computed on first use and kept; callers must treat the
+     * array as read-only.
+     */
+    public int[] counts() {
+        int[] c = counts;
+        if (c == null) {
+            c = new int[bins];
+            if (rows == null) {
+                for (int i = 0; i < size; i++) {
+                    c[code(i)]++;
+                }
+            } else {
+                c[fill] = size - rows.length;
+                for (int k = 0; k < rows.length; k++) {
+                    c[code(k)]++;
+                }
+            }
+            counts = c;
+        }
+        return c;
+    }
+
+    public double entropy() {
+        double h = entropy;
+        if (Double.isNaN(h)) {
+            h = ContingencyTable.entropy(this);
+            entropy = h;
+        }
+        return h;
+    }
+}
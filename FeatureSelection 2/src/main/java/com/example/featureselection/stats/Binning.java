@@ -0,0 +1,8 @@
+package com.example.featureselection.stats;
+
+public enum Binning {
+    /** Bins of equal width between the column minimum and maximum. */
+    EQUAL_WIDTH,
+    /** Bins holding roughly the same number of samples (quantile cut points). */
+    EQUAL_FREQUENCY
+}
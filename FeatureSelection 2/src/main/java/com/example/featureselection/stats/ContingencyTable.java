@@ -0,0 +1,223 @@
+package com.example.featureselection.stats;
+
+import java.util.Arrays;
+
+/**
+ * Entropy kernels over small non-negative integer codes (bin indices or class
+ * labels). Counts live in a flat {@code int[]} sized from the code range, so
+ * the per-sample loops allocate nothing. Entropies are in nats.
+ */
+public final class ContingencyTable {
+
+    private ContingencyTable() {
+    }
+
+    /**
+     * Number of cells needed to count {@code codes}, i.e. {@code max + 1}.
+     */
+    public static int cardinality(int[] codes) {
+        int max = 0;
+        for (int c : codes) {
+            if (c < 0) {
+                throw new IllegalArgumentException("Negative code: " + c);
+            }
+            if (c > max) {
+                max = c;
+            }
+        }
+        return max + 1;
+    }
+
+    /**
+     * Returns {@code labels} unchanged when they already form a compact
+     * non-negative code range, otherwise remaps them to 0..k-1 in sorted order.
+     */
+    public static int[] compact(int[] labels) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int v : labels) {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        if (labels.length == 0 || (min >= 0 && max <= labels.length)) {
+            return labels;
+        }
+        int[] distinct = Arrays.stream(labels).distinct().sorted().toArray();
+        int[] codes = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            codes[i] = Arrays.binarySearch(distinct, labels[i]);
+        }
+        return codes;
+    }
+
+    public static double entropy(int[] x) {
+        return entropy(x, cardinality(x));
+    }
+
+    public static double entropy(int[] x, int bins) {
+        int[] counts = new int[bins];
+        for (int v : x) {
+            counts[v]++;
+        }
+        return entropyOf(counts, x.length);
+    }
+
+    public static double jointEntropy(int[] x, int binsX, int[] y, int binsY) {
+        int[] counts = new int[binsX * binsY];
+        int n = x.length;
+        for (int i = 0; i < n; i++) {
+            counts[x[i] * binsY + y[i]]++;
+        }
+        return entropyOf(counts, n);
+    }
+
+    public static double mutualInformation(int[] x, int[] y) {
+        int bx = cardinality(x);
+        int by = cardinality(y);
+        return mutualInformation(x, bx, entropy(x, bx), y, by, entropy(y, by));
+    }
+
+    /**
+     * I(X;Y) = H(X) + H(Y) - H(X,Y), reusing already known marginal entropies.
+     */
+    public static double mutualInformation(int[] x, int binsX, double hx, int[] y, int binsY, double hy) {
+        return hx + hy - jointEntropy(x, binsX, y, binsY);
+    }
+
+    public static double symmetricalUncertainty(int[] x, int[] y) {
+        int bx = cardinality(x);
+        int by = cardinality(y);
+        return symmetricalUncertainty(x, bx, entropy(x, bx), y, by, entropy(y, by));
+    }
+
+    /**
+     * SU(X,Y) = 2 I(X;Y) / (H(X) + H(Y)), or 0 when both variables are constant.
+     */
+    public static double symmetricalUncertainty(int[] x, int binsX, double hx, int[] y, int binsY, double hy) {
+        if (hx + hy == 0)
+            return 0.0;
+        double mi = mutualInformation(x, binsX, hx, y, binsY, hy);
+        return 2.0 * mi / (hx + hy);
+    }
+
+    public static double entropy(BinnedColumn x) {
+        return entropyOf(x.counts(), x.size());
+    }
+
+    /**
+     * H(X,Y). Sparse columns are counted from their entries: the rows without
+     * one start out in the fill bin, taken from the other column's marginal
+     * counts, and each entry moves its row to its own bin.
+     */
+    public static double jointEntropy(BinnedColumn x, BinnedColumn y) {
+        int binsY = y.bins();
+        int[] counts = new int[x.bins() * binsY];
+        int n = x.size();
+        if (x.isSparse() && y.isSparse()) {
+            countSparsePair(x, y, counts);
+        } else if (x.isSparse()) {
+            int base = x.fill() * binsY;
+            int[] yCounts = y.counts();
+            System.arraycopy(yCounts, 0, counts, base, binsY);
+            for (int k = 0; k < x.entries(); k++) {
+                int code = y.get(x.entryRow(k));
+                counts[base + code]--;
+                counts[x.entryCode(k) * binsY + code]++;
+            }
+        } else if (y.isSparse()) {
+            int[] xCounts = x.counts();
+            for (int b = 0; b < xCounts.length; b++) {
+                counts[b * binsY + y.fill()] = xCounts[b];
+            }
+            for (int k = 0; k < y.entries(); k++) {
+                int code = x.get(y.entryRow(k));
+                counts[code * binsY + y.fill()]--;
+                counts[code * binsY + y.entryCode(k)]++;
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                counts[x.get(i) * binsY + y.get(i)]++;
+            }
+        }
+        return entropyOf(counts, n);
+    }
+
+    /**
+     * Merges the two entry lists; rows in neither are (fill, fill).
+     */
+    private static void countSparsePair(BinnedColumn x, BinnedColumn y, int[] counts) {
+        int binsY = y.bins();
+        int ex = x.entries();
+        int ey = y.entries();
+        int i = 0;
+        int k = 0;
+        int union = 0;
+        while (i < ex || k < ey) {
+            int rx = i < ex ? x.entryRow(i) : Integer.MAX_VALUE;
+            int ry = k < ey ? y.entryRow(k) : Integer.MAX_VALUE;
+            if (rx == ry) {
+                counts[x.entryCode(i++) * binsY + y.entryCode(k++)]++;
+            } else if (rx < ry) {
+                counts[x.entryCode(i++) * binsY + y.fill()]++;
+            } else {
+                counts[x.fill() * binsY + y.entryCode(k++)]++;
+            }
+            union++;
+        }
+        counts[x.fill() * binsY + y.fill()] += x.size() - union;
+    }
+
+    /**
+     * I(X;Y) using the marginal entropies memoized on each column.
+     */
+    public static double mutualInformation(BinnedColumn x, BinnedColumn y) {
+        return x.entropy() + y.entropy() - jointEntropy(x, y);
+    }
+
+    public static double symmetricalUncertainty(BinnedColumn x, BinnedColumn y) {
+        double hx = x.entropy();
+        double hy = y.entropy();
+        if (hx + hy == 0)
+            return 0.0;
+        return 2.0 * (hx + hy - jointEntropy(x, y)) / (hx + hy);
+    }
+
+    /**
+     * I(X;Y) from joint counts laid out as {@code joint[x * binsY + y]}; only
+     * the first {@code binsX * binsY} cells are read.
+     */
+    public static double mutualInformation(int[] joint, int binsX, int binsY) {
+        int[] countsX = new int[binsX];
+        int[] countsY = new int[binsY];
+        int n = 0;
+        for (int x = 0; x < binsX; x++) {
+            for (int y = 0; y < binsY; y++) {
+                int count = joint[x * binsY + y];
+                countsX[x] += count;
+                countsY[y] += count;
+                n += count;
+            }
+        }
+        if (n == 0)
+            return 0.0;
+        double hxy = 0.0;
+        for (int i = 0; i < binsX * binsY; i++) {
+            if (joint[i] == 0)
+                continue;
+            double p = (double) joint[i] / n;
+            hxy -= p * Math.log(p);
+        }
+        return entropyOf(countsX, n) + entropyOf(countsY, n) - hxy;
+    }
+
+    static double entropyOf(int[] counts, int n) {
+        double entropy = 0.0;
+        for (int count : counts) {
+            if (count == 0)
+                continue;
+            double p = (double) count / n;
+            entropy -= p * Math.log(p);
+        }
+        return entropy;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.featureselection.stats;
+
+import java.util.Objects;
+
+public final class DiscretizationSettings {
+
+    public static final int DEFAULT_BINS = 10;
+
+    private final int bins;
+    private final Binning binning;
+
+    public DiscretizationSettings(int bins, Binning binning) {
+        if (bins < 1) {
+            throw new IllegalArgumentException("bins must be positive: " + bins);
+        }
+        this.bins = bins;
+        this.binning = Objects.requireNonNull(binning);
+    }
+
+    public static DiscretizationSettings defaults() {
+        return new DiscretizationSettings(DEFAULT_BINS, Binning.EQUAL_WIDTH);
+    }
+
+    public int getBins() {
+        return bins;
+    }
+
+    public Binning getBinning() {
+        return binning;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof DiscretizationSettings))
+            return false;
+        DiscretizationSettings that = (DiscretizationSettings) o;
+        return bins == that.bins && binning == that.binning;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bins, binning);
+    }
+
+    @Override
+    public String toString() {
+        return binning + "(" + bins + ")";
+    }
+}
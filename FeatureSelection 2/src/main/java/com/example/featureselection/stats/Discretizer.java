@@ -0,0 +1,108 @@
+package com.example.featureselection.stats;
+
+import java.util.Arrays;
+
+public final class Discretizer {
+
+    private Discretizer() {
+    }
+
+    public static BinnedColumn discretize(double[] values, DiscretizationSettings settings) {
+        if (settings.getBinning() == Binning.EQUAL_FREQUENCY) {
+            return equalFrequency(values, settings.getBins());
+        }
+        return equalWidth(values, settings.getBins());
+    }
+
+    /**
+     * Bins a sparse column, the non-zero {@code values} at {@code rows} and
+     * zero elsewhere, to the same codes as its dense form while reading only
+     * the non-zeros. All zero rows share one bin, the fill of the result.
+     */
+    public static BinnedColumn discretize(int size, int[] rows, double[] values, DiscretizationSettings settings) {
+        if (settings.getBinning() == Binning.EQUAL_FREQUENCY) {
+            return equalFrequency(size, rows, values, settings.getBins());
+        }
+        return equalWidth(size, rows, values, settings.getBins());
+    }
+
+    /**
+     * Splits [min, max] into {@code bins} equal intervals; the maximum falls in
+     * the last bin and a constant column maps entirely to bin 0.
+     */
+    public static BinnedColumn equalWidth(double[] values, int bins) {
+        return BinEdges.equalWidth(values, bins).apply(values);
+    }
+
+    static BinnedColumn equalWidth(int size, int[] rows, double[] values, int bins) {
+        boolean hasZeros = values.length < size;
+        double min = size == 0 ? 0 : hasZeros ? 0.0 : Double.POSITIVE_INFINITY;
+        double max = size == 0 ? 1 : hasZeros ? 0.0 : Double.NEGATIVE_INFINITY;
+        for (double v : values) {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        double width = (max - min) / bins;
+
+        int[] codes = new int[values.length];
+        int fill = 0;
+        if (width != 0) {
+            for (int k = 0; k < values.length; k++) {
+                codes[k] = Math.min(bins - 1, (int) ((values[k] - min) / width));
+            }
+            // Zero lies below min when every row is non-zero; clamp as BinEdges.code does.
+            fill = Math.max(0, Math.min(bins - 1, (int) ((0.0 - min) / width)));
+        }
+        return BinnedColumn.sparse(size, rows, codes, fill, bins);
+    }
+
+    /**
+     * Uses the {@code b/bins} sample quantiles as cut points. Repeated cut
+     * points (heavy ties) are merged, so a column may end up with fewer bins.
+     */
+    public static BinnedColumn equalFrequency(double[] values, int bins) {
+        return BinEdges.equalFrequency(values, bins).apply(values);
+    }
+
+    /**
+     * Same cut points as the dense version: the sorted column is the sorted
+     * negatives, then the zeros, then the sorted positives.
+     */
+    static BinnedColumn equalFrequency(int size, int[] rows, double[] values, int bins) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int negatives = 0;
+        while (negatives < sorted.length && sorted[negatives] < 0)
+            negatives++;
+        int zeros = size - values.length;
+
+        double[] cuts = new double[Math.max(0, bins - 1)];
+        int distinct = 0;
+        double first = size > 0 ? quantile(sorted, negatives, zeros, 0) : 0.0;
+        for (int b = 1; b < bins && size > 0; b++) {
+            double cut = quantile(sorted, negatives, zeros, (int) ((long) b * size / bins));
+            if (cut > first && (distinct == 0 || cut > cuts[distinct - 1])) {
+                cuts[distinct++] = cut;
+            }
+        }
+
+        int[] codes = new int[values.length];
+        for (int k = 0; k < values.length; k++) {
+            codes[k] = bin(cuts, distinct, values[k]);
+        }
+        return BinnedColumn.sparse(size, rows, codes, bin(cuts, distinct, 0.0), distinct + 1);
+    }
+
+    private static double quantile(double[] sortedNonZeros, int negatives, int zeros, int index) {
+        if (index < negatives)
+            return sortedNonZeros[index];
+        if (index < negatives + zeros)
+            return 0.0;
+        return sortedNonZeros[index - zeros];
+    }
+
+    private static int bin(double[] cuts, int distinct, double value) {
+        int pos = Arrays.binarySearch(cuts, 0, distinct, value);
+        return pos >= 0 ? pos + 1 : -pos - 1;
+    }
+}
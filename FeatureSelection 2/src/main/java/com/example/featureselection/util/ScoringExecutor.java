@@ -0,0 +1,112 @@
+package com.example.featureselection.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Runs independent per-feature work over index ranges on a bounded
+ * {@link ForkJoinPool}. Results are written by feature index, so the output
+ * does not depend on scheduling. A parallelism of 1 runs inline. Work stops
+ * with a {@link CancellationException} once the calling thread is interrupted,
+ * so a cancelled stage releases the pool.
+ */
+public class ScoringExecutor {
+
+    private static final int SPLITS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+
+    public ScoringExecutor(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        this.pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+    }
+
+    public static ScoringExecutor sequential() {
+        return new ScoringExecutor(1);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void forEach(int count, IntConsumer body) {
+        if (pool == null || count < 2) {
+            for (int i = 0; i < count; i++) {
+                StageRunner.checkInterrupted();
+                body.accept(i);
+            }
+            return;
+        }
+        StageRunner.checkInterrupted();
+        int grain = Math.max(1, count / (parallelism * SPLITS_PER_THREAD));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        RangeTask task = new RangeTask(0, count, grain, body, cancelled);
+        pool.execute(task);
+        try {
+            // Unlike invoke(), get() lets an interrupt of the caller through.
+            task.get();
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Scoring interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public double[] map(int count, IntToDoubleFunction scorer) {
+        double[] out = new double[count];
+        forEach(count, i -> out[i] = scorer.applyAsDouble(i));
+        return out;
+    }
+
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final IntConsumer body;
+        private final AtomicBoolean cancelled;
+
+        RangeTask(int from, int to, int grain, IntConsumer body, AtomicBoolean cancelled) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    if (cancelled.get())
+                        return;
+                    body.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, grain, body, cancelled),
+                    new RangeTask(mid, to, grain, body, cancelled));
+        }
+    }
+}
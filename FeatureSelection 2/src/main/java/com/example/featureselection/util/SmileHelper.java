@@ -1,61 +1,77 @@
 package com.example.featureselection.util;
 
 import smile.data.DataFrame;
-import smile.data.Tuple;
-import smile.data.type.DataTypes;
-import smile.data.type.StructField;
-import smile.data.type.StructType;
+import smile.data.vector.BaseVector;
+import smile.data.vector.DoubleVector;
+import smile.data.vector.IntVector;
+
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Builds Smile data frames from primitive column vectors. Column arrays are
+ * wrapped, not copied, so callers must not modify them while the frame is in
+ * use. Row-major input is transposed once into fresh columns.
+ */
 public class SmileHelper {
 
     public static DataFrame toDataFrame(double[][] x, int[] y) {
         if (x.length == 0)
             return null;
-        int features = x[0].length;
+        return withGeneratedNames(x).intColumn("Class", y).build();
+    }
 
-        StructField[] fields = new StructField[features + 1];
-        for (int i = 0; i < features; i++) {
-            fields[i] = new StructField("V" + i, DataTypes.DoubleType);
-        }
-        fields[features] = new StructField("Class", DataTypes.IntegerType);
+    public static DataFrame toDataFrame(double[][] x, double[] y) {
+        if (x.length == 0)
+            return null;
+        return withGeneratedNames(x).doubleColumn("Target", y).build();
+    }
 
-        StructType schema = new StructType(fields);
+    public static DataFrame toDataFrame(double[][] x) {
+        if (x.length == 0)
+            return null;
+        return withGeneratedNames(x).build();
+    }
+
+    public static FrameBuilder builder() {
+        return new FrameBuilder();
+    }
 
-        List<Tuple> data = new ArrayList<>(x.length);
-        for (int i = 0; i < x.length; i++) {
-            Object[] row = new Object[features + 1];
+    private static FrameBuilder withGeneratedNames(double[][] x) {
+        int rows = x.length;
+        int features = x[0].length;
+        double[][] columns = new double[features][rows];
+        for (int i = 0; i < rows; i++) {
+            double[] row = x[i];
             for (int j = 0; j < features; j++) {
-                row[j] = x[i][j];
+                columns[j][i] = row[j];
             }
-            row[features] = y[i];
-            data.add(Tuple.of(row, schema));
         }
-
-        return DataFrame.of(data, schema);
+        FrameBuilder builder = new FrameBuilder();
+        for (int j = 0; j < features; j++) {
+            builder.doubleColumn("V" + j, columns[j]);
+        }
+        return builder;
     }
 
-    public static DataFrame toDataFrame(double[][] x) {
-        if (x.length == 0)
-            return null;
-        int features = x[0].length;
+    public static class FrameBuilder {
+        private final List<BaseVector<?, ?, ?>> vectors = new ArrayList<>();
 
-        StructField[] fields = new StructField[features];
-        for (int i = 0; i < features; i++) {
-            fields[i] = new StructField("V" + i, DataTypes.DoubleType);
+        private FrameBuilder() {
         }
 
-        StructType schema = new StructType(fields);
+        public FrameBuilder doubleColumn(String name, double[] values) {
+            vectors.add(DoubleVector.of(name, values));
+            return this;
+        }
 
-        List<Tuple> data = new ArrayList<>(x.length);
-        for (int i = 0; i < x.length; i++) {
-            Object[] row = new Object[features];
-            for (int j = 0; j < features; j++) {
-                row[j] = x[i][j];
-            }
-            data.add(Tuple.of(row, schema));
+        public FrameBuilder intColumn(String name, int[] values) {
+            vectors.add(IntVector.of(name, values));
+            return this;
+        }
+
+        public DataFrame build() {
+            return DataFrame.of(vectors.toArray(new BaseVector<?, ?, ?>[0]));
         }
-        return DataFrame.of(data, schema);
     }
 }
@@ -0,0 +1,33 @@
+package com.example.featureselection.util;
+
+import java.util.concurrent.Future;
+
+/**
+ * Observes the stages of one analysis. Callbacks arrive on the stage threads.
+ * {@link #started(String)} may throw to abort a stage, which then completes
+ * with its fallback. {@link #finished(String, boolean)} reports
+ * {@code succeeded == false} whenever a stage's fallback replaced its result.
+ */
+public interface StageListener {
+
+    StageListener NONE = new StageListener() {
+        @Override
+        public void started(String stage) {
+        }
+
+        @Override
+        public void finished(String stage, boolean succeeded) {
+        }
+    };
+
+    void started(String stage);
+
+    /**
+     * Called once a stage task has started; cancelling {@code execution} with
+     * interruption stops it and completes it with its fallback.
+     */
+    default void running(String stage, Future<?> execution) {
+    }
+
+    void finished(String stage, boolean succeeded);
+}
@@ -0,0 +1,173 @@
+package com.example.featureselection.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent stages of an analysis as cancellable tasks on a managed
+ * executor. Every stage has its own timeout, counted from the moment it starts
+ * executing, and a fallback value: a stage that fails or times out is logged and
+ * replaced by its fallback, so it cannot fail its siblings or the analysis.
+ * A timed-out stage is interrupted; long stages call
+ * {@link #checkInterrupted()} so that they actually stop and free their
+ * threads. A {@link StageListener} attached with
+ * {@link #observed(StageListener)} sees every stage start and finish, and can
+ * cancel a running stage through {@link StageListener#running}.
+ */
+public class StageRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StageRunner.class);
+
+    private static final ScheduledThreadPoolExecutor TIMER = timer();
+
+    private final Executor executor;
+    private final long timeoutMillis;
+    private final StageListener listener;
+
+    public StageRunner(Executor executor, long timeoutMillis) {
+        this(executor, timeoutMillis, StageListener.NONE);
+    }
+
+    private StageRunner(Executor executor, long timeoutMillis, StageListener listener) {
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+        this.listener = listener;
+    }
+
+    private static ScheduledThreadPoolExecutor timer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "stage-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Runs every stage inline on the calling thread, without timeouts.
+     */
+    public static StageRunner inline() {
+        return new StageRunner(Runnable::run, 0);
+    }
+
+    /**
+     * A runner on the same executor and timeout that reports to {@code listener}.
+     */
+    public StageRunner observed(StageListener listener) {
+        return new StageRunner(executor, timeoutMillis, listener);
+    }
+
+    /**
+     * Cancellation point for long stages: throws once the current thread was
+     * interrupted, by a timeout or a cancelled job.
+     */
+    public static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted())
+            throw new CancellationException("Stage interrupted");
+    }
+
+    public <T> CompletableFuture<T> submit(String name, Supplier<T> stage, T fallback) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        executor.execute(new StageTask<>(name, stage, result));
+        return result.handle((value, e) -> {
+            listener.finished(name, e == null);
+            if (e == null)
+                return value;
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof TimeoutException) {
+                log.warn("Stage '{}' timed out after {} ms; using fallback", name, timeoutMillis);
+            } else if (cause instanceof CancellationException) {
+                log.warn("Stage '{}' was cancelled; using fallback", name);
+            } else {
+                log.warn("Stage '{}' failed; using fallback: {}", name, cause.toString());
+            }
+            return fallback;
+        });
+    }
+
+    /**
+     * Starts {@code stage} once {@code dependency} has completed.
+     */
+    public <D, T> CompletableFuture<T> then(CompletableFuture<D> dependency, String name, Function<D, T> stage,
+            T fallback) {
+        return dependency.thenCompose(d -> submit(name, () -> stage.apply(d), fallback));
+    }
+
+    private static <T> T timed(String name, Supplier<T> stage) {
+        long start = System.nanoTime();
+        T result = stage.get();
+        log.info("Stage '{}' finished in {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
+    /**
+     * One stage execution. Its timeout is armed when it starts running, and
+     * cancelling it interrupts the stage thread.
+     */
+    private final class StageTask<T> extends FutureTask<T> {
+        private final String name;
+        private final CompletableFuture<T> result;
+        private volatile ScheduledFuture<?> timeout;
+
+        StageTask(String name, Supplier<T> stage, CompletableFuture<T> result) {
+            super(() -> timed(name, stage));
+            this.name = name;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            if (isDone())
+                return;
+            try {
+                listener.started(name);
+                listener.running(name, this);
+            } catch (RuntimeException e) {
+                setException(e);
+                return;
+            }
+            if (timeoutMillis > 0) {
+                timeout = TIMER.schedule(this::expire, timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+            super.run();
+        }
+
+        private void expire() {
+            if (result.completeExceptionally(new TimeoutException("Stage '" + name + "' timed out")))
+                cancel(true);
+        }
+
+        @Override
+        protected void done() {
+            ScheduledFuture<?> pending = timeout;
+            if (pending != null)
+                pending.cancel(false);
+            if (isCancelled()) {
+                result.completeExceptionally(new CancellationException("Stage '" + name + "' cancelled"));
+                return;
+            }
+            try {
+                result.complete(get());
+            } catch (ExecutionException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
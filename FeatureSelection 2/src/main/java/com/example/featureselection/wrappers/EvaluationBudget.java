@@ -0,0 +1,67 @@
+package com.example.featureselection.wrappers;
+
+import com.example.featureselection.model.WrapperBudget;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the subset evaluations of one search by count and wall time; a limit of
+ * 0 means unlimited. {@link #tryAcquire()} is safe to call from concurrent
+ * candidate evaluations.
+ */
+final class EvaluationBudget {
+
+    private final int maxEvaluations;
+    private final long maxMillis;
+    private final long start = System.nanoTime();
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicBoolean exhausted = new AtomicBoolean();
+
+    EvaluationBudget(int maxEvaluations, long maxMillis) {
+        this.maxEvaluations = Math.max(0, maxEvaluations);
+        this.maxMillis = Math.max(0, maxMillis);
+    }
+
+    static EvaluationBudget unlimited() {
+        return new EvaluationBudget(0, 0);
+    }
+
+    /**
+     * Claims one evaluation, or returns false once either limit is reached.
+     */
+    boolean tryAcquire() {
+        if (maxMillis > 0 && elapsedMillis() >= maxMillis) {
+            exhausted.set(true);
+            return false;
+        }
+        while (true) {
+            int n = used.get();
+            if (maxEvaluations > 0 && n >= maxEvaluations) {
+                exhausted.set(true);
+                return false;
+            }
+            if (used.compareAndSet(n, n + 1))
+                return true;
+        }
+    }
+
+    boolean isExhausted() {
+        return exhausted.get();
+    }
+
+    private long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    WrapperBudget report() {
+        return WrapperBudget.builder()
+                .evaluations(used.get())
+                .maxEvaluations(maxEvaluations)
+                .elapsedMillis(elapsedMillis())
+                .maxMillis(maxMillis)
+                .exhausted(exhausted.get())
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.featureselection.wrappers;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * K-fold split as shared row-index arrays. Rows are shuffled with a fixed seed;
+ * the stratified variant deals every class across the folds in turn so each
+ * fold keeps the class proportions. Index arrays are sorted and read-only.
+ */
+final class Folds {
+
+    private final int[][] train;
+    private final int[][] test;
+
+    private Folds(int[] foldOf, int k) {
+        int[] sizes = new int[k];
+        for (int f : foldOf) {
+            sizes[f]++;
+        }
+        int n = foldOf.length;
+        this.test = new int[k][];
+        this.train = new int[k][];
+        for (int f = 0; f < k; f++) {
+            test[f] = new int[sizes[f]];
+            train[f] = new int[n - sizes[f]];
+        }
+        int[] testPos = new int[k];
+        int[] trainPos = new int[k];
+        for (int i = 0; i < n; i++) {
+            for (int f = 0; f < k; f++) {
+                if (foldOf[i] == f) {
+                    test[f][testPos[f]++] = i;
+                } else {
+                    train[f][trainPos[f]++] = i;
+                }
+            }
+        }
+    }
+
+    static Folds shuffled(int n, int k, long seed) {
+        int[] order = permutation(n, new Random(seed));
+        int[] foldOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            foldOf[order[i]] = i % k;
+        }
+        return new Folds(foldOf, k);
+    }
+
+    static Folds stratified(int[] y, int k, long seed) {
+        int n = y.length;
+        Random random = new Random(seed);
+        int[] order = permutation(n, random);
+        // Stable sort of the shuffled rows by class keeps each class shuffled.
+        Integer[] byClass = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            byClass[i] = order[i];
+        }
+        Arrays.sort(byClass, (a, b) -> Integer.compare(y[a], y[b]));
+        int[] foldOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            foldOf[byClass[i]] = i % k;
+        }
+        return new Folds(foldOf, k);
+    }
+
+    private static int[] permutation(int n, Random random) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    int count() {
+        return test.length;
+    }
+
+    int[] train(int fold) {
+        return train[fold];
+    }
+
+    int[] test(int fold) {
+        return test[fold];
+    }
+}
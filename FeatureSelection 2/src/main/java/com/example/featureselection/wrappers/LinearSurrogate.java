@@ -0,0 +1,327 @@
+package com.example.featureselection.wrappers;
+
+import java.util.Arrays;
+
+/**
+ * Least-squares surrogate used by the wrappers' FAST evaluation mode. Subsets
+ * are ranked by adjusted R² of a lightly ridged linear fit on standardized
+ * features. For classification the targets are the one-vs-rest class
+ * indicators, whose summed R² is the criterion LDA maximizes over the same
+ * features.
+ * <p>
+ * Forward search grows a Cholesky factor one row per added feature; backward
+ * search keeps the inverse Gram matrix and downdates it per removed feature.
+ * Each candidate is therefore scored in O(k²) (forward) or O(k) (backward)
+ * without refitting.
+ */
+final class LinearSurrogate {
+
+    private static final double RIDGE = 1e-6;
+
+    private final int n;
+    private final double[][] columns;
+    private final double[][] xty;
+    private final double totalSS;
+    private final double[][] gram;
+
+    private LinearSurrogate(double[][] x, double[][] targets) {
+        this.n = x.length;
+        int p = n == 0 ? 0 : x[0].length;
+        this.columns = new double[p][n];
+        for (int j = 0; j < p; j++) {
+            double[] col = columns[j];
+            double mean = 0.0;
+            for (int i = 0; i < n; i++) {
+                col[i] = x[i][j];
+                mean += col[i];
+            }
+            mean /= n;
+            double norm = 0.0;
+            for (int i = 0; i < n; i++) {
+                col[i] -= mean;
+                norm += col[i] * col[i];
+            }
+            norm = Math.sqrt(norm);
+            for (int i = 0; i < n; i++) {
+                col[i] = norm > 1e-12 ? col[i] / norm : 0.0;
+            }
+        }
+
+        double ss = 0.0;
+        for (double[] t : targets) {
+            double mean = Arrays.stream(t).average().orElse(0.0);
+            for (int i = 0; i < n; i++) {
+                t[i] -= mean;
+                ss += t[i] * t[i];
+            }
+        }
+        this.totalSS = ss;
+        this.xty = new double[p][targets.length];
+        for (int j = 0; j < p; j++) {
+            for (int t = 0; t < targets.length; t++) {
+                xty[j][t] = dot(columns[j], targets[t]);
+            }
+        }
+        this.gram = new double[p][];
+    }
+
+    static LinearSurrogate regression(double[][] x, double[] y) {
+        return new LinearSurrogate(x, new double[][] { y.clone() });
+    }
+
+    static LinearSurrogate classification(double[][] x, int[] y) {
+        int[] classes = Arrays.stream(y).distinct().sorted().toArray();
+        double[][] indicators = new double[classes.length][y.length];
+        for (int i = 0; i < y.length; i++) {
+            indicators[Arrays.binarySearch(classes, y[i])][i] = 1.0;
+        }
+        return new LinearSurrogate(x, indicators);
+    }
+
+    int features() {
+        return columns.length;
+    }
+
+    Forward forward() {
+        return new Forward();
+    }
+
+    Backward backward(int[] subset) {
+        return new Backward(subset);
+    }
+
+    private double r2(double explained) {
+        return totalSS <= 0 ? 0.0 : Math.min(1.0, Math.max(0.0, explained / totalSS));
+    }
+
+    private double adjustedR2(double explained, int k) {
+        if (totalSS <= 0 || n - k - 1 <= 0)
+            return Double.NEGATIVE_INFINITY;
+        return 1.0 - (1.0 - r2(explained)) * (n - 1) / (n - k - 1);
+    }
+
+    /**
+     * Column j of XᵀX, computed on first use.
+     */
+    private double[] gramColumn(int j) {
+        double[] g = gram[j];
+        if (g == null) {
+            g = new double[columns.length];
+            for (int k = 0; k < columns.length; k++) {
+                g[k] = dot(columns[j], columns[k]);
+            }
+            gram[j] = g;
+        }
+        return g;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        return dot(a, b, a.length);
+    }
+
+    private static double dot(double[] a, double[] b, int len) {
+        double s = 0.0;
+        for (int i = 0; i < len; i++) {
+            s += a[i] * b[i];
+        }
+        return s;
+    }
+
+    /**
+     * Forward state: Cholesky factor L of (G_S + λI) and z = L⁻¹ Xᵀ_S y per
+     * target, so the explained sum of squares is Σ‖z‖².
+     */
+    final class Forward {
+        private final int[] members = new int[columns.length];
+        private final double[][] l = new double[columns.length][];
+        private final double[][] z = new double[xty.length == 0 ? 0 : xty[0].length][columns.length];
+        private int size;
+        private double explained;
+
+        double score() {
+            return adjustedR2(explained, size);
+        }
+
+        /**
+         * Adjusted R² of the current subset plus {@code candidate}; read-only,
+         * so it may be called concurrently for different candidates.
+         */
+        double scoreWith(int candidate) {
+            double[] w = new double[size];
+            double d2 = border(candidate, w);
+            if (d2 <= RIDGE)
+                return adjustedR2(explained, size + 1);
+            double gain = 0.0;
+            for (int t = 0; t < z.length; t++) {
+                double r = xty[candidate][t] - dot(w, z[t], size);
+                gain += r * r / d2;
+            }
+            return adjustedR2(explained + gain, size + 1);
+        }
+
+        void add(int feature) {
+            double[] w = new double[size];
+            double d2 = border(feature, w);
+            double d = Math.sqrt(Math.max(d2, RIDGE));
+            double[] row = Arrays.copyOf(w, size + 1);
+            row[size] = d;
+            for (int t = 0; t < z.length; t++) {
+                double r = (xty[feature][t] - dot(w, z[t], size)) / d;
+                z[t][size] = r;
+                explained += r * r;
+            }
+            l[size] = row;
+            members[size++] = feature;
+            gramColumn(feature);
+        }
+
+        /**
+         * Solves L w = G[S, c] and returns the new pivot d² = G[c, c] + λ - wᵀw.
+         */
+        private double border(int candidate, double[] w) {
+            for (int i = 0; i < size; i++) {
+                double s = gram[members[i]][candidate];
+                double[] li = l[i];
+                for (int k = 0; k < i; k++) {
+                    s -= li[k] * w[k];
+                }
+                w[i] = s / li[i];
+            }
+            double[] self = columns[candidate];
+            return dot(self, self) + RIDGE - dot(w, w, size);
+        }
+    }
+
+    /**
+     * Backward state: M = (G_S + λI)⁻¹ and β = M Xᵀ_S y per target. Dropping
+     * member j lowers the explained sum of squares by Σ β_j² / M_jj.
+     */
+    final class Backward {
+        private int[] members;
+        private double[][] inverse;
+        private double[][] beta;
+        private double explained;
+
+        Backward(int[] subset) {
+            this.members = subset.clone();
+            int k = members.length;
+            double[][] a = new double[k][k];
+            for (int i = 0; i < k; i++) {
+                double[] g = gramColumn(members[i]);
+                for (int j = 0; j < k; j++) {
+                    a[i][j] = g[members[j]];
+                }
+                a[i][i] += RIDGE;
+            }
+            this.inverse = invertSpd(a);
+            refit();
+        }
+
+        int size() {
+            return members.length;
+        }
+
+        int member(int position) {
+            return members[position];
+        }
+
+        /**
+         * R² of the current subset; all removal candidates have the same size,
+         * so no adjustment is needed to rank them.
+         */
+        double score() {
+            return r2(explained);
+        }
+
+        double scoreWithout(int position) {
+            double mjj = inverse[position][position];
+            double drop = 0.0;
+            for (double[] b : beta) {
+                drop += b[position] * b[position] / mjj;
+            }
+            return r2(explained - drop);
+        }
+
+        void remove(int position) {
+            int k = members.length;
+            double mjj = inverse[position][position];
+            double[][] next = new double[k - 1][k - 1];
+            for (int i = 0, r = 0; i < k; i++) {
+                if (i == position)
+                    continue;
+                for (int j = 0, c = 0; j < k; j++) {
+                    if (j == position)
+                        continue;
+                    next[r][c++] = inverse[i][j] - inverse[i][position] * inverse[position][j] / mjj;
+                }
+                r++;
+            }
+            int[] rest = new int[k - 1];
+            for (int i = 0, r = 0; i < k; i++) {
+                if (i != position)
+                    rest[r++] = members[i];
+            }
+            members = rest;
+            inverse = next;
+            refit();
+        }
+
+        private void refit() {
+            int k = members.length;
+            int targets = xty.length == 0 ? 0 : xty[0].length;
+            beta = new double[targets][k];
+            explained = 0.0;
+            for (int t = 0; t < targets; t++) {
+                for (int i = 0; i < k; i++) {
+                    double s = 0.0;
+                    for (int j = 0; j < k; j++) {
+                        s += inverse[i][j] * xty[members[j]][t];
+                    }
+                    beta[t][i] = s;
+                    explained += s * xty[members[i]][t];
+                }
+            }
+        }
+    }
+
+    /**
+     * Inverts a symmetric positive definite matrix through its Cholesky factor.
+     */
+    static double[][] invertSpd(double[][] a) {
+        int k = a.length;
+        double[][] l = new double[k][k];
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j <= i; j++) {
+                double s = a[i][j];
+                for (int m = 0; m < j; m++) {
+                    s -= l[i][m] * l[j][m];
+                }
+                l[i][j] = i == j ? Math.sqrt(Math.max(s, RIDGE)) : s / l[j][j];
+            }
+        }
+        double[][] inv = new double[k][k];
+        double[] e = new double[k];
+        for (int c = 0; c < k; c++) {
+            Arrays.fill(e, 0.0);
+            e[c] = 1.0;
+            for (int i = 0; i < k; i++) {
+                double s = e[i];
+                for (int m = 0; m < i; m++) {
+                    s -= l[i][m] * e[m];
+                }
+                e[i] = s / l[i][i];
+            }
+            for (int i = k - 1; i >= 0; i--) {
+                double s = e[i];
+                for (int m = i + 1; m < k; m++) {
+                    s -= l[m][i] * e[m];
+                }
+                e[i] = s / l[i][i];
+            }
+            for (int i = 0; i < k; i++) {
+                inv[i][c] = e[i];
+            }
+        }
+        return inv;
+    }
+}
@@ -1,109 +1,166 @@
 package com.example.featureselection.wrappers;
 
+import com.example.featureselection.util.ScoringExecutor;
+import com.example.featureselection.util.SmileHelper;
+import com.example.featureselection.util.StageRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import smile.classification.RandomForest;
 import smile.data.DataFrame;
 import smile.data.formula.Formula;
-import smile.data.Tuple;
-import smile.data.type.DataTypes;
-import smile.data.type.StructField;
-import smile.data.type.StructType;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
+import java.util.stream.IntStream;
 
 @Component
 public class RFE {
 
     private static final int MIN_FEATURES = 5;
+    private static final int K_FOLD = 5;
+    private static final int TREES = 20;
+
+    private final ScoringExecutor executor;
+    private final double step;
+    private final boolean crossValidate;
+
+    public RFE() {
+        this(ScoringExecutor.sequential(), 1, false);
+    }
+
+    /**
+     * @param step          features removed per round: a fraction of the
+     *                      remaining features when below 1 (at least one),
+     *                      otherwise a fixed count
+     * @param crossValidate cross-validate every subset on the elimination path
+     *                      and return the best one (the smallest on ties)
+     *                      instead of stopping at the minimum size
+     */
+    @Autowired
+    public RFE(ScoringExecutor executor,
+            @Value("${featureselection.wrappers.rfe.step:0.1}") double step,
+            @Value("${featureselection.wrappers.rfe.cross-validate:true}") boolean crossValidate) {
+        if (!(step > 0)) {
+            throw new IllegalArgumentException("step must be positive: " + step);
+        }
+        this.executor = executor;
+        this.step = step;
+        this.crossValidate = crossValidate;
+    }
 
     public List<Integer> select(double[][] x, int[] y) {
-        return selectInternal(x, y, true);
+        return selectInternal(x, y, true, null);
     }
 
     public List<Integer> select(double[][] x, double[] y) {
-        return selectInternal(x, y, false);
+        return selectInternal(x, y, false, null);
     }
 
-    private List<Integer> selectInternal(double[][] x, Object y, boolean isClassification) {
+    /**
+     * @param initialImportance importance of every feature from a forest that
+     *                          was already trained on the full data; it ranks
+     *                          the first round, which is then not refitted.
+     *                          May be null.
+     */
+    public List<Integer> select(double[][] x, int[] y, double[] initialImportance) {
+        return selectInternal(x, y, true, initialImportance);
+    }
+
+    public List<Integer> select(double[][] x, double[] y, double[] initialImportance) {
+        return selectInternal(x, y, false, initialImportance);
+    }
+
+    private List<Integer> selectInternal(double[][] x, Object y, boolean isClassification,
+            double[] initialImportance) {
         int totalFeatures = x[0].length;
         int featuresToKeep = Math.min(MIN_FEATURES, totalFeatures);
 
-        Set<Integer> currentFeatures = new HashSet<>();
-        for (int i = 0; i < totalFeatures; i++)
-            currentFeatures.add(i);
-
-        while (currentFeatures.size() > featuresToKeep) {
-            int[] indices = currentFeatures.stream().mapToInt(Integer::intValue).toArray();
-            double[][] subset = slice(x, indices);
-
-            java.util.Properties props = new java.util.Properties();
-            props.setProperty("smile.random.forest.trees", "50");
-
-            double[] importance;
-            if (isClassification) {
-                DataFrame df = com.example.featureselection.util.SmileHelper.toDataFrame(subset, (int[]) y);
-                RandomForest model = RandomForest.fit(Formula.lhs("Class"), df, props);
-                importance = model.importance();
-            } else {
-                DataFrame df = createDataFrame(subset, (double[]) y, "Target");
-                smile.regression.RandomForest model = smile.regression.RandomForest.fit(Formula.lhs("Target"), df,
-                        props);
-                importance = model.importance();
+        // Ascending feature indices; importance[i] belongs to current[i].
+        int[] current = IntStream.range(0, totalFeatures).toArray();
+        List<int[]> path = new ArrayList<>();
+        path.add(current);
+
+        // One frame for the whole elimination; each round trains on a column view.
+        DataFrame data = isClassification ? SmileHelper.toDataFrame(x, (int[]) y)
+                : SmileHelper.toDataFrame(x, (double[]) y);
+        int targetColumn = totalFeatures;
+
+        double[] importance = initialImportance != null && initialImportance.length == totalFeatures
+                ? initialImportance
+                : null;
+        while (current.length > featuresToKeep) {
+            StageRunner.checkInterrupted();
+            if (importance == null) {
+                importance = importance(data, current, targetColumn, isClassification);
             }
+            int remove = Math.min(removalCount(current.length), current.length - featuresToKeep);
+            current = dropLeastImportant(current, importance, remove);
+            path.add(current);
+            importance = null;
+        }
 
-            int minIdx = -1;
-            double minImp = Double.MAX_VALUE;
+        if (crossValidate && path.size() > 1) {
+            current = bestOnPath(x, y, isClassification, path);
+        }
 
-            for (int i = 0; i < importance.length; i++) {
-                if (importance[i] < minImp) {
-                    minImp = importance[i];
-                    minIdx = i;
-                }
-            }
+        List<Integer> selected = new ArrayList<>(current.length);
+        for (int feature : current)
+            selected.add(feature);
+        return selected;
+    }
 
-            if (minIdx != -1) {
-                int featureToRemove = indices[minIdx];
-                currentFeatures.remove(featureToRemove);
-            } else {
-                break;
-            }
-        }
+    private int removalCount(int remaining) {
+        if (step < 1)
+            return Math.max(1, (int) (remaining * step));
+        return (int) step;
+    }
 
-        return new ArrayList<>(currentFeatures);
+    private static double[] importance(DataFrame data, int[] features, int targetColumn, boolean isClassification) {
+        int[] columns = Arrays.copyOf(features, features.length + 1);
+        columns[features.length] = targetColumn;
+        DataFrame df = data.select(columns);
+
+        java.util.Properties props = new java.util.Properties();
+        props.setProperty("smile.random.forest.trees", "50");
+
+        if (isClassification) {
+            return RandomForest.fit(Formula.lhs("Class"), df, props).importance();
+        }
+        return smile.regression.RandomForest.fit(Formula.lhs("Target"), df, props).importance();
     }
 
-    private DataFrame createDataFrame(double[][] x, double[] y, String targetName) {
-        int cols = x[0].length;
-        StructField[] fields = new StructField[cols + 1];
-        for (int i = 0; i < cols; i++)
-            fields[i] = new StructField("V" + i, DataTypes.DoubleType);
-        fields[cols] = new StructField(targetName, DataTypes.DoubleType);
-
-        StructType schema = new StructType(fields);
-        List<Tuple> rows = new ArrayList<>();
-        for (int i = 0; i < x.length; i++) {
-            Object[] row = new Object[fields.length];
-            for (int k = 0; k < cols; k++) {
-                row[k] = x[i][k];
-            }
-            row[cols] = y[i];
-            rows.add(Tuple.of(row, schema));
+    /**
+     * Removes the {@code count} least important features; ties drop the higher
+     * index first.
+     */
+    static int[] dropLeastImportant(int[] features, double[] importance, int count) {
+        Integer[] order = new Integer[features.length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> i < importance.length ? importance[i] : 0.0)
+                .thenComparing(Comparator.<Integer>reverseOrder()));
+        boolean[] removed = new boolean[features.length];
+        for (int r = 0; r < count; r++)
+            removed[order[r]] = true;
+        int[] kept = new int[features.length - count];
+        for (int i = 0, k = 0; i < features.length; i++) {
+            if (!removed[i])
+                kept[k++] = features[i];
         }
-        return DataFrame.of(rows, schema);
+        return kept;
     }
 
-    private double[][] slice(double[][] x, int[] indices) {
-        int samples = x.length;
-        int dims = indices.length;
-        double[][] subset = new double[samples][dims];
-        for (int i = 0; i < samples; i++) {
-            for (int j = 0; j < dims; j++) {
-                subset[i][j] = x[i][indices[j]];
-            }
+    private int[] bestOnPath(double[][] x, Object y, boolean isClassification, List<int[]> path) {
+        SubsetCrossValidator validator = SubsetCrossValidator.of(x, y, isClassification, K_FOLD, TREES);
+        double[] metrics = executor.map(path.size(), k -> validator.score(path.get(k)));
+        int best = 0;
+        for (int k = 1; k < metrics.length; k++) {
+            if (metrics[k] >= metrics[best])
+                best = k;
         }
-        return subset;
+        return path.get(best);
     }
 }
@@ -1,191 +1,292 @@
 package com.example.featureselection.wrappers;
 
+import com.example.featureselection.util.ScoringExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import smile.classification.RandomForest;
-import smile.data.DataFrame;
-import smile.data.Tuple;
-import smile.data.formula.Formula;
-import smile.data.Tuple;
-import smile.data.type.DataTypes;
-import smile.data.type.StructField;
-import smile.data.type.StructType;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.stream.IntStream;
 
 @Component
 public class SBS {
 
     private static final int MIN_FEATURES = 5;
     private static final int K_FOLD = 5;
+    private static final int TREES = 20;
+    private static final int CONFIRM_WINDOW = 5;
+    private static final double MIN_GAIN = 0.0001;
+    private static final int PATIENCE = 2;
+
+    private final ScoringExecutor executor;
+    private final SubsetEvaluation evaluation;
+    private final boolean confirmWithForest;
+    private final int maxEvaluations;
+    private final long maxMillis;
+    private final boolean floating;
+
+    public SBS() {
+        this(SubsetEvaluation.FOREST, false);
+    }
+
+    public SBS(SubsetEvaluation evaluation, boolean confirmWithForest) {
+        this(ScoringExecutor.sequential(), evaluation, confirmWithForest, 0, 0, false);
+    }
+
+    /**
+     * Removal candidates of a step are evaluated on the scoring pool. Every
+     * cross-validated subset score counts against the budget; once it runs out
+     * the search stops and keeps its last complete step.
+     *
+     * @param confirmWithForest in FAST mode, cross-validate the last subsets on
+     *                          the elimination path (down to the minimum size)
+     *                          with the forest and keep the best one
+     * @param maxEvaluations    subset evaluations allowed per search, 0 for no
+     *                          limit
+     * @param maxSeconds        wall time allowed per search, 0 for no limit
+     * @param floating          after each removal, re-add excluded features
+     *                          while that beats the best subset of the larger
+     *                          size (SBFS); return the best subset seen and
+     *                          stop once it has not improved for
+     *                          {@link #PATIENCE} removals
+     */
+    @Autowired
+    public SBS(ScoringExecutor executor,
+            @Value("${featureselection.wrappers.evaluation:FOREST}") SubsetEvaluation evaluation,
+            @Value("${featureselection.wrappers.confirm-with-forest:true}") boolean confirmWithForest,
+            @Value("${featureselection.wrappers.sbs.max-evaluations:0}") int maxEvaluations,
+            @Value("${featureselection.wrappers.sbs.max-seconds:0}") long maxSeconds,
+            @Value("${featureselection.wrappers.sbs.floating:false}") boolean floating) {
+        this.executor = executor;
+        this.evaluation = evaluation;
+        this.confirmWithForest = confirmWithForest;
+        this.maxEvaluations = maxEvaluations;
+        this.maxMillis = maxSeconds * 1000;
+        this.floating = floating;
+    }
 
     public List<Integer> select(double[][] x, int[] y) {
-        return selectInternal(x, y, true);
+        return search(x, y).getSelected();
     }
 
     public List<Integer> select(double[][] x, double[] y) {
-        return selectInternal(x, y, false);
+        return search(x, y).getSelected();
     }
 
-    private List<Integer> selectInternal(double[][] x, Object y, boolean isClassification) {
-        int totalFeatures = x[0].length;
-        int featuresToKeep = Math.min(MIN_FEATURES, totalFeatures);
-
-        Set<Integer> currentFeatures = new HashSet<>();
-        for (int i = 0; i < totalFeatures; i++)
-            currentFeatures.add(i);
+    public SubsetSearch search(double[][] x, int[] y) {
+        EvaluationBudget budget = new EvaluationBudget(maxEvaluations, maxMillis);
+        List<Integer> selected = evaluation == SubsetEvaluation.FAST
+                ? selectFast(x, y, LinearSurrogate.classification(x, y), true, budget)
+                : selectInternal(x, y, true, budget);
+        return new SubsetSearch(selected, budget.report());
+    }
 
-        while (currentFeatures.size() > featuresToKeep) {
-            int bestRemovalCandidate = -1;
-            double bestMetric = Double.NEGATIVE_INFINITY;
+    public SubsetSearch search(double[][] x, double[] y) {
+        EvaluationBudget budget = new EvaluationBudget(maxEvaluations, maxMillis);
+        List<Integer> selected = evaluation == SubsetEvaluation.FAST
+                ? selectFast(x, y, LinearSurrogate.regression(x, y), false, budget)
+                : selectInternal(x, y, false, budget);
+        return new SubsetSearch(selected, budget.report());
+    }
 
-            for (int feature : currentFeatures) {
-                Set<Integer> temp = new HashSet<>(currentFeatures);
-                temp.remove(feature);
+    private List<Integer> selectFast(double[][] x, Object y, LinearSurrogate surrogate, boolean isClassification,
+            EvaluationBudget budget) {
+        int totalFeatures = surrogate.features();
+        int featuresToKeep = Math.min(MIN_FEATURES, totalFeatures);
+        int[] all = IntStream.range(0, totalFeatures).toArray();
 
-                int[] indices = temp.stream().mapToInt(Integer::intValue).toArray();
-                double metric = evaluate(x, y, indices, isClassification);
+        LinearSurrogate.Backward backward = surrogate.backward(all);
+        List<int[]> path = new ArrayList<>();
+        if (totalFeatures <= featuresToKeep + CONFIRM_WINDOW)
+            path.add(all);
 
-                
-                
-                
+        while (backward.size() > featuresToKeep) {
+            int bestPosition = -1;
+            double bestMetric = Double.NEGATIVE_INFINITY;
+            for (int pos = 0; pos < backward.size(); pos++) {
+                double metric = backward.scoreWithout(pos);
                 if (metric > bestMetric) {
                     bestMetric = metric;
-                    bestRemovalCandidate = feature;
+                    bestPosition = pos;
                 }
             }
-
-            if (bestRemovalCandidate != -1) {
-                currentFeatures.remove(bestRemovalCandidate);
-            } else {
+            if (bestPosition == -1)
                 break;
-            }
+            backward.remove(bestPosition);
+            if (backward.size() <= featuresToKeep + CONFIRM_WINDOW)
+                path.add(members(backward));
         }
 
-        return new ArrayList<>(currentFeatures);
+        int[] result = members(backward);
+        if (confirmWithForest && path.size() > 1) {
+            SubsetCrossValidator validator = SubsetCrossValidator.of(x, y, isClassification, K_FOLD, TREES);
+            double[] metrics = executor.map(path.size(),
+                    i -> budget.tryAcquire() ? validator.score(path.get(i)) : Double.NaN);
+            // Smallest subset wins ties, so scan from the end of the path.
+            double best = Double.NEGATIVE_INFINITY;
+            for (int i = path.size() - 1; i >= 0; i--) {
+                if (metrics[i] > best) {
+                    best = metrics[i];
+                    result = path.get(i);
+                }
+            }
+        }
+        return toList(result);
     }
 
-    private double evaluate(double[][] x, Object y, int[] featureIndices, boolean isClassification) {
-        
-        
-        int samples = x.length;
-        int dims = featureIndices.length;
-        double[][] subset = new double[samples][dims];
+    private static int[] members(LinearSurrogate.Backward backward) {
+        int[] members = new int[backward.size()];
+        for (int i = 0; i < members.length; i++)
+            members[i] = backward.member(i);
+        return members;
+    }
 
-        for (int i = 0; i < samples; i++) {
-            for (int j = 0; j < dims; j++) {
-                subset[i][j] = x[i][featureIndices[j]];
-            }
+    private List<Integer> selectInternal(double[][] x, Object y, boolean isClassification,
+            EvaluationBudget budget) {
+        int totalFeatures = x[0].length;
+        int featuresToKeep = Math.min(MIN_FEATURES, totalFeatures);
+        SubsetCrossValidator validator = SubsetCrossValidator.of(x, y, isClassification, K_FOLD, TREES);
+
+        // Subsets are ascending index arrays. The floating variant keeps the best
+        // subset seen for every size.
+        int[] current = IntStream.range(0, totalFeatures).toArray();
+        double[] bestScore = new double[totalFeatures + 1];
+        int[][] bestSubset = new int[totalFeatures + 1][];
+        Arrays.fill(bestScore, Double.NEGATIVE_INFINITY);
+        if (floating && current.length > featuresToKeep) {
+            if (!budget.tryAcquire())
+                return toList(current);
+            record(current, validator.score(current), bestScore, bestSubset);
         }
 
-        int n = subset.length;
-        int foldSize = n / K_FOLD;
-        double totalMetric = 0.0;
-
-        int[] yInt = isClassification ? (int[]) y : null;
-        double[] yDouble = !isClassification ? (double[]) y : null;
-
-        for (int fold = 0; fold < K_FOLD; fold++) {
-            int testStart = fold * foldSize;
-            int testEnd = (fold == K_FOLD - 1) ? n : (fold + 1) * foldSize;
-
-            List<double[]> trainXList = new ArrayList<>();
-            List<double[]> testXList = new ArrayList<>();
-            List<Object> trainYList = new ArrayList<>();
-            List<Object> testYList = new ArrayList<>();
-
-            for (int i = 0; i < n; i++) {
-                double[] row = subset[i];
-                Object val;
-                if (isClassification) {
-                    val = yInt[i];
-                } else {
-                    val = yDouble[i];
-                }
-                if (i >= testStart && i < testEnd) {
-                    testXList.add(row);
-                    testYList.add(val);
-                } else {
-                    trainXList.add(row);
-                    trainYList.add(val);
+        double bestOverall = bestScore[totalFeatures];
+        int stale = 0;
+        while (current.length > featuresToKeep) {
+            int[] base = current;
+            double[] metrics = executor.map(base.length,
+                    pos -> budget.tryAcquire() ? validator.score(without(base, pos)) : Double.NaN);
+            // An incomplete step is discarded; the last complete one stands.
+            if (budget.isExhausted())
+                break;
+            int bestPosition = argmax(metrics);
+            if (bestPosition == -1)
+                break;
+            current = without(base, bestPosition);
+            record(current, metrics[bestPosition], bestScore, bestSubset);
+
+            if (floating) {
+                current = includeWhileImproving(current, totalFeatures, validator, budget, bestScore, bestSubset);
+                double best = best(bestScore, featuresToKeep);
+                if (best - bestOverall >= MIN_GAIN) {
+                    bestOverall = best;
+                    stale = 0;
+                } else if (++stale >= PATIENCE) {
+                    break;
                 }
+                if (budget.isExhausted())
+                    break;
             }
+        }
 
-            double[][] trainX = trainXList.toArray(new double[0][]);
-            double[][] testX = testXList.toArray(new double[0][]);
+        if (floating) {
+            // Highest score wins; ties go to the smaller subset.
+            int size = -1;
+            for (int k = featuresToKeep; k <= totalFeatures; k++) {
+                if (bestSubset[k] != null && (size == -1 || bestScore[k] > bestScore[size]))
+                    size = k;
+            }
+            if (size != -1)
+                current = bestSubset[size];
+        }
+        return toList(current);
+    }
 
-            if (isClassification) {
-                int[] trainY = trainYList.stream().mapToInt(o -> (int) o).toArray();
-                int[] testY = testYList.stream().mapToInt(o -> (int) o).toArray();
+    /**
+     * Conditional inclusion step of SBFS: re-adds the best excluded feature as
+     * long as the result beats the best subset of that size seen so far.
+     */
+    private int[] includeWhileImproving(int[] subset, int totalFeatures, SubsetCrossValidator validator,
+            EvaluationBudget budget, double[] bestScore, int[][] bestSubset) {
+        int[] current = subset;
+        while (current.length < totalFeatures) {
+            int[] base = current;
+            int[] excluded = complement(base, totalFeatures);
+            double[] metrics = executor.map(excluded.length,
+                    e -> budget.tryAcquire() ? validator.score(with(base, excluded[e])) : Double.NaN);
+            if (budget.isExhausted())
+                break;
+            int best = argmax(metrics);
+            if (best == -1 || !(metrics[best] > bestScore[base.length + 1]))
+                break;
+            current = with(base, excluded[best]);
+            record(current, metrics[best], bestScore, bestSubset);
+        }
+        return current;
+    }
 
-                DataFrame trainDf = com.example.featureselection.util.SmileHelper.toDataFrame(trainX, trainY);
-                java.util.Properties props = new java.util.Properties();
-                props.setProperty("smile.random.forest.trees", "20");
-                RandomForest model = RandomForest.fit(Formula.lhs("Class"), trainDf, props);
+    private static void record(int[] subset, double score, double[] bestScore, int[][] bestSubset) {
+        if (score > bestScore[subset.length]) {
+            bestScore[subset.length] = score;
+            bestSubset[subset.length] = subset;
+        }
+    }
 
-                DataFrame testDf = com.example.featureselection.util.SmileHelper.toDataFrame(testX);
-                Tuple[] testTuples = testDf.stream().toArray(Tuple[]::new);
+    private static double best(double[] bestScore, int from) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (int k = from; k < bestScore.length; k++)
+            best = Math.max(best, bestScore[k]);
+        return best;
+    }
 
-                int correct = 0;
-                for (int i = 0; i < testTuples.length; i++) {
-                    if (model.predict(testTuples[i]) == testY[i])
-                        correct++;
-                }
-                totalMetric += (double) correct / testTuples.length;
-
-            } else {
-                double[] trainY = trainYList.stream().mapToDouble(o -> (double) o).toArray();
-                double[] testY = testYList.stream().mapToDouble(o -> (double) o).toArray();
-
-                DataFrame trainDf = createDataFrame(trainX, trainY, "Target");
-                java.util.Properties props = new java.util.Properties();
-                props.setProperty("smile.random.forest.trees", "20");
-                smile.regression.RandomForest model = smile.regression.RandomForest.fit(Formula.lhs("Target"), trainDf,
-                        props);
-
-                DataFrame testDf = createDataFrame(testX, null, "Target");
-                Tuple[] testTuples = testDf.stream().toArray(Tuple[]::new);
-
-                double sse = 0.0;
-                double sumY = 0.0;
-                for (double v : testY)
-                    sumY += v;
-                double meanY = sumY / testY.length;
-                double sst = 0.0;
-
-                for (int i = 0; i < testTuples.length; i++) {
-                    double pred = model.predict(testTuples[i]);
-                    sse += Math.pow(testY[i] - pred, 2);
-                    sst += Math.pow(testY[i] - meanY, 2);
-                }
-                double r2 = (sst < 1e-9) ? 0.0 : (1.0 - sse / sst);
-                totalMetric += r2;
+    /**
+     * Index of the largest metric, the lowest index on ties; NaN (skipped)
+     * entries never win. -1 when nothing was scored.
+     */
+    private static int argmax(double[] metrics) {
+        int best = -1;
+        double bestMetric = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < metrics.length; i++) {
+            if (metrics[i] > bestMetric) {
+                bestMetric = metrics[i];
+                best = i;
             }
         }
-        return totalMetric / K_FOLD;
-    }
-
-    private DataFrame createDataFrame(double[][] x, double[] y, String targetName) {
-        int cols = x[0].length;
-        StructField[] fields = new StructField[cols + (y != null ? 1 : 0)];
-        for (int i = 0; i < cols; i++)
-            fields[i] = new StructField("V" + i, DataTypes.DoubleType);
-        if (y != null)
-            fields[cols] = new StructField(targetName, DataTypes.DoubleType);
-
-        StructType schema = new StructType(fields);
-        List<Tuple> rows = new ArrayList<>();
-        for (int i = 0; i < x.length; i++) {
-            Object[] row = new Object[fields.length];
-            for (int k = 0; k < cols; k++) {
-                row[k] = x[i][k];
-            }
-            if (y != null)
-                row[cols] = y[i];
-            rows.add(Tuple.of(row, schema));
+        return best;
+    }
+
+    static int[] without(int[] subset, int position) {
+        int[] rest = new int[subset.length - 1];
+        System.arraycopy(subset, 0, rest, 0, position);
+        System.arraycopy(subset, position + 1, rest, position, rest.length - position);
+        return rest;
+    }
+
+    static int[] with(int[] subset, int feature) {
+        int at = -Arrays.binarySearch(subset, feature) - 1;
+        int[] grown = new int[subset.length + 1];
+        System.arraycopy(subset, 0, grown, 0, at);
+        grown[at] = feature;
+        System.arraycopy(subset, at, grown, at + 1, subset.length - at);
+        return grown;
+    }
+
+    private static int[] complement(int[] subset, int totalFeatures) {
+        int[] rest = new int[totalFeatures - subset.length];
+        for (int f = 0, s = 0, r = 0; f < totalFeatures; f++) {
+            if (s < subset.length && subset[s] == f)
+                s++;
+            else
+                rest[r++] = f;
         }
-        return DataFrame.of(rows, schema);
+        return rest;
+    }
+
+    private static List<Integer> toList(int[] subset) {
+        List<Integer> selected = new ArrayList<>(subset.length);
+        for (int feature : subset)
+            selected.add(feature);
+        return selected;
     }
 }
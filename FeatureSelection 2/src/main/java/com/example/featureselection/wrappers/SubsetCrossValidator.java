@@ -0,0 +1,104 @@
+package com.example.featureselection.wrappers;
+
+import com.example.featureselection.util.SmileHelper;
+import smile.classification.RandomForest;
+import smile.data.DataFrame;
+import smile.data.formula.Formula;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Cross-validated Random Forest score of a feature subset. The data frame and
+ * the folds are built once per search; each evaluation only takes a column
+ * view of the subset and row views of the folds, and reads the labels from
+ * the primitive target array. Safe to call concurrently.
+ */
+final class SubsetCrossValidator {
+
+    private static final long FOLD_SEED = 42;
+
+    private final DataFrame data;
+    private final int targetColumn;
+    private final Formula formula;
+    private final Folds folds;
+    private final int[] yInt;
+    private final double[] yDouble;
+    private final Properties props = new Properties();
+
+    private SubsetCrossValidator(DataFrame data, Formula formula, Folds folds, int[] yInt, double[] yDouble,
+            int trees) {
+        this.data = data;
+        this.targetColumn = data.ncols() - 1;
+        this.formula = formula;
+        this.folds = folds;
+        this.yInt = yInt;
+        this.yDouble = yDouble;
+        this.props.setProperty("smile.random.forest.trees", String.valueOf(trees));
+    }
+
+    static SubsetCrossValidator classification(double[][] x, int[] y, int k, int trees) {
+        return new SubsetCrossValidator(SmileHelper.toDataFrame(x, y), Formula.lhs("Class"),
+                Folds.stratified(y, k, FOLD_SEED), y, null, trees);
+    }
+
+    static SubsetCrossValidator regression(double[][] x, double[] y, int k, int trees) {
+        return new SubsetCrossValidator(SmileHelper.toDataFrame(x, y), Formula.lhs("Target"),
+                Folds.shuffled(y.length, k, FOLD_SEED), null, y, trees);
+    }
+
+    static SubsetCrossValidator of(double[][] x, Object y, boolean isClassification, int k, int trees) {
+        return isClassification ? classification(x, (int[]) y, k, trees) : regression(x, (double[]) y, k, trees);
+    }
+
+    /**
+     * Mean accuracy (classification) or R² (regression) over the folds.
+     */
+    double score(int[] featureIndices) {
+        int[] columns = Arrays.copyOf(featureIndices, featureIndices.length + 1);
+        columns[featureIndices.length] = targetColumn;
+        DataFrame subset = data.select(columns);
+
+        double totalMetric = 0.0;
+        int scoredFolds = 0;
+        for (int fold = 0; fold < folds.count(); fold++) {
+            int[] testRows = folds.test(fold);
+            if (testRows.length == 0)
+                continue;
+            DataFrame train = subset.of(folds.train(fold));
+            DataFrame test = subset.of(testRows);
+            totalMetric += yInt != null ? accuracy(train, test, testRows) : rSquared(train, test, testRows);
+            scoredFolds++;
+        }
+        return scoredFolds == 0 ? 0.0 : totalMetric / scoredFolds;
+    }
+
+    private double accuracy(DataFrame train, DataFrame test, int[] testRows) {
+        RandomForest model = RandomForest.fit(formula, train, props);
+        int[] predictions = model.predict(test);
+        int correct = 0;
+        for (int i = 0; i < testRows.length; i++) {
+            if (predictions[i] == yInt[testRows[i]])
+                correct++;
+        }
+        return (double) correct / testRows.length;
+    }
+
+    private double rSquared(DataFrame train, DataFrame test, int[] testRows) {
+        smile.regression.RandomForest model = smile.regression.RandomForest.fit(formula, train, props);
+        double[] predictions = model.predict(test);
+        double meanY = 0.0;
+        for (int row : testRows)
+            meanY += yDouble[row];
+        meanY /= testRows.length;
+
+        double sse = 0.0;
+        double sst = 0.0;
+        for (int i = 0; i < testRows.length; i++) {
+            double actual = yDouble[testRows[i]];
+            sse += (actual - predictions[i]) * (actual - predictions[i]);
+            sst += (actual - meanY) * (actual - meanY);
+        }
+        return (sst < 1e-9) ? 0.0 : (1.0 - sse / sst);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.featureselection.wrappers;
+
+/**
+ * How the wrappers score a candidate feature subset.
+ */
+public enum SubsetEvaluation {
+    /** Cross-validated Random Forest accuracy (classification) or R² (regression). */
+    FOREST,
+    /** Linear least-squares surrogate (ridge for regression, LDA-style indicator fit for classification). */
+    FAST
+}
@@ -0,0 +1,39 @@
+package com.example.featureselection.wrappers;
+
+import com.example.featureselection.model.WrapperBudget;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Features chosen by a wrapper and, for budgeted searches, the budget spent.
+ */
+public final class SubsetSearch {
+
+    private final List<Integer> selected;
+    private final WrapperBudget budget;
+
+    public SubsetSearch(List<Integer> selected, WrapperBudget budget) {
+        this.selected = selected;
+        this.budget = budget;
+    }
+
+    public static SubsetSearch of(List<Integer> selected) {
+        return new SubsetSearch(selected, null);
+    }
+
+    public static SubsetSearch empty() {
+        return of(new ArrayList<>());
+    }
+
+    public List<Integer> getSelected() {
+        return selected;
+    }
+
+    /**
+     * Null for wrappers that do not run under a budget.
+     */
+    public WrapperBudget getBudget() {
+        return budget;
+    }
+}
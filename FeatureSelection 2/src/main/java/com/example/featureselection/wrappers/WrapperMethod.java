@@ -0,0 +1,13 @@
+package com.example.featureselection.wrappers;
+
+/**
+ * Wrapper run by the analysis after the filters.
+ */
+public enum WrapperMethod {
+    /** Sequential forward selection. */
+    SFS,
+    /** Sequential backward selection under an evaluation budget, optionally floating. */
+    SBS,
+    /** Recursive feature elimination, warm-started from the Random Forest importance stage. */
+    RFE
+}
@@ -0,0 +1,102 @@
+package com.example.featureselection.benchmark;
+
+import com.example.featureselection.stats.ContingencyTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mutual information of one binned feature against a binned target on 1M
+ * rows: the former {@code HashMap<String,Integer>} counting versus
+ * {@link ContingencyTable}.
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.example.featureselection.benchmark.ContingencyTableBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContingencyTableBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    private int[] x;
+    private int[] y;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        x = new int[ROWS];
+        y = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            y[i] = random.nextInt(10);
+            x[i] = Math.min(9, Math.max(0, y[i] + (int) Math.round(random.nextGaussian() * 2)));
+        }
+    }
+
+    @Benchmark
+    public double hashMapMutualInformation() {
+        return legacyEntropy(x) + legacyEntropy(y) - legacyJointEntropy(x, y);
+    }
+
+    @Benchmark
+    public double contingencyTableMutualInformation() {
+        return ContingencyTable.mutualInformation(x, y);
+    }
+
+    private static double legacyEntropy(int[] data) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int val : data) {
+            counts.put(val, counts.getOrDefault(val, 0) + 1);
+        }
+        double entropy = 0.0;
+        int n = data.length;
+        for (int count : counts.values()) {
+            double p = (double) count / n;
+            entropy -= p * Math.log(p);
+        }
+        return entropy;
+    }
+
+    private static double legacyJointEntropy(int[] x, int[] y) {
+        Map<String, Integer> counts = new HashMap<>();
+        int n = x.length;
+        for (int i = 0; i < n; i++) {
+            String key = x[i] + "," + y[i];
+            counts.put(key, counts.getOrDefault(key, 0) + 1);
+        }
+        double entropy = 0.0;
+        for (int count : counts.values()) {
+            double p = (double) count / n;
+            entropy -= p * Math.log(p);
+        }
+        return entropy;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContingencyTableBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
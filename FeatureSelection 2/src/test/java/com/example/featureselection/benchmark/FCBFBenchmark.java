@@ -0,0 +1,99 @@
+package com.example.featureselection.benchmark;
+
+import com.example.featureselection.data.FeatureMatrix;
+import com.example.featureselection.filters.FCBFFilter;
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.example.featureselection.util.ScoringExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full FCBF on 2,000 weakly relevant features (most survive the relevance
+ * threshold, so the redundancy phase dominates), with the scoring pool
+ * sized to one thread versus every core. A fresh matrix per invocation keeps
+ * the binning cache cold, as it is for a real analysis.
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.example.featureselection.benchmark.FCBFBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class FCBFBenchmark {
+
+    private static final int ROWS = 2_000;
+    private static final int FEATURES = 2_000;
+
+    @Param({ "1", "0" })
+    private int parallelism;
+
+    private double[][] columns;
+    private String[] names;
+    private int[] y;
+    private FCBFFilter filter;
+    private ScoringExecutor executor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        y = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            y[i] = random.nextInt(4);
+        }
+        columns = new double[FEATURES][ROWS];
+        names = new String[FEATURES];
+        for (int j = 0; j < FEATURES; j++) {
+            names[j] = "f" + j;
+            double weight = 0.05 + random.nextDouble() * 0.3;
+            for (int i = 0; i < ROWS; i++) {
+                columns[j][i] = weight * y[i] + random.nextGaussian();
+            }
+        }
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        executor = new ScoringExecutor(threads);
+        filter = new FCBFFilter(executor, DiscretizationSettings.defaults());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public List<String> fcbf() {
+        FeatureMatrix.Builder builder = FeatureMatrix.builder(ROWS);
+        for (int j = 0; j < FEATURES; j++) {
+            builder.addColumn(names[j], columns[j]);
+        }
+        return filter.calculate(builder.build(), y);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FCBFBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.featureselection.benchmark;
+
+import com.example.featureselection.data.Tokenizer;
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizing the messages of the spam dataset ({@code reproduce.csv}, column
+ * v2, repeated to 100k messages): the former {@code cleanText} regexes plus
+ * {@code toLowerCase().split("\\W+")} versus {@link Tokenizer}. Run from the
+ * module directory so the CSV resolves.
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.example.featureselection.benchmark.TokenizerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizerBenchmark {
+
+    private static final int MESSAGES = 100_000;
+
+    private String[] messages;
+    private final Tokenizer tokenizer = new Tokenizer();
+
+    @Setup
+    public void setUp() throws IOException {
+        CsvParser parser = new CsvParser(new CsvParserSettings());
+        List<String[]> rows = parser.parseAll(Files.newBufferedReader(Paths.get("reproduce.csv")));
+        rows = rows.subList(1, rows.size());
+        messages = new String[MESSAGES];
+        for (int i = 0; i < MESSAGES; i++) {
+            messages[i] = rows.get(i % rows.size())[1];
+        }
+    }
+
+    @Benchmark
+    public long regexTokenize() {
+        long total = 0;
+        for (String message : messages) {
+            String cleaned = message.replaceAll("[,;\"'`]", " ")
+                    .replaceAll("\\s+", " ")
+                    .trim();
+            for (String token : cleaned.toLowerCase().split("\\W+")) {
+                total += token.length();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long scanningTokenize() {
+        long total = 0;
+        for (String message : messages) {
+            int count = tokenizer.tokenize(message);
+            for (int t = 0; t < count; t++) {
+                total += tokenizer.length(t);
+            }
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenizerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
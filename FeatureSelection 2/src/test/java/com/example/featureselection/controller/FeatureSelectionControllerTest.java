@@ -1,5 +1,6 @@
 package com.example.featureselection.controller;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,8 @@ import org.springframework.test.web.servlet.MvcResult;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -72,6 +75,23 @@ class FeatureSelectionControllerTest {
                                 .andExpect(jsonPath("$.featureScores.length()").value(3));
         }
 
+        @Test
+        void testRepeatedAnalysisIsServedFromCache() throws Exception {
+                mockMvc.perform(multipart("/api/feature-selection/analyze")
+                                .file(smallCsvFile)
+                                .param("targetFeature", "target")
+                                .param("idUser", "testUser"))
+                                .andExpect(status().isOk());
+
+                mockMvc.perform(multipart("/api/feature-selection/analyze")
+                                .file(smallCsvFile)
+                                .param("targetFeature", "target")
+                                .param("idUser", "testUser"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.cacheHit").value(true))
+                                .andExpect(jsonPath("$.featureScores.length()").value(3));
+        }
+
         @Test
         void testAnalyzeEndpointWithInvalidTarget() throws Exception {
                 mockMvc.perform(multipart("/api/feature-selection/analyze")
@@ -202,4 +222,39 @@ class FeatureSelectionControllerTest {
                                 .param("idUser", "testUser"))
                                 .andExpect(status().is4xxClientError());
         }
+
+        @Test
+        void testAsyncJobLifecycle() throws Exception {
+                MvcResult submitted = mockMvc.perform(multipart("/api/feature-selection/jobs")
+                                .file(smallCsvFile)
+                                .param("targetFeature", "target")
+                                .param("idUser", "testUser"))
+                                .andExpect(status().isAccepted())
+                                .andExpect(header().exists("Location"))
+                                .andExpect(jsonPath("$.jobId").isString())
+                                .andReturn();
+                String jobId = JsonPath.read(submitted.getResponse().getContentAsString(), "$.jobId");
+
+                String status = "QUEUED";
+                for (int i = 0; i < 300 && !status.equals("SUCCEEDED") && !status.equals("FAILED"); i++) {
+                        Thread.sleep(100);
+                        MvcResult polled = mockMvc.perform(get("/api/feature-selection/jobs/" + jobId))
+                                        .andExpect(status().isOk())
+                                        .andReturn();
+                        status = JsonPath.read(polled.getResponse().getContentAsString(), "$.status");
+                }
+                assertEquals("SUCCEEDED", status);
+
+                mockMvc.perform(get("/api/feature-selection/jobs/" + jobId + "/result"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.featureScores.length()").value(3));
+                mockMvc.perform(delete("/api/feature-selection/jobs/" + jobId))
+                                .andExpect(status().isConflict());
+        }
+
+        @Test
+        void testUnknownJobIsNotFound() throws Exception {
+                mockMvc.perform(get("/api/feature-selection/jobs/missing"))
+                                .andExpect(status().isNotFound());
+        }
 }
@@ -0,0 +1,52 @@
+package com.example.featureselection.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BagOfWordsTest {
+
+    @Test
+    void testVocabularyAndCountsFromOnePass() {
+        List<String> texts = Arrays.asList(
+                "Win cash, win prizes",
+                null,
+                "cash now; CASH later",
+                "prizes");
+
+        BagOfWords bag = BagOfWords.fit(texts, 2, token -> token.length() > 2);
+
+        assertEquals(List.of("cash", "win"), bag.vocabulary());
+        SparseColumn[] columns = bag.columns();
+        assertArrayEquals(new double[] { 1, 0, 2, 0 }, columns[0].toDense());
+        assertArrayEquals(new double[] { 2, 0, 0, 0 }, columns[1].toDense());
+        assertArrayEquals(new int[] { 0, 2 }, columns[0].rows());
+        assertEquals(3, bag.nonZeros());
+    }
+
+    @Test
+    void testTiesGoToFirstSeenToken() {
+        BagOfWords bag = BagOfWords.fit(List.of("beta alpha", "gamma"), 10, token -> true);
+
+        assertEquals(List.of("beta", "alpha", "gamma"), bag.vocabulary());
+    }
+
+    @Test
+    void testMatchesRegexCounting() {
+        List<String> texts = List.of("Free entry!! Text FREE to 80082", "ok... it's ok", "");
+
+        BagOfWords bag = BagOfWords.fit(texts, 100, token -> !token.isEmpty());
+
+        SparseColumn[] columns = bag.columns();
+        for (int t = 0; t < bag.vocabulary().size(); t++) {
+            String term = bag.vocabulary().get(t);
+            for (int d = 0; d < texts.size(); d++) {
+                long expected = Arrays.stream(texts.get(d).toLowerCase().split("\\W+")).filter(term::equals).count();
+                assertEquals(expected, columns[t].get(d), term + " in document " + d);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.featureselection.data;
+
+import com.example.featureselection.util.ScoringExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnMomentsTest {
+
+    private static double centered(double[] a, double[] b) {
+        double ma = 0.0;
+        double mb = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            ma += a[i];
+            mb += b[i];
+        }
+        ma /= a.length;
+        mb /= b.length;
+        double s = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            s += (a[i] - ma) * (b[i] - mb);
+        }
+        return s;
+    }
+
+    @Test
+    void testMomentsMatchTwoPassSums() {
+        double[] a = { 1, 2, 3, 4, 5, 6 };
+        double[] b = { 2, 1, 4, 3, 6, 5 };
+        int[] labels = { 0, 0, 0, 1, 1, 1 };
+        double[] y = { 0, 0, 0, 1, 1, 1 };
+        FeatureMatrix matrix = FeatureMatrix.builder(6).addColumn("a", a).addColumn("b", b).build();
+
+        ColumnMoments moments = matrix.moments(labels, ScoringExecutor.sequential());
+
+        assertEquals(2, moments.classes());
+        assertEquals(centered(a, a), moments.centeredSumOfSquares(0), 1e-12);
+        assertEquals(centered(b, y), moments.centeredCrossProduct(1), 1e-12);
+        assertEquals(centered(y, y), moments.targetCenteredSumOfSquares(), 1e-12);
+        assertEquals(13.5, moments.betweenClassSumOfSquares(0), 1e-12);
+        assertSame(moments, matrix.moments(labels, ScoringExecutor.sequential()));
+    }
+
+    @Test
+    void testRowBlocksMergeIndependentlyOfPoolSize() {
+        int rows = ColumnMoments.BLOCK_ROWS * 2 + 17;
+        Random random = new Random(3);
+        double[] a = new double[rows];
+        int[] labels = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            labels[i] = random.nextInt(5);
+            a[i] = 1e6 + labels[i] + random.nextGaussian();
+        }
+        FeatureMatrix matrix = FeatureMatrix.builder(rows).addColumn("a", a).build();
+        FeatureMatrix copy = FeatureMatrix.builder(rows).addColumn("a", a).build();
+
+        ColumnMoments sequential = matrix.moments(labels, ScoringExecutor.sequential());
+        ScoringExecutor executor = new ScoringExecutor(4);
+        try {
+            ColumnMoments parallel = copy.moments(labels, executor);
+            assertEquals(sequential.centeredSumOfSquares(0), parallel.centeredSumOfSquares(0));
+            assertEquals(sequential.betweenClassSumOfSquares(0), parallel.betweenClassSumOfSquares(0));
+        } finally {
+            executor.shutdown();
+        }
+
+        double[] y = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            y[i] = labels[i];
+        }
+        assertEquals(centered(a, a), sequential.centeredSumOfSquares(0), 1e-6 * centered(a, a));
+        assertEquals(centered(a, y), sequential.centeredCrossProduct(0), 1e-6 * Math.abs(centered(a, y)));
+    }
+
+    @Test
+    void testSparseColumnMatchesDense() {
+        int rows = ColumnMoments.BLOCK_ROWS + 100;
+        Random random = new Random(5);
+        double[] counts = new double[rows];
+        int[] labels = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            labels[i] = random.nextInt(3);
+            counts[i] = random.nextInt(20) == 0 ? 1 + labels[i] + random.nextInt(3) : 0;
+        }
+        FeatureMatrix dense = FeatureMatrix.builder(rows).addColumn("a", counts).build();
+        FeatureMatrix sparse = FeatureMatrix.builder(rows).addColumn("a", SparseColumn.fromDense(counts)).build();
+
+        ColumnMoments expected = dense.moments(labels, ScoringExecutor.sequential());
+        ColumnMoments actual = sparse.moments(labels, ScoringExecutor.sequential());
+
+        assertEquals(expected.centeredSumOfSquares(0), actual.centeredSumOfSquares(0), 1e-9);
+        assertEquals(expected.centeredCrossProduct(0), actual.centeredCrossProduct(0), 1e-9);
+        assertEquals(expected.betweenClassSumOfSquares(0), actual.betweenClassSumOfSquares(0), 1e-9);
+    }
+}
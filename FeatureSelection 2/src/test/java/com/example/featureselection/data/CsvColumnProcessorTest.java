@@ -0,0 +1,194 @@
+package com.example.featureselection.data;
+
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvColumnProcessorTest {
+
+    private IngestedDataset parse(String csv, String target) {
+        return parse(csv, target, false);
+    }
+
+    private IngestedDataset parse(String csv, String target, boolean cleanText) {
+        CsvParserSettings settings = new CsvParserSettings();
+        CsvColumnProcessor processor = new CsvColumnProcessor(target, h -> h.equalsIgnoreCase("id"), cleanText);
+        settings.setProcessor(processor);
+        new CsvParser(settings).parse(new StringReader(csv));
+        return processor.getDataset();
+    }
+
+    @Test
+    void testInfersNumericTextAndIgnoredColumns() {
+        IngestedDataset dataset = parse("""
+                id,age,comment,label
+                1,30,hello world,yes
+                2,,nice day,no
+                3,41,great,yes
+                """, "label");
+
+        assertEquals(3, dataset.getRowCount());
+        assertEquals(List.of(1), List.copyOf(dataset.getNumericColumns().keySet()));
+        assertEquals(List.of(2), List.copyOf(dataset.getTextColumns().keySet()));
+        assertEquals(List.of(0), dataset.getIgnoredColumns());
+
+        assertArrayEquals(new double[] { 30, 0, 41 }, dataset.getNumericColumns().get(1));
+        long[] validity = dataset.getValidity(1);
+        assertNotNull(validity, "Missing age should be recorded in the validity bitmap");
+        assertEquals(0b101L, validity[0]);
+        assertEquals(List.of("hello world", "nice day", "great"), dataset.getTextColumns().get(2));
+    }
+
+    @Test
+    void testColumnBecomesTextWithinTypeCheckWindow() {
+        StringBuilder csv = new StringBuilder("f,target\n");
+        for (int i = 0; i < 5; i++) {
+            csv.append(i).append(",0\n");
+        }
+        csv.append("abc,1\n");
+
+        IngestedDataset dataset = parse(csv.toString(), "target");
+
+        assertTrue(dataset.getNumericColumns().isEmpty());
+        List<String> text = dataset.getTextColumns().get(0);
+        assertEquals(List.of("0", "1", "2", "3", "4", "abc"), text);
+    }
+
+    @Test
+    void testColumnStaysNumericAfterTypeCheckWindow() {
+        StringBuilder csv = new StringBuilder("f,target\n");
+        for (int i = 0; i < CsvColumnProcessor.TYPE_CHECKS; i++) {
+            csv.append(i).append(",0\n");
+        }
+        csv.append("abc,1\n");
+
+        IngestedDataset dataset = parse(csv.toString(), "target");
+
+        double[] column = dataset.getNumericColumns().get(0);
+        assertEquals(CsvColumnProcessor.TYPE_CHECKS + 1, column.length);
+        assertEquals(0.0, column[CsvColumnProcessor.TYPE_CHECKS]);
+        assertTrue(dataset.getTextColumns().isEmpty());
+    }
+
+    @Test
+    void testTargetEncodingAndModeDetection() {
+        IngestedDataset classes = parse("x,y\n1,b\n2,a\n3,b\n", "Y");
+        assertTrue(classes.isClassificationTarget());
+        assertArrayEquals(new int[] { 0, 1, 0 }, classes.getClassTarget());
+
+        StringBuilder csv = new StringBuilder("x,y\n");
+        for (int i = 0; i < 12; i++) {
+            csv.append(i).append(',').append(i * 1.5).append('\n');
+        }
+        IngestedDataset regression = parse(csv.toString(), "y");
+        assertFalse(regression.isClassificationTarget());
+        assertEquals(16.5, regression.getRegressionTarget()[11], 1e-12);
+    }
+
+    @Test
+    void testContinuousTargetStopsDictionaryEncoding() {
+        StringBuilder csv = new StringBuilder("x,y\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append(i).append(',').append(i == 50 ? "" : String.valueOf(i * 0.25)).append('\n');
+        }
+        IngestedDataset dataset = parse(csv.toString(), "y");
+
+        assertFalse(dataset.isClassificationTarget());
+        assertNull(dataset.getClassTarget(), "a continuous target keeps no label dictionary");
+        double[] y = dataset.getRegressionTarget();
+        assertEquals(100, y.length);
+        assertEquals(24.75, y[99], 1e-12);
+        assertEquals(0.0, y[50]);
+    }
+
+    @Test
+    void testLateTextLabelRestoresEncoding() {
+        StringBuilder csv = new StringBuilder("x,y\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append(i).append(',').append(i % 15).append('\n');
+        }
+        csv.append("20,unknown\n");
+        for (int i = 21; i < 30; i++) {
+            csv.append(i).append(',').append(i % 15).append('\n');
+        }
+        csv.append("30,7.0\n");
+        IngestedDataset dataset = parse(csv.toString(), "y");
+
+        assertTrue(dataset.isClassificationTarget());
+        int[] codes = dataset.getClassTarget();
+        assertEquals(31, codes.length);
+        assertEquals(codes[0], codes[15]);
+        assertEquals(14, codes[14]);
+        assertEquals(15, codes[20]);
+        // Labels before and after the text label share their codes.
+        for (int i = 21; i < 30; i++) {
+            assertEquals(codes[i % 15], codes[i], "row " + i);
+        }
+        assertEquals(codes[7], codes[30]);
+        assertEquals(16, Arrays.stream(codes).distinct().count());
+    }
+
+    @Test
+    void testCleansTextColumnsAndLabels() {
+        StringBuilder csv = new StringBuilder("f,comment,label\n");
+        csv.append("1,\"Hello,  World!\",Spam\n");
+        csv.append("2,plain,\"'Ham'\"\n");
+        csv.append("x,\"It's  ok\",2\n");
+
+        IngestedDataset dataset = parse(csv.toString(), "label", true);
+
+        assertEquals(List.of("1", "2", "x"), dataset.getTextColumns().get(0));
+        assertEquals(List.of("hello world!", "plain", "it s ok"), dataset.getTextColumns().get(1));
+        assertArrayEquals(new int[] { 0, 1, 2 }, dataset.getClassTarget());
+    }
+
+    @Test
+    void testSamplesRowsWhileParsing() {
+        StringBuilder csv = new StringBuilder("x,label\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i).append(',').append(i % 10 == 0 ? "rare" : "common").append('\n');
+        }
+        CsvParserSettings settings = new CsvParserSettings();
+        CsvColumnProcessor processor = new CsvColumnProcessor("label", h -> false, false, 100);
+        settings.setProcessor(processor);
+        new CsvParser(settings).parse(new StringReader(csv.toString()));
+        IngestedDataset dataset = processor.getDataset();
+
+        assertEquals(1000, dataset.getRowCount());
+        assertTrue(dataset.isSampleStratified());
+        int[] sample = dataset.getSample();
+        assertEquals(100, sample.length);
+        int rare = 0;
+        for (int row : sample) {
+            if (row % 10 == 0)
+                rare++;
+        }
+        assertEquals(10, rare);
+    }
+
+    @Test
+    void testNoSampleByDefault() {
+        IngestedDataset dataset = parse("x,label\n1,a\n2,b\n", "label");
+
+        assertNull(dataset.getSample());
+    }
+
+    @Test
+    void testMissingTargetStopsIngestion() {
+        IngestedDataset dataset = parse("a,b\n1,2\n", "target");
+
+        assertEquals(-1, dataset.getTargetIndex());
+        assertEquals(0, dataset.getRowCount());
+    }
+
+    @Test
+    void testEmptyInput() {
+        assertNull(parse("", "target"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.featureselection.data;
+
+import com.example.featureselection.stats.Binning;
+import com.example.featureselection.stats.DiscretizationSettings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeatureMatrixTest {
+
+    @Test
+    void testFromRowsIsColumnMajor() {
+        double[][] x = {
+                { 1.0, 10.0 },
+                { 2.0, 20.0 },
+                { 3.0, 30.0 }
+        };
+        FeatureMatrix matrix = FeatureMatrix.fromRows(x, new String[] { "a", "b" });
+
+        assertEquals(3, matrix.rows());
+        assertEquals(2, matrix.features());
+        assertArrayEquals(new double[] { 1.0, 2.0, 3.0 }, matrix.column(0));
+        assertArrayEquals(new double[] { 10.0, 20.0, 30.0 }, matrix.column(1));
+        assertEquals("b", matrix.name(1));
+    }
+
+    @Test
+    void testColumnIsZeroCopy() {
+        double[] col = { 1.0, 2.0 };
+        FeatureMatrix matrix = FeatureMatrix.builder(2).addColumn("a", col).build();
+
+        assertSame(col, matrix.column(0));
+    }
+
+    @Test
+    void testValidityBitmap() {
+        long[] bits = FeatureMatrix.newBitmap(70);
+        FeatureMatrix.setValid(bits, 0);
+        FeatureMatrix.setValid(bits, 65);
+        FeatureMatrix matrix = FeatureMatrix.builder(70)
+                .addColumn("sparse", new double[70], bits)
+                .addColumn("full", new double[70])
+                .build();
+
+        assertTrue(matrix.hasMissing(0));
+        assertTrue(matrix.isValid(65, 0));
+        assertFalse(matrix.isValid(64, 0));
+        assertEquals(2, matrix.validCount(0));
+        assertFalse(matrix.hasMissing(1));
+        assertEquals(70, matrix.validCount(1));
+    }
+
+    @Test
+    void testToRowsRoundTrip() {
+        double[][] x = {
+                { 1.0, 10.0 },
+                { 2.0, 20.0 }
+        };
+        double[][] rows = FeatureMatrix.fromRows(x, new String[] { "a", "b" }).toRows();
+
+        assertArrayEquals(x[0], rows[0]);
+        assertArrayEquals(x[1], rows[1]);
+    }
+
+    @Test
+    void testBuilderRejectsWrongLength() {
+        assertThrows(IllegalArgumentException.class,
+                () -> FeatureMatrix.builder(3).addColumn("a", new double[2]));
+    }
+
+    @Test
+    void testDiscretizedViewIsSharedPerSettings() {
+        FeatureMatrix matrix = FeatureMatrix.builder(4).addColumn("a", new double[] { 1, 2, 3, 4 }).build();
+        DiscretizationSettings settings = new DiscretizationSettings(2, Binning.EQUAL_WIDTH);
+
+        DiscretizedMatrix view = matrix.discretized(settings);
+        assertSame(view, matrix.discretized(new DiscretizationSettings(2, Binning.EQUAL_WIDTH)));
+        assertSame(view.column(0), view.column(0));
+        assertNotSame(view, matrix.discretized(DiscretizationSettings.defaults()));
+
+        double[] y = { 0.0, 0.0, 1.0, 1.0 };
+        assertSame(view.target(y), view.target(y));
+    }
+
+    @Test
+    void testSparseColumnIsExpandedOnDemand() {
+        SparseColumn counts = new SparseColumn(4, new int[] { 1, 3 }, new double[] { 2.0, 5.0 });
+        FeatureMatrix matrix = FeatureMatrix.builder(4)
+                .addColumn("dense", new double[] { 1, 2, 3, 4 })
+                .addColumn("counts", counts)
+                .build();
+
+        assertFalse(matrix.isSparse(0));
+        assertTrue(matrix.isSparse(1));
+        assertSame(counts, matrix.sparse(1));
+        assertFalse(matrix.hasMissing(1));
+        assertArrayEquals(new double[] { 0, 2, 0, 5 }, matrix.column(1));
+        double[][] rows = matrix.toRows();
+        assertArrayEquals(new double[] { 2, 2 }, rows[1]);
+        assertArrayEquals(new double[] { 3, 0 }, rows[2]);
+    }
+
+    @Test
+    void testSubsetKeepsDenseSparseAndValidity() {
+        long[] bits = FeatureMatrix.newBitmap(5);
+        FeatureMatrix.setValid(bits, 0);
+        FeatureMatrix.setValid(bits, 3);
+        FeatureMatrix matrix = FeatureMatrix.builder(5)
+                .addColumn("a", new double[] { 1, 2, 3, 4, 5 })
+                .addColumn("b", new double[] { 7, 0, 0, 8, 0 }, bits)
+                .addColumn("c", SparseColumn.fromDense(new double[] { 0, 6, 0, 9, 4 }))
+                .build();
+
+        FeatureMatrix subset = matrix.subset(new int[] { 1, 3, 4 });
+
+        assertEquals(3, subset.rows());
+        assertArrayEquals(new double[] { 2, 4, 5 }, subset.column(0));
+        assertFalse(subset.isValid(0, 1));
+        assertTrue(subset.isValid(1, 1));
+        assertFalse(subset.isValid(2, 1));
+        assertTrue(subset.isSparse(2));
+        assertArrayEquals(new int[] { 0, 1, 2 }, subset.sparse(2).rows());
+        assertArrayEquals(new double[] { 6, 9, 4 }, subset.column(2));
+    }
+}
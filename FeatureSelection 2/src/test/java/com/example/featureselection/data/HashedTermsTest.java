@@ -0,0 +1,74 @@
+package com.example.featureselection.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTermsTest {
+
+    @Test
+    void testSingleBucketSumsSignedCounts() {
+        List<String> texts = List.of("win win cash", "", "cash");
+
+        HashedTerms hashed = HashedTerms.fit(texts, 1, 2, token -> true);
+
+        int win = sign("win");
+        int cash = sign("cash");
+        assertArrayEquals(new double[] { 2 * win + cash, 0, cash }, hashed.column(0));
+        assertEquals(List.of("win", "cash"), hashed.topTokens(0));
+    }
+
+    @Test
+    void testTokensKeepTheirBucket() {
+        HashedTerms hashed = HashedTerms.fit(List.of("alpha beta gamma delta", "alpha"), 16, 3, token -> true);
+
+        int bucket = HashedTerms.bucket("alpha".hashCode(), 16);
+        assertTrue(hashed.topTokens(bucket).contains("alpha"));
+        assertEquals(sign("alpha"), hashed.column(bucket)[1]);
+        for (int b : hashed.usedBuckets()) {
+            assertNotNull(hashed.column(b));
+        }
+    }
+
+    @Test
+    void testBucketSummaryStaysBounded() {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            texts.add("common token" + i);
+        }
+
+        HashedTerms hashed = HashedTerms.fit(texts, 4, 2, token -> true);
+
+        int bucket = HashedTerms.bucket("common".hashCode(), 4);
+        List<String> top = hashed.topTokens(bucket);
+        assertEquals(2, top.size());
+        assertEquals("common", top.get(0));
+    }
+
+    @Test
+    void testKeepDecisionIsMemoizedPerToken() {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            texts.add("the cash the prize");
+        }
+        AtomicInteger tests = new AtomicInteger();
+
+        HashedTerms hashed = HashedTerms.fit(texts, 8, 2, token -> {
+            tests.incrementAndGet();
+            return !token.equals("the");
+        });
+
+        assertEquals(3, tests.get(), "one test per distinct token");
+        for (int b : hashed.usedBuckets()) {
+            assertFalse(hashed.topTokens(b).contains("the"));
+        }
+    }
+
+    private static int sign(String token) {
+        return HashedTerms.sign(token.hashCode());
+    }
+}
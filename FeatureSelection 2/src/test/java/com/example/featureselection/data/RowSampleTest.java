@@ -0,0 +1,73 @@
+package com.example.featureselection.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowSampleTest {
+
+    @Test
+    void testKeepsEveryRowThatFits() {
+        RowSample sample = new RowSample(10);
+        double[] buffer = new double[1];
+        for (int i = 0; i < 5; i++) {
+            buffer[0] = i;
+            sample.offer(i, buffer, i % 2, i % 2);
+        }
+
+        RowSample.Rows rows = sample.rows();
+        assertFalse(sample.isSampled());
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, rows.rows());
+        // The reused buffer was copied for each kept row.
+        assertEquals(3.0, rows.values()[3][0]);
+        assertEquals(1.0, rows.targets()[3]);
+    }
+
+    @Test
+    void testBoundedAndTopsUpRareLabels() {
+        RowSample sample = new RowSample(100);
+        double[] buffer = new double[2];
+        for (int i = 0; i < 20_000; i++) {
+            int label = i % 1000 == 999 ? 1 : 0;
+            buffer[0] = i;
+            sample.offer(i, buffer, label, label);
+        }
+
+        RowSample.Rows rows = sample.rows();
+        assertTrue(sample.isSampled());
+        assertTrue(sample.isStratified());
+        assertTrue(rows.size() <= 100 + 1);
+        int rare = 0;
+        for (int k = 0; k < rows.size(); k++) {
+            if (k > 0)
+                assertTrue(rows.rows()[k] > rows.rows()[k - 1]);
+            assertEquals(rows.rows()[k], rows.values()[k][0]);
+            if (rows.targets()[k] == 1)
+                rare++;
+        }
+        assertTrue(rare >= 1);
+    }
+
+    @Test
+    void testContinuousTargetIsUniform() {
+        RowSample sample = new RowSample(50);
+        for (int i = 0; i < 1000; i++) {
+            sample.offer(i, new double[] { i }, i * 0.5, -1);
+        }
+
+        assertFalse(sample.isStratified());
+        assertEquals(50, sample.rows().size());
+    }
+
+    @Test
+    void testSampleIsDeterministic() {
+        RowSample first = new RowSample(20);
+        RowSample second = new RowSample(20);
+        for (int i = 0; i < 1000; i++) {
+            first.offer(i, new double[] { i }, i % 3, i % 3);
+            second.offer(i, new double[] { i }, i % 3, i % 3);
+        }
+
+        assertArrayEquals(first.rows().rows(), second.rows().rows());
+    }
+}
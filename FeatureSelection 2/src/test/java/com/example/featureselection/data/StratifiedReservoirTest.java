@@ -0,0 +1,81 @@
+package com.example.featureselection.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StratifiedReservoirTest {
+
+    @Test
+    void testNoSampleWhenEveryRowFits() {
+        StratifiedReservoir reservoir = new StratifiedReservoir(10);
+        for (int i = 0; i < 10; i++) {
+            reservoir.offer(i, i % 2);
+        }
+
+        assertNull(reservoir.sample());
+        assertEquals(10, reservoir.seen());
+    }
+
+    @Test
+    void testKeepsEachStratumShare() {
+        StratifiedReservoir reservoir = new StratifiedReservoir(100);
+        // 1% minority class: 99 majority rows, then one minority row, repeated.
+        for (int i = 0; i < 10_000; i++) {
+            reservoir.offer(i, i % 100 == 99 ? 1 : 0);
+        }
+
+        int[] sample = reservoir.sample();
+        assertTrue(reservoir.isStratified());
+        assertEquals(100, sample.length);
+        int minority = 0;
+        for (int k = 0; k < sample.length; k++) {
+            if (k > 0)
+                assertTrue(sample[k] > sample[k - 1], "sample must be ascending and distinct");
+            if (sample[k] % 100 == 99)
+                minority++;
+        }
+        assertEquals(1, minority);
+    }
+
+    @Test
+    void testRareStratumKeepsOneRow() {
+        StratifiedReservoir reservoir = new StratifiedReservoir(50);
+        for (int i = 0; i < 5_000; i++) {
+            reservoir.offer(i, i == 1234 ? 1 : 0);
+        }
+
+        int[] sample = reservoir.sample();
+        assertTrue(Arrays.binarySearch(sample, 1234) >= 0);
+    }
+
+    @Test
+    void testFallsBackToUniformPastMaxStrata() {
+        StratifiedReservoir reservoir = new StratifiedReservoir(100);
+        for (int i = 0; i < 1_000; i++) {
+            reservoir.offer(i, i);
+        }
+
+        assertFalse(reservoir.isStratified());
+        assertEquals(100, reservoir.sample().length);
+    }
+
+    @Test
+    void testSampleIsDeterministic() {
+        StratifiedReservoir a = new StratifiedReservoir(20);
+        StratifiedReservoir b = new StratifiedReservoir(20);
+        for (int i = 0; i < 1_000; i++) {
+            a.offer(i, i % 3);
+            b.offer(i, i % 3);
+        }
+
+        assertArrayEquals(a.sample(), b.sample());
+    }
+
+    @Test
+    void testRejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new StratifiedReservoir(0));
+    }
+}
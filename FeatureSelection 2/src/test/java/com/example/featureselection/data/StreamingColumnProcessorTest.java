@@ -0,0 +1,148 @@
+package com.example.featureselection.data;
+
+import com.example.featureselection.stats.BinnedColumn;
+import com.example.featureselection.stats.ContingencyTable;
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.example.featureselection.util.ScoringExecutor;
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingColumnProcessorTest {
+
+    private static final String[] WORDS = { "cheap", "offer", "meeting", "lunch", "winner", "report" };
+
+    private static String csv(int rows) {
+        Random random = new Random(9);
+        StringBuilder csv = new StringBuilder("id,size,weight,note,label\n");
+        for (int i = 0; i < rows; i++) {
+            int label = random.nextInt(3);
+            String weight = random.nextInt(10) == 0 ? "" : String.valueOf(label * 2 + random.nextGaussian());
+            String note = WORDS[label * 2] + " " + WORDS[random.nextInt(WORDS.length)];
+            csv.append(i).append(',').append(random.nextInt(100)).append(',').append(weight).append(',')
+                    .append(note).append(',').append("class").append(label).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static StreamedDataset stream(String csv, int chunkRows, int sampleRows) {
+        CsvParserSettings settings = new CsvParserSettings();
+        StreamingColumnProcessor processor = new StreamingColumnProcessor("label", h -> h.equalsIgnoreCase("id"),
+                true, chunkRows, sampleRows, TextSettings.defaults(), token -> token.length() > 2,
+                DiscretizationSettings.defaults());
+        settings.setProcessor(processor);
+        new CsvParser(settings).parse(new StringReader(csv));
+        return processor.getDataset();
+    }
+
+    private static IngestedDataset load(String csv) {
+        CsvParserSettings settings = new CsvParserSettings();
+        CsvColumnProcessor processor = new CsvColumnProcessor("label", h -> h.equalsIgnoreCase("id"), true);
+        settings.setProcessor(processor);
+        new CsvParser(settings).parse(new StringReader(csv));
+        return processor.getDataset();
+    }
+
+    @Test
+    void testStatisticsMatchInMemoryWhenChunkHoldsEveryRow() {
+        String csv = csv(300);
+        StreamedDataset streamed = stream(csv, 1000, 1000);
+        IngestedDataset loaded = load(csv);
+
+        FeatureMatrix.Builder builder = FeatureMatrix.builder(loaded.getRowCount());
+        for (int c : loaded.getNumericColumns().keySet()) {
+            builder.addColumn(loaded.getHeaders()[c], loaded.getNumericColumns().get(c), loaded.getValidity(c));
+        }
+        BagOfWords bag = BagOfWords.fit(loaded.getTextColumns().get(3), TextSettings.DEFAULT_VOCABULARY_SIZE,
+                token -> token.length() > 2);
+        for (int t = 0; t < bag.vocabulary().size(); t++) {
+            builder.addColumn("note_" + bag.vocabulary().get(t), bag.columns()[t]);
+        }
+        FeatureMatrix matrix = builder.build();
+        int[] labels = loaded.getClassTarget();
+
+        assertArrayEquals(matrix.names(), streamed.getFeatureNames());
+        assertEquals(List.of(1, 2), streamed.getNumericColumns());
+        assertEquals(List.of(3), streamed.getTextColumns());
+        assertEquals(List.of(0), streamed.getIgnoredColumns());
+        assertTrue(streamed.isClassificationTarget());
+        assertEquals(300, streamed.getRowCount());
+        assertFalse(streamed.isSampled());
+
+        ColumnMoments expected = matrix.moments(labels, ScoringExecutor.sequential());
+        ColumnMoments actual = streamed.getStatistics().moments();
+        DiscretizedMatrix binned = matrix.discretized(DiscretizationSettings.defaults());
+        BinnedColumn classes = BinnedColumn.ofLabels(labels);
+        for (int j = 0; j < matrix.features(); j++) {
+            assertEquals(expected.centeredSumOfSquares(j), actual.centeredSumOfSquares(j), 1e-9);
+            assertEquals(expected.centeredCrossProduct(j), actual.centeredCrossProduct(j), 1e-9);
+            assertEquals(expected.betweenClassSumOfSquares(j), actual.betweenClassSumOfSquares(j), 1e-9);
+            assertEquals(ContingencyTable.mutualInformation(binned.column(j), classes),
+                    streamed.getStatistics().mutualInformation(j), 1e-12);
+        }
+
+        FeatureMatrix sample = streamed.getSample();
+        assertEquals(300, sample.rows());
+        assertArrayEquals(matrix.column(0), sample.column(0));
+        assertFalse(sample.isValid(firstMissing(matrix), 1));
+        assertTrue(sample.isSparse(2));
+        assertArrayEquals(labels, streamed.getSampleClassTarget());
+    }
+
+    private static int firstMissing(FeatureMatrix matrix) {
+        for (int i = 0; i < matrix.rows(); i++) {
+            if (!matrix.isValid(i, 1))
+                return i;
+        }
+        throw new AssertionError("no missing weight");
+    }
+
+    @Test
+    void testSampleIsBoundedPastTheChunk() {
+        StreamedDataset streamed = stream(csv(5000), 200, 300);
+
+        assertEquals(5000, streamed.getRowCount());
+        assertEquals(5000, streamed.getStatistics().rows());
+        assertTrue(streamed.isSampled());
+        assertTrue(streamed.isSampleStratified());
+        assertTrue(streamed.getSample().rows() <= 300 + 3);
+        assertEquals(streamed.getSample().rows(), streamed.getSampleClassTarget().length);
+    }
+
+    @Test
+    void testContinuousTargetIsBinnedOnTheChunk() {
+        StringBuilder csv = new StringBuilder("x,y\n");
+        for (int i = 0; i < 500; i++) {
+            csv.append(i).append(',').append(i * 0.5).append('\n');
+        }
+        CsvParserSettings settings = new CsvParserSettings();
+        StreamingColumnProcessor processor = new StreamingColumnProcessor("y", h -> false, false, 100, 50,
+                TextSettings.defaults(), token -> true, DiscretizationSettings.defaults());
+        settings.setProcessor(processor);
+        new CsvParser(settings).parse(new StringReader(csv.toString()));
+        StreamedDataset streamed = processor.getDataset();
+
+        assertFalse(streamed.isClassificationTarget());
+        assertFalse(streamed.isSampleStratified());
+        assertEquals(50, streamed.getSample().rows());
+        // x determines y exactly, so most of the target entropy is explained.
+        assertTrue(streamed.getStatistics().mutualInformation(0) > 0.5);
+        assertEquals(1.0, Math.abs(streamed.getStatistics().moments().centeredCrossProduct(0)
+                / Math.sqrt(streamed.getStatistics().moments().centeredSumOfSquares(0)
+                        * streamed.getStatistics().moments().targetCenteredSumOfSquares())), 1e-9);
+    }
+
+    @Test
+    void testMissingTargetKeepsHeadersOnly() {
+        StreamedDataset streamed = stream("a,b\n1,2\n", 10, 10);
+
+        assertArrayEquals(new String[] { "a", "b" }, streamed.getHeaders());
+        assertEquals(-1, streamed.getTargetIndex());
+    }
+}
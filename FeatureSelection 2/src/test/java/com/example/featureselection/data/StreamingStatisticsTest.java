@@ -0,0 +1,117 @@
+package com.example.featureselection.data;
+
+import com.example.featureselection.stats.BinEdges;
+import com.example.featureselection.stats.BinnedColumn;
+import com.example.featureselection.stats.ContingencyTable;
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.example.featureselection.util.ScoringExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingStatisticsTest {
+
+    private static final int ROWS = 400;
+
+    private final double[] a = new double[ROWS];
+    private final double[] b = new double[ROWS];
+    private final int[] labels = new int[ROWS];
+    private final double[] y = new double[ROWS];
+
+    StreamingStatisticsTest() {
+        Random random = new Random(5);
+        for (int i = 0; i < ROWS; i++) {
+            labels[i] = random.nextInt(3);
+            a[i] = 1e4 + labels[i] + random.nextGaussian();
+            b[i] = random.nextInt(4) == 0 ? 0.0 : random.nextGaussian();
+            y[i] = 2 * a[i] + random.nextGaussian();
+        }
+    }
+
+    private StreamingStatistics fitted(boolean classification) {
+        DiscretizationSettings settings = DiscretizationSettings.defaults();
+        BinEdges[] edges = { BinEdges.fit(a, settings), BinEdges.fit(b, settings) };
+        return new StreamingStatistics(new double[] { a[0], b[0] }, classification ? labels[0] : y[0], edges,
+                classification ? null : BinEdges.fit(y, settings));
+    }
+
+    private FeatureMatrix matrix() {
+        return FeatureMatrix.builder(ROWS).addColumn("a", a).addColumn("b", b).build();
+    }
+
+    @Test
+    void testClassMomentsMatchInMemory() {
+        StreamingStatistics statistics = fitted(true);
+        for (int i = 0; i < ROWS; i++) {
+            statistics.add(new double[] { a[i], b[i] }, labels[i]);
+        }
+        ColumnMoments streamed = statistics.moments();
+        ColumnMoments loaded = matrix().moments(labels, ScoringExecutor.sequential());
+
+        assertEquals(loaded.rows(), streamed.rows());
+        assertEquals(loaded.classes(), streamed.classes());
+        for (int j = 0; j < 2; j++) {
+            assertEquals(loaded.centeredSumOfSquares(j), streamed.centeredSumOfSquares(j), 1e-6);
+            assertEquals(loaded.centeredCrossProduct(j), streamed.centeredCrossProduct(j), 1e-6);
+            assertEquals(loaded.betweenClassSumOfSquares(j), streamed.betweenClassSumOfSquares(j), 1e-6);
+        }
+        assertEquals(loaded.targetCenteredSumOfSquares(), streamed.targetCenteredSumOfSquares(), 1e-9);
+    }
+
+    @Test
+    void testMutualInformationMatchesBinnedColumns() {
+        StreamingStatistics classified = fitted(true);
+        StreamingStatistics regressed = fitted(false);
+        for (int i = 0; i < ROWS; i++) {
+            classified.add(new double[] { a[i], b[i] }, labels[i]);
+            regressed.add(new double[] { a[i], b[i] }, y[i]);
+        }
+        DiscretizedMatrix binned = matrix().discretized(DiscretizationSettings.defaults());
+        BinnedColumn classes = BinnedColumn.ofLabels(labels);
+        BinnedColumn target = binned.target(y);
+
+        for (int j = 0; j < 2; j++) {
+            assertEquals(ContingencyTable.mutualInformation(binned.column(j), classes),
+                    classified.mutualInformation(j), 1e-12);
+            assertEquals(ContingencyTable.mutualInformation(binned.column(j), target),
+                    regressed.mutualInformation(j), 1e-12);
+        }
+    }
+
+    @Test
+    void testPartialsMergeToSinglePass() {
+        StreamingStatistics whole = fitted(true);
+        StreamingStatistics first = whole.newPartial();
+        StreamingStatistics second = whole.newPartial();
+        for (int i = 0; i < ROWS; i++) {
+            double[] x = { a[i], b[i] };
+            whole.add(x, labels[i]);
+            // The second half sees only labels 1 and 2, so the partials differ in classes.
+            (i < ROWS / 2 || labels[i] == 0 ? first : second).add(x, labels[i]);
+        }
+        second.merge(first);
+
+        ColumnMoments expected = whole.moments();
+        ColumnMoments merged = second.moments();
+        assertEquals(expected.rows(), merged.rows());
+        for (int j = 0; j < 2; j++) {
+            assertEquals(expected.centeredSumOfSquares(j), merged.centeredSumOfSquares(j), 1e-6);
+            assertEquals(expected.betweenClassSumOfSquares(j), merged.betweenClassSumOfSquares(j), 1e-6);
+            assertEquals(whole.mutualInformation(j), second.mutualInformation(j), 1e-12);
+        }
+        assertThrows(IllegalArgumentException.class, () -> whole.merge(fitted(true)));
+    }
+
+    @Test
+    void testMissingCellCountsAsZero() {
+        StreamingStatistics statistics = new StreamingStatistics(new double[1], 0,
+                new BinEdges[] { BinEdges.equalWidth(new double[] { 0, 1 }, 2) }, null);
+        statistics.add(new double[] { Double.NaN }, 0);
+        statistics.add(new double[] { 1 }, 1);
+
+        assertEquals(0.5, statistics.moments().centeredSumOfSquares(0), 1e-12);
+        assertEquals(Math.log(2), statistics.mutualInformation(0), 1e-12);
+    }
+}
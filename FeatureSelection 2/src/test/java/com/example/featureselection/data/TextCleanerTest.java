@@ -0,0 +1,23 @@
+package com.example.featureselection.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextCleanerTest {
+
+    @Test
+    void testMatchesPythonCleaning() {
+        assertEquals("hello world", TextCleaner.clean("Hello, World"));
+        assertEquals("a b c d e", TextCleaner.clean("a;b\"c'd`e"));
+        assertEquals("free entry now!", TextCleaner.clean("  FREE\t\tentry\r\n now!  "));
+        assertEquals("no break", TextCleaner.clean("no\u00a0break"));
+    }
+
+    @Test
+    void testEmptyAndSeparatorOnlyInput() {
+        assertEquals("", TextCleaner.clean(null));
+        assertEquals("", TextCleaner.clean(""));
+        assertEquals("", TextCleaner.clean(" ,;' "));
+    }
+}
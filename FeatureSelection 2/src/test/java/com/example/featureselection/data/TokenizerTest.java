@@ -0,0 +1,99 @@
+package com.example.featureselection.data;
+
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenizerTest {
+
+    private final Tokenizer tokenizer = new Tokenizer();
+
+    /**
+     * The regex pipeline the tokenizer replaces.
+     */
+    private static List<String> reference(String text) {
+        if (text == null || text.isEmpty())
+            return List.of();
+        String cleaned = text.replaceAll("[,;\"'`]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+        return List.of(cleaned.toLowerCase(Locale.ROOT).split("\\W+"));
+    }
+
+    private List<String> tokens(String text) {
+        int count = tokenizer.tokenize(text);
+        List<String> tokens = new ArrayList<>(count);
+        for (int t = 0; t < count; t++) {
+            tokens.add(tokenizer.token(t));
+        }
+        return tokens;
+    }
+
+    private void assertMatches(String text) {
+        assertEquals(reference(text), tokens(text), () -> "text: " + text);
+    }
+
+    @Test
+    void testMatchesRegexOnEdgeCases() {
+        String[] texts = { null, "", " ", ",,;", "Hello, World!", "  ...leading", "'quoted' text",
+                "trailing!!!  ", "tab\tand\nnewline", "\u0001control", "snake_case and 42", "don't stop",
+                "Straße café naïve", "İstanbul", "xİy", "Kelvin", " nbsp first",
+                "emoji 😀 inside", "!" };
+        for (String text : texts) {
+            assertMatches(text);
+        }
+    }
+
+    @Test
+    void testMatchesRegexForEveryCharacter() {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            String ch = String.valueOf((char) c);
+            assertMatches("a" + ch + "b");
+            assertMatches(ch + "b");
+            assertMatches(ch);
+        }
+    }
+
+    @Test
+    void testMatchesRegexOnRandomText() {
+        char[] alphabet = "aZ_9 ,;\"'`\t\n!.-éİK \u0001".toCharArray();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            char[] text = new char[random.nextInt(24)];
+            for (int j = 0; j < text.length; j++) {
+                text[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            assertMatches(new String(text));
+        }
+    }
+
+    @Test
+    void testMatchesRegexOnSpamDataset() throws IOException {
+        CsvParser parser = new CsvParser(new CsvParserSettings());
+        List<String[]> rows = parser.parseAll(Files.newBufferedReader(Paths.get("reproduce.csv")));
+        for (String[] row : rows) {
+            assertMatches(row[1]);
+        }
+    }
+
+    @Test
+    void testHashAndMatchAgreeWithStrings() {
+        int count = tokenizer.tokenize("Alpha beta_2 GAMMA");
+        for (int t = 0; t < count; t++) {
+            String token = tokenizer.token(t);
+            assertEquals(token.hashCode(), tokenizer.hash(t));
+            assertTrue(tokenizer.matches(t, token));
+            assertFalse(tokenizer.matches(t, token + "x"));
+        }
+    }
+}
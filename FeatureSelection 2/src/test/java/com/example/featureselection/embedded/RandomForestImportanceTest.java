@@ -1,8 +1,12 @@
 package com.example.featureselection.embedded;
 
+import com.example.featureselection.data.FeatureMatrix;
+import com.example.featureselection.model.ForestStats;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Random;
 import static org.junit.jupiter.api.Assertions.*;
 
 class RandomForestImportanceTest {
@@ -142,4 +146,82 @@ class RandomForestImportanceTest {
         assertTrue(scores.get("f1") >= 0);
         assertTrue(scores.get("f2") >= 0);
     }
+
+    @Test
+    void testSampleRowsKeepsClassProportions() {
+        int[] labels = new int[1000];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = i < 900 ? 0 : (i < 995 ? 1 : 2);
+        }
+
+        int[] sample = RandomForestImportance.sampleRows(labels.length, labels, 100);
+
+        assertNotNull(sample);
+        long[] counts = new long[3];
+        for (int i : sample) {
+            counts[labels[i]]++;
+        }
+        assertEquals(90, counts[0]);
+        assertEquals(10, counts[1]);
+        assertEquals(1, counts[2], "Rare classes keep at least one row");
+        assertEquals(sample.length, Arrays.stream(sample).distinct().count());
+        assertNull(RandomForestImportance.sampleRows(100, labels, 100));
+        assertNull(RandomForestImportance.sampleRows(1000, labels, 0));
+    }
+
+    @Test
+    void testTopKRankCorrelation() {
+        double[] a = { 5, 4, 3, 2, 1 };
+        double[] reversed = { 1, 2, 3, 4, 5 };
+
+        assertEquals(1.0, RandomForestImportance.topKRankCorrelation(a, a.clone(), 5), 1e-12);
+        assertEquals(-1.0, RandomForestImportance.topKRankCorrelation(reversed, a, 5), 1e-12);
+        // Only the current top 2 are compared, and their order agrees.
+        assertEquals(1.0, RandomForestImportance.topKRankCorrelation(new double[] { 9, 8, 0, 0, 10 }, a, 2), 1e-12);
+    }
+
+    @Test
+    void testAdaptiveForestReportsCost() {
+        Random random = new Random(7);
+        int rows = 400;
+        double[][] features = new double[rows][3];
+        int[] target = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            target[i] = i % 2;
+            features[i][0] = target[i] * 10 + random.nextGaussian();
+            features[i][1] = random.nextGaussian();
+            features[i][2] = random.nextGaussian();
+        }
+        FeatureMatrix matrix = FeatureMatrix.fromRows(features, new String[] { "signal", "n1", "n2" });
+        RandomForestImportance adaptive = new RandomForestImportance(new ForestSettings(true, 200, 10, 0.0, 3, 150));
+
+        ForestImportance result = adaptive.fit(matrix, target);
+
+        ForestStats stats = result.getStats();
+        assertEquals(400, stats.getTotalRows());
+        assertEquals(150, stats.getSampledRows());
+        assertTrue(stats.isConverged(), "A zero threshold is met by every check");
+        assertEquals(10 * (RandomForestImportance.STABLE_CHECKS + 1), stats.getTrees());
+        Map<String, Double> scores = result.getScores();
+        assertTrue(scores.get("signal") > scores.get("n1"));
+        assertTrue(scores.get("signal") > scores.get("n2"));
+    }
+
+    @Test
+    void testFixedForestTrainsAllTrees() {
+        double[][] features = new double[20][2];
+        int[] target = new int[20];
+        for (int i = 0; i < 20; i++) {
+            features[i][0] = i;
+            features[i][1] = i % 3;
+            target[i] = i < 10 ? 0 : 1;
+        }
+        RandomForestImportance fixed = new RandomForestImportance(new ForestSettings(false, 30, 10, 0.95, 5, 0));
+
+        ForestStats stats = fixed.fit(FeatureMatrix.fromRows(features, new String[] { "a", "b" }), target).getStats();
+
+        assertEquals(30, stats.getTrees());
+        assertEquals(20, stats.getSampledRows());
+        assertFalse(stats.isConverged());
+    }
 }
@@ -174,4 +174,23 @@ class ANOVAFilterTest {
                     "Expected F-statistic > 1 for " + feature + ", got: " + scores.get(feature));
         }
     }
+
+    @Test
+    void testCalculateMatchesTextbookFStatistic() {
+        double[][] features = {
+                { 1.0, 1e9 + 1 },
+                { 2.0, 1e9 + 2 },
+                { 3.0, 1e9 + 3 },
+                { 4.0, 1e9 + 4 },
+                { 5.0, 1e9 + 5 },
+                { 6.0, 1e9 + 6 }
+        };
+        int[] target = { -1, -1, -1, 7, 7, 7 };
+        String[] featureNames = { "plain", "offset" };
+
+        Map<String, Double> scores = filter.calculate(features, target, featureNames);
+
+        assertEquals(13.5, scores.get("plain"), 1e-9);
+        assertEquals(13.5, scores.get("offset"), 1e-6);
+    }
 }
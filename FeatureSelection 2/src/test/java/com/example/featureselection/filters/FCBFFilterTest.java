@@ -1,9 +1,12 @@
 package com.example.featureselection.filters;
 
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.example.featureselection.util.ScoringExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.util.Map;
 import java.util.List;
+import java.util.Random;
 import static org.junit.jupiter.api.Assertions.*;
 
 class FCBFFilterTest {
@@ -110,4 +113,31 @@ class FCBFFilterTest {
         assertFalse(selected.contains("constant"));
         assertTrue(selected.contains("varying"));
     }
+
+    @Test
+    void testParallelRedundancyMatchesSequential() {
+        Random random = new Random(11);
+        double[][] features = new double[300][60];
+        int[] target = new int[300];
+        for (int i = 0; i < features.length; i++) {
+            target[i] = random.nextInt(3);
+            double signal = target[i] + random.nextGaussian() * 0.5;
+            for (int j = 0; j < features[i].length; j++) {
+                features[i][j] = signal * (j % 5) + random.nextGaussian() * (1 + j % 3);
+            }
+        }
+        String[] featureNames = new String[60];
+        for (int j = 0; j < featureNames.length; j++) {
+            featureNames[j] = "f" + j;
+        }
+
+        ScoringExecutor executor = new ScoringExecutor(4);
+        try {
+            List<String> parallel = new FCBFFilter(executor, DiscretizationSettings.defaults())
+                    .calculate(features, target, featureNames);
+            assertEquals(filter.calculate(features, target, featureNames), parallel);
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -1,8 +1,13 @@
 package com.example.featureselection.filters;
 
+import com.example.featureselection.data.FeatureMatrix;
+import com.example.featureselection.data.SparseColumn;
+import com.example.featureselection.stats.DiscretizationSettings;
+import com.example.featureselection.util.ScoringExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.util.Map;
+import java.util.Random;
 import static org.junit.jupiter.api.Assertions.*;
 
 class MutualInformationFilterTest {
@@ -115,4 +120,47 @@ class MutualInformationFilterTest {
         assertNotNull(scores);
         assertEquals(2, scores.size());
     }
+
+    @Test
+    void testParallelScoringMatchesSequential() {
+        Random random = new Random(7);
+        double[][] features = new double[200][40];
+        int[] target = new int[200];
+        for (int i = 0; i < features.length; i++) {
+            target[i] = random.nextInt(3);
+            for (int j = 0; j < features[i].length; j++) {
+                features[i][j] = random.nextGaussian() + target[i] * (j % 4);
+            }
+        }
+        String[] featureNames = new String[40];
+        for (int j = 0; j < featureNames.length; j++) {
+            featureNames[j] = "f" + j;
+        }
+
+        ScoringExecutor executor = new ScoringExecutor(4);
+        try {
+            Map<String, Double> parallel = new MutualInformationFilter(executor, DiscretizationSettings.defaults())
+                    .calculate(features, target, featureNames);
+            assertEquals(filter.calculate(features, target, featureNames), parallel);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testSparseColumnWithoutZeros() {
+        // Token counts of a term present in every document.
+        double[] counts = { 1, 2, 3, 1, 2, 3 };
+        int[] target = { 0, 1, 1, 0, 1, 1 };
+        FeatureMatrix x = FeatureMatrix.builder(counts.length)
+                .addColumn("always", SparseColumn.fromDense(counts))
+                .build();
+
+        Map<String, Double> sparse = filter.calculate(x, target);
+        Map<String, Double> dense = filter.calculate(new double[][] { { 1 }, { 2 }, { 3 }, { 1 }, { 2 }, { 3 } },
+                target, new String[] { "always" });
+
+        assertEquals(dense.get("always"), sparse.get("always"), 1e-12);
+        assertTrue(sparse.get("always") > 0);
+    }
 }
@@ -0,0 +1,177 @@
+package com.example.featureselection.service;
+
+import com.example.featureselection.model.FeatureScore;
+import com.example.featureselection.model.SelectionResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisCacheTest {
+
+    private static MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "data.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SelectionResult result(String feature) {
+        FeatureScore score = FeatureScore.builder().featureName(feature).finalScore(0.5).selected(true).build();
+        return SelectionResult.builder()
+                .selectedFeatures(List.of(feature))
+                .rejectedFeatures(List.of())
+                .featureScores(List.of(score))
+                .mode("CLASSIFICATION")
+                .build();
+    }
+
+    @Test
+    void testKeyDependsOnContentTargetAndFlag() {
+        AnalysisCache cache = new AnalysisCache(true, 1 << 20, Duration.ZERO, null, Clock.systemUTC());
+        MockMultipartFile file = csv("a,b\n1,2\n");
+
+        String key = cache.key(file, "b", false);
+
+        assertEquals(64, key.length());
+        assertEquals(key, cache.key(csv("a,b\n1,2\n"), "b", false));
+        assertNotEquals(key, cache.key(csv("a,b\n1,3\n"), "b", false));
+        assertNotEquals(key, cache.key(file, "a", false));
+        assertNotEquals(key, cache.key(file, "b", true));
+        assertNull(cache.key(csv(""), "b", false));
+    }
+
+    @Test
+    void testKeyDependsOnScoringSettings() {
+        MockMultipartFile file = csv("a,b\n1,2\n");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("featureselection.wrappers.method", "SFS")
+                .withProperty("featureselection.cache.ttl-minutes", "60");
+        String before = AnalysisCache.settingsFingerprint(environment);
+
+        environment.setProperty("featureselection.cache.ttl-minutes", "5");
+        environment.setProperty("featureselection.scoring.parallelism", "4");
+        assertEquals(before, AnalysisCache.settingsFingerprint(environment), "non-scoring settings are ignored");
+
+        environment.setProperty("featureselection.wrappers.method", "RFE");
+        String after = AnalysisCache.settingsFingerprint(environment);
+        assertNotEquals(before, after);
+
+        environment.setProperty("featureselection.text.vectorizer", "HASHING");
+        assertNotEquals(after, AnalysisCache.settingsFingerprint(environment), "newly set properties count");
+
+        AnalysisCache cacheBefore = new AnalysisCache(true, 1 << 20, Duration.ZERO, null, Clock.systemUTC(), before);
+        AnalysisCache cacheAfter = new AnalysisCache(true, 1 << 20, Duration.ZERO, null, Clock.systemUTC(), after);
+        assertNotEquals(cacheBefore.key(file, "b", false), cacheAfter.key(file, "b", false));
+    }
+
+    @Test
+    void testDiskEntriesFromOtherSettingsAreNotServed(@TempDir Path dir) {
+        MockMultipartFile file = csv("a,b\n1,2\n");
+        AnalysisCache old = new AnalysisCache(true, 1 << 20, Duration.ZERO, dir, Clock.systemUTC(), "method=SFS\n");
+        old.put(old.key(file, "b", false), result("f1"));
+
+        AnalysisCache restarted = new AnalysisCache(true, 1 << 20, Duration.ZERO, dir, Clock.systemUTC(),
+                "method=RFE\n");
+
+        assertNull(restarted.get(restarted.key(file, "b", false)));
+    }
+
+    @Test
+    void testHitReturnsCopyMarkedAsHit() {
+        AnalysisCache cache = new AnalysisCache(true, 1 << 20, Duration.ZERO, null, Clock.systemUTC());
+        SelectionResult original = result("f1");
+
+        cache.put("k", original);
+        SelectionResult hit = cache.get("k");
+
+        assertTrue(hit.isCacheHit());
+        assertFalse(original.isCacheHit());
+        assertEquals(List.of("f1"), hit.getSelectedFeatures());
+        assertEquals("f1", hit.getFeatureScores().get(0).getFeatureName());
+        assertNull(cache.get("missing"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvictedByWeight() {
+        AnalysisCache probe = new AnalysisCache(true, 1 << 20, Duration.ZERO, null, Clock.systemUTC());
+        probe.put("x", result("f1"));
+        long entryWeight = probe.weight();
+
+        AnalysisCache cache = new AnalysisCache(true, 2 * entryWeight, Duration.ZERO, null, Clock.systemUTC());
+        cache.put("a", result("f1"));
+        cache.put("b", result("f2"));
+        cache.get("a");
+        cache.put("c", result("f3"));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        MutableClock clock = new MutableClock();
+        AnalysisCache cache = new AnalysisCache(true, 1 << 20, Duration.ofMinutes(10), null, clock);
+
+        cache.put("k", result("f1"));
+        clock.advance(Duration.ofMinutes(9));
+        assertNotNull(cache.get("k"));
+        clock.advance(Duration.ofMinutes(1));
+        assertNull(cache.get("k"));
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void testDiskEntriesSurviveRestart(@TempDir Path dir) {
+        new AnalysisCache(true, 1 << 20, Duration.ZERO, dir, Clock.systemUTC()).put("k", result("f1"));
+
+        AnalysisCache restarted = new AnalysisCache(true, 1 << 20, Duration.ZERO, dir, Clock.systemUTC());
+        SelectionResult hit = restarted.get("k");
+
+        assertNotNull(hit);
+        assertTrue(hit.isCacheHit());
+        assertEquals(1, restarted.size());
+    }
+
+    @Test
+    void testDisabledCacheStoresNothing() {
+        AnalysisCache cache = new AnalysisCache(false, 1 << 20, Duration.ZERO, null, Clock.systemUTC());
+
+        assertNull(cache.key(csv("a\n1\n"), "a", false));
+        cache.put("k", result("f1"));
+        assertNull(cache.get("k"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
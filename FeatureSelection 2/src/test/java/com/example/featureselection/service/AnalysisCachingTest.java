@@ -0,0 +1,85 @@
+package com.example.featureselection.service;
+
+import com.example.featureselection.model.SelectionResult;
+import com.example.featureselection.util.StageListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AnalysisCachingTest {
+
+    @Autowired
+    private FeatureSelectionService featureSelectionService;
+
+    // Trailing blank lines give the upload a cache key no other test shares.
+    private static MockMultipartFile upload(String suffix) throws IOException {
+        byte[] csv = (new String(Files.readAllBytes(Paths.get("src/test/resources/test-data.csv"))) + suffix)
+                .getBytes();
+        return new MockMultipartFile("file", "test-data.csv", "text/csv", csv);
+    }
+
+    @Test
+    void testResultWithFallbackStageIsNotCached() throws IOException {
+        MockMultipartFile file = upload("\n\n\n");
+        StageListener abortPearson = new StageListener() {
+            @Override
+            public void started(String stage) {
+                if (stage.equals("pearson"))
+                    throw new IllegalStateException("aborted");
+            }
+
+            @Override
+            public void finished(String stage, boolean succeeded) {
+            }
+        };
+
+        SelectionResult degraded = featureSelectionService.analyze(file, "target", null, false, abortPearson);
+        SelectionResult rerun = featureSelectionService.analyze(file, "target");
+        SelectionResult cached = featureSelectionService.analyze(file, "target");
+
+        assertFalse(degraded.isCacheHit());
+        assertFalse(rerun.isCacheHit(), "the degraded result must not have been cached");
+        assertTrue(cached.isCacheHit());
+    }
+
+    @Test
+    void testCacheHitIsReportedToListener() throws IOException {
+        MockMultipartFile file = upload("\n\n\n\n");
+        featureSelectionService.analyze(file, "target");
+        List<String> events = new ArrayList<>();
+        StageListener recorder = new StageListener() {
+            @Override
+            public void started(String stage) {
+                events.add("started " + stage);
+            }
+
+            @Override
+            public void finished(String stage, boolean succeeded) {
+                events.add("finished " + stage + " " + succeeded);
+            }
+        };
+
+        SelectionResult cached = featureSelectionService.analyze(file, "target", null, false, recorder);
+
+        assertTrue(cached.isCacheHit());
+        assertEquals(List.of("started cache", "finished cache true"), events);
+    }
+
+    @Test
+    void testEmptyUploadIsRejectedBeforeHashing() {
+        MockMultipartFile empty = new MockMultipartFile("file", "empty.csv", "text/csv", new byte[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> featureSelectionService.analyze(empty, "target"));
+        assertThrows(IllegalArgumentException.class, () -> featureSelectionService.analyze(null, "target"));
+    }
+}
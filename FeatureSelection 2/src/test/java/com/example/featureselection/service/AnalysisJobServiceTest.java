@@ -0,0 +1,100 @@
+package com.example.featureselection.service;
+
+import com.example.featureselection.exception.JobNotFoundException;
+import com.example.featureselection.exception.JobQueueFullException;
+import com.example.featureselection.exception.JobStateException;
+import com.example.featureselection.model.JobInfo;
+import com.example.featureselection.model.JobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisJobServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+    private AnalysisJobService jobs;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        // Occupy the only worker so submitted jobs stay queued.
+        executor.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        jobs = new AnalysisJobService(null, executor, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private static MockMultipartFile csv() {
+        return new MockMultipartFile("file", "data.csv", "text/csv", "a,b\n1,2\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFullQueueRejectsSubmission() {
+        JobInfo queued = jobs.submit(csv(), "b", "user", true);
+
+        assertEquals(JobStatus.QUEUED, queued.getStatus());
+        assertThrows(JobQueueFullException.class, () -> jobs.submit(csv(), "b", "user", true));
+    }
+
+    @Test
+    void testCancelledQueuedJobNeverRuns() throws Exception {
+        JobInfo queued = jobs.submit(csv(), "b", "user", true);
+
+        JobInfo cancelled = jobs.cancel(queued.getJobId());
+        release.countDown();
+        executor.getThreadPoolExecutor().awaitTermination(200, TimeUnit.MILLISECONDS);
+
+        assertEquals(JobStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(JobStatus.CANCELLED, jobs.status(queued.getJobId()).getStatus());
+        assertNull(jobs.status(queued.getJobId()).getStartedAt());
+        assertThrows(JobStateException.class, () -> jobs.result(queued.getJobId()));
+        assertThrows(JobStateException.class, () -> jobs.cancel(queued.getJobId()));
+    }
+
+    @Test
+    void testCancelInterruptsRunningStages() {
+        AnalysisJob job = new AnalysisJob("job");
+        assertTrue(job.start());
+        FutureTask<Void> stage = new FutureTask<>(() -> null);
+        job.started("random forest");
+        job.running("random forest", stage);
+
+        assertTrue(job.cancel());
+
+        assertTrue(stage.isCancelled());
+        FutureTask<Void> late = new FutureTask<>(() -> null);
+        job.running("fcbf", late);
+        assertTrue(late.isCancelled(), "a stage starting after the cancel is stopped too");
+    }
+
+    @Test
+    void testUnknownJob() {
+        assertThrows(JobNotFoundException.class, () -> jobs.status("nope"));
+        assertThrows(IllegalArgumentException.class,
+                () -> jobs.submit(new MockMultipartFile("file", new byte[0]), "b", "user", true));
+    }
+}
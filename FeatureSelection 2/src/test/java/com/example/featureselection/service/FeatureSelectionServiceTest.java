@@ -14,7 +14,8 @@ import java.nio.file.Paths;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+// The result cache is off so that repeated analyses really run the pipeline.
+@SpringBootTest(properties = "featureselection.cache.enabled=false")
 class FeatureSelectionServiceTest {
 
     @Autowired
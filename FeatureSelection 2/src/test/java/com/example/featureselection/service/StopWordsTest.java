@@ -1,8 +1,7 @@
 package com.example.featureselection.service;
 
+import com.example.featureselection.data.BagOfWords;
 import org.junit.jupiter.api.Test;
-import java.lang.reflect.Method;
-import java.lang.reflect.Field;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -10,12 +9,7 @@ import static org.junit.jupiter.api.Assertions.*;
 public class StopWordsTest {
 
     @Test
-    public void testStopWordsFiltering() throws Exception {
-        FeatureSelectionService service = new FeatureSelectionService(null, null, null, null, null, null, null);
-
-        Method method = FeatureSelectionService.class.getDeclaredMethod("buildVocabulary", List.class, int.class);
-        method.setAccessible(true);
-
+    public void testStopWordsFiltering() {
         List<String> texts = Arrays.asList(
                 "you are good",
                 "this is a test",
@@ -23,8 +17,7 @@ public class StopWordsTest {
                 "u are free",
                 "unknownword");
 
-        @SuppressWarnings("unchecked")
-        List<String> vocabulary = (List<String>) method.invoke(service, texts, 50);
+        List<String> vocabulary = BagOfWords.fit(texts, 50, FeatureSelectionService::isVocabularyTerm).vocabulary();
 
         System.out.println("Vocabulary: " + vocabulary);
 
@@ -0,0 +1,72 @@
+package com.example.featureselection.service;
+
+import com.example.featureselection.model.FeatureScore;
+import com.example.featureselection.model.SelectionResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Every upload is streamed; a small chunk and sample make the uploads run
+// past both.
+@SpringBootTest(properties = {
+        "featureselection.cache.enabled=false",
+        "featureselection.streaming.min-upload-size=1B",
+        "featureselection.streaming.chunk-rows=20",
+        "featureselection.sampling.model-rows=24" })
+class StreamingAnalysisTest {
+
+    @Autowired
+    private FeatureSelectionService featureSelectionService;
+
+    private static MockMultipartFile upload(String path) throws IOException {
+        return new MockMultipartFile("file", Paths.get(path).getFileName().toString(), "text/csv",
+                Files.readAllBytes(Paths.get(path)));
+    }
+
+    @Test
+    void testStreamsNumericUpload() throws IOException {
+        SelectionResult result = featureSelectionService.analyze(upload("src/test/resources/test-data.csv"),
+                "target");
+
+        assertEquals("CLASSIFICATION", result.getMode());
+        assertEquals(5, result.getSelectedFeatures().size() + result.getRejectedFeatures().size());
+        for (FeatureScore score : result.getFeatureScores()) {
+            assertTrue(score.getFinalScore() >= 0 && score.getFinalScore() <= 1, score.getFeatureName());
+        }
+        assertTrue(result.getSampling().getTotalRows() > 20, "rows past the first chunk are counted");
+    }
+
+    @Test
+    void testStreamsTextUploadWithBoundedSample() throws IOException {
+        SelectionResult result = featureSelectionService.analyze(upload("reproduce.csv"), "v1");
+
+        assertTrue(result.getMode().contains("(Tokenized)"));
+        assertTrue(result.getSampling().isSampled());
+        assertTrue(result.getSampling().isStratified());
+        assertTrue(result.getSampling().getSampleRows() < result.getSampling().getTotalRows());
+        assertTrue(result.getSelectedFeatures().contains("v2"), "the message text predicts spam");
+    }
+
+    @Test
+    void testStreamsRegressionUpload() throws IOException {
+        SelectionResult result = featureSelectionService.analyze(
+                upload("src/test/resources/test-data-large-regression.csv"), "Target");
+
+        assertEquals("REGRESSION", result.getMode());
+        assertFalse(result.getFeatureScores().isEmpty());
+    }
+
+    @Test
+    void testRejectsMissingTarget() throws IOException {
+        MockMultipartFile file = upload("src/test/resources/test-data.csv");
+
+        assertThrows(RuntimeException.class, () -> featureSelectionService.analyze(file, "missing"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.featureselection.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinEdgesTest {
+
+    @Test
+    void testCodesMatchDiscretizerOnFittedValues() {
+        Random random = new Random(11);
+        double[] values = new double[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.round(random.nextGaussian() * 4) / 2.0;
+        }
+        for (Binning binning : Binning.values()) {
+            DiscretizationSettings settings = new DiscretizationSettings(7, binning);
+            BinEdges edges = BinEdges.fit(values, settings);
+            BinnedColumn binned = Discretizer.discretize(values, settings);
+
+            assertEquals(binned.bins(), edges.bins());
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(binned.get(i), edges.code(values[i]), binning + " row " + i);
+            }
+        }
+    }
+
+    @Test
+    void testValuesBeyondFittedRangeFallInEndBins() {
+        BinEdges width = BinEdges.equalWidth(new double[] { 0, 10 }, 5);
+        assertEquals(0, width.code(-3));
+        assertEquals(4, width.code(42));
+
+        BinEdges frequency = BinEdges.equalFrequency(new double[] { 1, 2, 3, 4 }, 2);
+        assertEquals(0, frequency.code(-3));
+        assertEquals(1, frequency.code(42));
+    }
+
+    @Test
+    void testConstantColumnIsOneBin() {
+        BinEdges edges = BinEdges.equalWidth(new double[] { 3, 3, 3 }, 10);
+
+        assertEquals(0, edges.code(3));
+        assertEquals(0, edges.code(100));
+    }
+}
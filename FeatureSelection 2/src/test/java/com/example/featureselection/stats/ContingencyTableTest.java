@@ -0,0 +1,95 @@
+package com.example.featureselection.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContingencyTableTest {
+
+    private static final double EPS = 1e-12;
+
+    @Test
+    void testEntropyOfUniformCodes() {
+        int[] x = { 0, 1, 2, 3, 0, 1, 2, 3 };
+        assertEquals(Math.log(4), ContingencyTable.entropy(x), EPS);
+    }
+
+    @Test
+    void testEntropyOfConstantIsZero() {
+        assertEquals(0.0, ContingencyTable.entropy(new int[] { 2, 2, 2 }), EPS);
+    }
+
+    @Test
+    void testMutualInformationOfIdenticalVariablesEqualsEntropy() {
+        int[] x = { 0, 1, 1, 2, 2, 2 };
+        assertEquals(ContingencyTable.entropy(x), ContingencyTable.mutualInformation(x, x), EPS);
+        assertEquals(1.0, ContingencyTable.symmetricalUncertainty(x, x), EPS);
+    }
+
+    @Test
+    void testMutualInformationOfIndependentVariablesIsZero() {
+        int[] x = { 0, 0, 1, 1 };
+        int[] y = { 0, 1, 0, 1 };
+        assertEquals(0.0, ContingencyTable.mutualInformation(x, y), EPS);
+        assertEquals(0.0, ContingencyTable.symmetricalUncertainty(x, y), EPS);
+    }
+
+    @Test
+    void testJointEntropy() {
+        int[] x = { 0, 0, 1, 1 };
+        int[] y = { 0, 1, 0, 0 };
+        double expected = -(0.25 * Math.log(0.25) * 2 + 0.5 * Math.log(0.5));
+        assertEquals(expected, ContingencyTable.jointEntropy(x, 2, y, 2), EPS);
+    }
+
+    @Test
+    void testMutualInformationFromJointCounts() {
+        int[] x = { 0, 0, 1, 1, 2, 2, 2 };
+        int[] y = { 0, 1, 1, 1, 0, 0, 1 };
+        // Unused trailing cells are ignored.
+        int[] joint = new int[3 * 2 + 4];
+        for (int i = 0; i < x.length; i++) {
+            joint[x[i] * 2 + y[i]]++;
+        }
+
+        assertEquals(ContingencyTable.mutualInformation(x, y), ContingencyTable.mutualInformation(joint, 3, 2), EPS);
+        assertEquals(0.0, ContingencyTable.mutualInformation(new int[4], 2, 2), EPS);
+    }
+
+    @Test
+    void testSymmetricalUncertaintyOfConstantsIsZero() {
+        int[] x = { 1, 1, 1 };
+        assertEquals(0.0, ContingencyTable.symmetricalUncertainty(x, x), EPS);
+    }
+
+    @Test
+    void testCompactRemapsArbitraryLabels() {
+        assertArrayEquals(new int[] { 1, 0, 2, 1 }, ContingencyTable.compact(new int[] { 5, -3, 100, 5 }));
+
+        int[] codes = { 0, 2, 1 };
+        assertSame(codes, ContingencyTable.compact(codes));
+    }
+
+    @Test
+    void testRejectsNegativeCodes() {
+        assertThrows(IllegalArgumentException.class, () -> ContingencyTable.entropy(new int[] { 0, -1 }));
+    }
+
+    @Test
+    void testSparseJointEntropyMatchesDense() {
+        int[] a = { 0, 2, 0, 0, 1, 0, 2, 0 };
+        int[] b = { 1, 1, 0, 1, 1, 2, 1, 1 };
+        BinnedColumn denseA = BinnedColumn.of(a, 3);
+        BinnedColumn denseB = BinnedColumn.of(b, 3);
+        BinnedColumn sparseA = BinnedColumn.sparse(8, new int[] { 1, 4, 6 }, new int[] { 2, 1, 2 }, 0, 3);
+        BinnedColumn sparseB = BinnedColumn.sparse(8, new int[] { 2, 5 }, new int[] { 0, 2 }, 1, 3);
+
+        double expected = ContingencyTable.jointEntropy(denseA, denseB);
+        assertEquals(expected, ContingencyTable.jointEntropy(sparseA, denseB), EPS);
+        assertEquals(expected, ContingencyTable.jointEntropy(denseA, sparseB), EPS);
+        assertEquals(expected, ContingencyTable.jointEntropy(sparseA, sparseB), EPS);
+        assertEquals(denseA.entropy(), sparseA.entropy(), EPS);
+        assertEquals(2, sparseA.get(6));
+        assertEquals(0, sparseA.get(7));
+    }
+}
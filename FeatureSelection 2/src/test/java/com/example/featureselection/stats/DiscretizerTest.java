@@ -0,0 +1,131 @@
+package com.example.featureselection.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscretizerTest {
+
+    private static int[] codes(BinnedColumn column) {
+        int[] out = new int[column.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = column.get(i);
+        }
+        return out;
+    }
+
+    @Test
+    void testEqualWidthPutsMaximumInLastBin() {
+        BinnedColumn binned = Discretizer.equalWidth(new double[] { 0.0, 2.5, 5.0, 9.99, 10.0 }, 10);
+
+        assertEquals(10, binned.bins());
+        assertArrayEquals(new int[] { 0, 2, 5, 9, 9 }, codes(binned));
+    }
+
+    @Test
+    void testEqualWidthConstantColumnIsSingleBin() {
+        BinnedColumn binned = Discretizer.equalWidth(new double[] { 3.0, 3.0, 3.0 }, 10);
+
+        assertArrayEquals(new int[] { 0, 0, 0 }, codes(binned));
+        assertEquals(0.0, binned.entropy(), 1e-12);
+    }
+
+    @Test
+    void testEqualFrequencyBalancesSkewedColumn() {
+        double[] values = new double[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(i / 10.0);
+        }
+        BinnedColumn binned = Discretizer.equalFrequency(values, 4);
+
+        int[] counts = new int[binned.bins()];
+        for (int code : codes(binned)) {
+            counts[code]++;
+        }
+        assertArrayEquals(new int[] { 25, 25, 25, 25 }, counts);
+    }
+
+    @Test
+    void testEqualFrequencyMergesTiedCutPoints() {
+        BinnedColumn binned = Discretizer.equalFrequency(new double[] { 1, 1, 1, 1, 1, 1, 2, 3 }, 4);
+
+        assertEquals(2, binned.bins());
+        assertArrayEquals(new int[] { 0, 0, 0, 0, 0, 0, 1, 1 }, codes(binned));
+    }
+
+    @Test
+    void testWideCodesAreKept() {
+        int[] wide = { 0, 300, 299, 1 };
+        BinnedColumn binned = BinnedColumn.of(wide, 301);
+
+        assertArrayEquals(wide, codes(binned));
+        int[] narrow = { 0, 255, 128 };
+        assertArrayEquals(narrow, codes(BinnedColumn.of(narrow, 256)));
+    }
+
+    @Test
+    void testBinnedKernelMatchesIntKernel() {
+        int[] x = { 0, 1, 1, 2, 2, 2, 0, 1 };
+        int[] y = { 0, 0, 1, 1, 1, 0, 0, 1 };
+        BinnedColumn bx = BinnedColumn.of(x, 10);
+        BinnedColumn by = BinnedColumn.ofLabels(y);
+
+        assertEquals(ContingencyTable.mutualInformation(x, y), ContingencyTable.mutualInformation(bx, by), 1e-12);
+        assertEquals(ContingencyTable.symmetricalUncertainty(x, y),
+                ContingencyTable.symmetricalUncertainty(bx, by), 1e-12);
+    }
+
+    @Test
+    void testSparseBinningMatchesDense() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = random.nextInt(60);
+            // Some trials fill every row, so zero may lie outside [min, max].
+            boolean full = random.nextInt(3) == 0;
+            int low = new int[] { -6, -2, 1 }[random.nextInt(3)];
+            double[] dense = new double[n];
+            for (int i = 0; i < n; i++) {
+                if (full || random.nextInt(4) == 0) {
+                    int v = low + random.nextInt(4);
+                    dense[i] = v == 0 ? 1 : v;
+                }
+            }
+            int nonZeros = 0;
+            for (double v : dense) {
+                if (v != 0)
+                    nonZeros++;
+            }
+            int[] rows = new int[nonZeros];
+            double[] values = new double[nonZeros];
+            for (int i = 0, k = 0; i < n; i++) {
+                if (dense[i] != 0) {
+                    rows[k] = i;
+                    values[k++] = dense[i];
+                }
+            }
+            for (Binning binning : Binning.values()) {
+                DiscretizationSettings settings = new DiscretizationSettings(1 + random.nextInt(10), binning);
+                BinnedColumn expected = Discretizer.discretize(dense, settings);
+                BinnedColumn actual = Discretizer.discretize(n, rows, values, settings);
+
+                assertTrue(actual.isSparse());
+                assertEquals(expected.bins(), actual.bins());
+                assertArrayEquals(codes(expected), codes(actual));
+                assertEquals(expected.entropy(), actual.entropy(), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void testSparseColumnWithoutZerosBinsEntirelyFromEntries() {
+        // A token present in every document: no row holds zero.
+        BinnedColumn binned = Discretizer.discretize(4, new int[] { 0, 1, 2, 3 }, new double[] { 1, 2, 3, 1 },
+                new DiscretizationSettings(10, Binning.EQUAL_WIDTH));
+
+        assertEquals(Discretizer.equalWidth(new double[] { 1, 2, 3, 1 }, 10).entropy(), binned.entropy(), 1e-12);
+        assertEquals(4, Arrays.stream(binned.counts()).sum());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.featureselection.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoringExecutorTest {
+
+    @Test
+    void testMapWritesResultsByIndex() {
+        ScoringExecutor executor = new ScoringExecutor(4);
+        try {
+            double[] out = executor.map(1000, i -> i * 2.0);
+            for (int i = 0; i < out.length; i++) {
+                assertEquals(i * 2.0, out[i]);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testForEachVisitsEveryIndexOnce() {
+        ScoringExecutor executor = new ScoringExecutor(3);
+        try {
+            AtomicInteger[] visits = new AtomicInteger[257];
+            for (int i = 0; i < visits.length; i++) {
+                visits[i] = new AtomicInteger();
+            }
+            executor.forEach(visits.length, i -> visits[i].incrementAndGet());
+            for (AtomicInteger v : visits) {
+                assertEquals(1, v.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testSequentialRunsInline() {
+        ScoringExecutor executor = ScoringExecutor.sequential();
+        Thread caller = Thread.currentThread();
+        executor.forEach(10, i -> assertSame(caller, Thread.currentThread()));
+        assertEquals(1, executor.getParallelism());
+    }
+
+    @Test
+    void testExceptionsPropagate() {
+        ScoringExecutor executor = new ScoringExecutor(2);
+        try {
+            assertThrows(IllegalStateException.class, () -> executor.forEach(100, i -> {
+                if (i == 57)
+                    throw new IllegalStateException("boom");
+            }));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testInterruptingTheCallerStopsTheWork() throws InterruptedException {
+        ScoringExecutor executor = new ScoringExecutor(2);
+        try {
+            AtomicInteger visited = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(1);
+            AtomicReference<Throwable> outcome = new AtomicReference<>();
+            Thread caller = new Thread(() -> {
+                try {
+                    executor.forEach(1000, i -> {
+                        started.countDown();
+                        visited.incrementAndGet();
+                        sleepQuietly(5);
+                    });
+                } catch (Throwable e) {
+                    outcome.set(e);
+                }
+            });
+            caller.start();
+            assertTrue(started.await(2, TimeUnit.SECONDS));
+            caller.interrupt();
+            caller.join(2000);
+
+            assertFalse(caller.isAlive());
+            assertInstanceOf(CancellationException.class, outcome.get());
+            int seen = visited.get();
+            Thread.sleep(50);
+            assertTrue(visited.get() < 1000, "workers stop claiming indices");
+            assertTrue(visited.get() <= seen + 2, "at most the in-flight indices finish");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
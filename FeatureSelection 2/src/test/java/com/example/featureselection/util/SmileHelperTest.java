@@ -0,0 +1,38 @@
+package com.example.featureselection.util;
+
+import org.junit.jupiter.api.Test;
+import smile.data.DataFrame;
+import smile.data.type.DataTypes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmileHelperTest {
+
+    @Test
+    void testRowsAreTransposedIntoTypedColumns() {
+        double[][] x = { { 1.0, 2.0 }, { 3.0, 4.0 }, { 5.0, 6.0 } };
+        DataFrame df = SmileHelper.toDataFrame(x, new int[] { 0, 1, 0 });
+
+        assertEquals(3, df.nrows());
+        assertEquals(3, df.ncols());
+        assertEquals("V1", df.schema().field(1).name);
+        assertEquals(DataTypes.IntegerType, df.schema().field(2).type);
+        assertEquals(6.0, df.getDouble(2, 1));
+        assertEquals(1, df.getInt(1, 2));
+    }
+
+    @Test
+    void testBuilderWrapsColumnsWithoutCopying() {
+        double[] values = { 1.5, 2.5 };
+        DataFrame df = SmileHelper.builder().doubleColumn("a", values).doubleColumn("Target", new double[2]).build();
+
+        values[0] = 9.0;
+        assertEquals(9.0, df.getDouble(0, 0));
+        assertEquals(DataTypes.DoubleType, df.schema().field("Target").type);
+    }
+
+    @Test
+    void testEmptyInputHasNoFrame() {
+        assertNull(SmileHelper.toDataFrame(new double[0][]));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.featureselection.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StageRunnerTest {
+
+    private ExecutorService pool;
+    private StageRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(4);
+        runner = new StageRunner(pool, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testFailedStageFallsBackWithoutAffectingSiblings() {
+        CompletableFuture<Integer> failing = runner.submit("failing", () -> {
+            throw new IllegalStateException("boom");
+        }, -1);
+        CompletableFuture<Integer> healthy = runner.submit("healthy", () -> 7, -1);
+
+        assertEquals(-1, failing.join());
+        assertEquals(7, healthy.join());
+    }
+
+    @Test
+    void testSlowStageTimesOut() {
+        CountDownLatch never = new CountDownLatch(1);
+        CompletableFuture<String> slow = runner.submit("slow", () -> {
+            try {
+                never.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "late";
+        }, "fallback");
+
+        assertEquals("fallback", slow.join());
+    }
+
+    @Test
+    void testTimedOutStageIsInterrupted() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<String> slow = runner.submit("slow", () -> {
+            try {
+                new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        }, "fallback");
+
+        assertEquals("fallback", slow.join());
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS), "the stage thread should be interrupted");
+    }
+
+    @Test
+    void testTimeoutCountsFromStageStart() {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            StageRunner serial = new StageRunner(single, 500);
+            // The second stage waits ~400 ms in the queue but runs well within its own timeout.
+            CompletableFuture<String> first = serial.submit("first", () -> sleep(400, "first"), "fallback");
+            CompletableFuture<String> second = serial.submit("second", () -> sleep(300, "second"), "fallback");
+
+            assertEquals("first", first.join());
+            assertEquals("second", second.join());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void testListenerCanCancelRunningStage() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        List<Future<?>> executions = new CopyOnWriteArrayList<>();
+        StageRunner observed = new StageRunner(pool, 0).observed(new StageListener() {
+            @Override
+            public void started(String stage) {
+            }
+
+            @Override
+            public void running(String stage, Future<?> execution) {
+                executions.add(execution);
+                running.countDown();
+            }
+
+            @Override
+            public void finished(String stage, boolean succeeded) {
+            }
+        });
+        CompletableFuture<Integer> stage = observed.submit("long", () -> {
+            while (true) {
+                StageRunner.checkInterrupted();
+                Thread.onSpinWait();
+            }
+        }, -1);
+
+        assertTrue(running.await(2, TimeUnit.SECONDS));
+        executions.get(0).cancel(true);
+
+        assertEquals(-1, stage.join());
+    }
+
+    @Test
+    void testStagesRunConcurrently() {
+        CountDownLatch both = new CountDownLatch(2);
+        Runnable meet = () -> {
+            both.countDown();
+            try {
+                assertTrue(both.await(2, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        CompletableFuture<Boolean> a = runner.submit("a", () -> { meet.run(); return true; }, false);
+        CompletableFuture<Boolean> b = runner.submit("b", () -> { meet.run(); return true; }, false);
+
+        assertTrue(a.join());
+        assertTrue(b.join());
+    }
+
+    @Test
+    void testDependentStageReceivesDependencyResult() {
+        CompletableFuture<Integer> base = runner.submit("base", () -> 20, 0);
+        CompletableFuture<Integer> dependent = runner.then(base, "dependent", v -> v + 1, 0);
+
+        assertEquals(21, dependent.join());
+    }
+
+    @Test
+    void testObservedRunnerReportsStages() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        StageRunner observed = runner.observed(new StageListener() {
+            @Override
+            public void started(String stage) {
+                if (stage.equals("aborted"))
+                    throw new IllegalStateException("cancelled");
+                events.add("start " + stage);
+            }
+
+            @Override
+            public void finished(String stage, boolean succeeded) {
+                events.add((succeeded ? "done " : "failed ") + stage);
+            }
+        });
+
+        assertEquals(1, observed.submit("ok", () -> 1, 0).join());
+        assertEquals(0, observed.submit("broken", () -> {
+            throw new IllegalStateException("boom");
+        }, 0).join());
+        assertEquals(0, observed.submit("aborted", () -> 1, 0).join());
+
+        assertEquals(List.of("start ok", "done ok", "start broken", "failed broken", "failed aborted"), events);
+    }
+
+    private static String sleep(long millis, String value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.featureselection.wrappers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoldsTest {
+
+    @Test
+    void testFoldsPartitionRows() {
+        Folds folds = Folds.shuffled(23, 5, 42);
+
+        int[] seen = new int[23];
+        for (int f = 0; f < folds.count(); f++) {
+            assertEquals(23, folds.train(f).length + folds.test(f).length);
+            assertTrue(folds.test(f).length == 4 || folds.test(f).length == 5);
+            for (int row : folds.test(f)) {
+                seen[row]++;
+            }
+        }
+        for (int count : seen) {
+            assertEquals(1, count);
+        }
+        assertArrayEquals(folds.test(2), Folds.shuffled(23, 5, 42).test(2));
+    }
+
+    @Test
+    void testStratifiedFoldsKeepClassProportions() {
+        int[] y = new int[100];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = i < 80 ? 0 : 1;
+        }
+        Folds folds = Folds.stratified(y, 5, 42);
+
+        for (int f = 0; f < folds.count(); f++) {
+            int minority = 0;
+            for (int row : folds.test(f)) {
+                minority += y[row];
+            }
+            assertEquals(20, folds.test(f).length);
+            assertEquals(4, minority);
+        }
+    }
+
+    @Test
+    void testCrossValidatorScoresInformativeSubsetHigher() {
+        Random random = new Random(9);
+        double[][] x = new double[100][3];
+        int[] y = new int[100];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = i % 2;
+            x[i][0] = random.nextGaussian();
+            x[i][1] = y[i] * 5 + random.nextGaussian();
+            x[i][2] = random.nextGaussian();
+        }
+        SubsetCrossValidator validator = SubsetCrossValidator.classification(x, y, 5, 20);
+
+        assertTrue(validator.score(new int[] { 1 }) > 0.9);
+        assertTrue(validator.score(new int[] { 1 }) > validator.score(new int[] { 0, 2 }));
+    }
+}
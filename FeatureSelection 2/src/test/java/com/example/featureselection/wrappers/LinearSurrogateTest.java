@@ -0,0 +1,84 @@
+package com.example.featureselection.wrappers;
+
+import com.example.featureselection.util.ScoringExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinearSurrogateTest {
+
+    private static double[][] randomMatrix(Random random, int n, int p) {
+        double[][] x = new double[n][p];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < p; j++) {
+                x[i][j] = random.nextGaussian();
+            }
+        }
+        return x;
+    }
+
+    @Test
+    void testForwardAndBackwardAgreeOnTheSameSubset() {
+        Random random = new Random(1);
+        double[][] x = randomMatrix(random, 60, 6);
+        double[] y = new double[60];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = 2 * x[i][0] - x[i][2] + 0.5 * x[i][4] + random.nextGaussian() * 0.1;
+        }
+        LinearSurrogate surrogate = LinearSurrogate.regression(x, y);
+
+        LinearSurrogate.Forward forward = surrogate.forward();
+        forward.add(0);
+        forward.add(2);
+        double predicted = forward.scoreWith(4);
+        forward.add(4);
+        assertEquals(predicted, forward.score(), 1e-9);
+
+        LinearSurrogate.Backward backward = surrogate.backward(new int[] { 0, 1, 2, 4 });
+        double withoutOne = backward.scoreWithout(1);
+        backward.remove(1);
+        assertEquals(withoutOne, backward.score(), 1e-9);
+
+        LinearSurrogate.Backward direct = surrogate.backward(new int[] { 0, 2, 4 });
+        assertEquals(direct.score(), backward.score(), 1e-9);
+        assertTrue(direct.score() > 0.99);
+        double adjusted = 1 - (1 - direct.score()) * (60 - 1) / (60 - 3 - 1);
+        assertEquals(adjusted, forward.score(), 1e-6);
+    }
+
+    @Test
+    void testClassificationFavoursSeparatingFeature() {
+        Random random = new Random(2);
+        double[][] x = randomMatrix(random, 90, 4);
+        int[] y = new int[90];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = i % 3;
+            x[i][1] += 3 * y[i];
+        }
+        LinearSurrogate.Forward forward = LinearSurrogate.classification(x, y).forward();
+
+        assertTrue(forward.scoreWith(1) > forward.scoreWith(0));
+        assertTrue(forward.scoreWith(1) > forward.scoreWith(3));
+    }
+
+    @Test
+    void testFastWrappersKeepInformativeFeatures() {
+        Random random = new Random(3);
+        double[][] x = randomMatrix(random, 100, 12);
+        double[] y = new double[100];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = 3 * x[i][5] + 2 * x[i][7] + random.nextGaussian() * 0.1;
+        }
+
+        SFS sfs = new SFS(ScoringExecutor.sequential(), SubsetEvaluation.FAST, false);
+        assertEquals(5, sfs.select(x, y).get(0));
+        assertTrue(sfs.select(x, y).contains(7));
+
+        SBS sbs = new SBS(SubsetEvaluation.FAST, false);
+        assertTrue(sbs.select(x, y).containsAll(List.of(5, 7)));
+        assertEquals(5, sbs.select(x, y).size());
+    }
+}
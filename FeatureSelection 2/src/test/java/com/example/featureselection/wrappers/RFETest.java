@@ -0,0 +1,61 @@
+package com.example.featureselection.wrappers;
+
+import com.example.featureselection.util.ScoringExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RFETest {
+
+    @Test
+    void testDropLeastImportantRemovesBatch() {
+        int[] features = { 2, 4, 6, 8, 10 };
+        double[] importance = { 0.5, 0.1, 0.9, 0.1, 0.3 };
+
+        assertArrayEquals(new int[] { 2, 6 }, RFE.dropLeastImportant(features, importance, 3));
+        // Tied importance drops the higher index first.
+        assertArrayEquals(new int[] { 2, 4, 6, 10 }, RFE.dropLeastImportant(features, importance, 1));
+    }
+
+    @Test
+    void testWarmStartRanksFirstRound() {
+        double[][] x = new double[30][8];
+        int[] y = new int[30];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = i % 2;
+            for (int j = 0; j < 8; j++) {
+                x[i][j] = i * (j + 1);
+            }
+        }
+        double[] importance = { 8, 7, 1, 6, 2, 5, 3, 4 };
+
+        // Three removals reach the minimum size in one round, so only the supplied
+        // importance decides.
+        List<Integer> selected = new RFE(ScoringExecutor.sequential(), 3, false).select(x, y, importance);
+
+        assertEquals(List.of(0, 1, 3, 5, 7), selected);
+    }
+
+    @Test
+    void testCrossValidatedStopKeepsInformativeFeatures() {
+        Random random = new Random(11);
+        double[][] x = new double[100][12];
+        int[] y = new int[100];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = i % 2;
+            for (int j = 0; j < x[i].length; j++) {
+                x[i][j] = random.nextGaussian();
+            }
+            x[i][4] = y[i] * 10 + random.nextDouble();
+        }
+
+        List<Integer> selected = new RFE(ScoringExecutor.sequential(), 0.5, true).select(x, y);
+
+        assertTrue(selected.contains(4));
+        assertTrue(selected.size() >= 5);
+        assertEquals(selected.size(), selected.stream().distinct().count());
+    }
+}
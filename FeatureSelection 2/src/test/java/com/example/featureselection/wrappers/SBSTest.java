@@ -0,0 +1,80 @@
+package com.example.featureselection.wrappers;
+
+import com.example.featureselection.model.WrapperBudget;
+import com.example.featureselection.util.ScoringExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SBSTest {
+
+    private static double[][] x;
+    private static int[] y;
+
+    static {
+        Random random = new Random(3);
+        x = new double[80][9];
+        y = new int[80];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = i % 2;
+            for (int j = 0; j < x[i].length; j++) {
+                x[i][j] = random.nextGaussian();
+            }
+            x[i][2] = y[i] * 10 + random.nextDouble();
+        }
+    }
+
+    @Test
+    void testEvaluationBudgetStopsSearch() {
+        SBS sbs = new SBS(ScoringExecutor.sequential(), SubsetEvaluation.FOREST, false, 12, 0, false);
+
+        SubsetSearch search = sbs.search(x, y);
+
+        WrapperBudget budget = search.getBudget();
+        assertTrue(budget.isExhausted());
+        assertEquals(12, budget.getEvaluations());
+        assertEquals(12, budget.getMaxEvaluations());
+        // The first step (9 candidates) completes; the second runs out.
+        assertEquals(8, search.getSelected().size());
+    }
+
+    @Test
+    void testParallelSearchReportsUnlimitedBudget() {
+        ScoringExecutor executor = new ScoringExecutor(4);
+        try {
+            SubsetSearch search = new SBS(executor, SubsetEvaluation.FOREST, false, 0, 0, false).search(x, y);
+
+            assertEquals(5, search.getSelected().size());
+            assertTrue(search.getSelected().contains(2));
+            assertFalse(search.getBudget().isExhausted());
+            assertEquals(9 + 8 + 7 + 6, search.getBudget().getEvaluations());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testFloatingSearchKeepsInformativeFeature() {
+        SBS sbs = new SBS(ScoringExecutor.sequential(), SubsetEvaluation.FOREST, false, 0, 0, true);
+
+        SubsetSearch search = sbs.search(x, y);
+        List<Integer> selected = search.getSelected();
+
+        assertTrue(selected.contains(2));
+        assertTrue(selected.size() >= 5);
+        assertEquals(selected.size(), selected.stream().distinct().count());
+        assertTrue(search.getBudget().getEvaluations() > 1);
+    }
+
+    @Test
+    void testSubsetEditsKeepOrder() {
+        int[] subset = { 1, 4, 7 };
+
+        assertArrayEquals(new int[] { 1, 7 }, SBS.without(subset, 1));
+        assertArrayEquals(new int[] { 0, 1, 4, 7 }, SBS.with(subset, 0));
+        assertArrayEquals(new int[] { 1, 4, 5, 7 }, SBS.with(subset, 5));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.featureselection.wrappers;
+
+import com.example.featureselection.util.ScoringExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SFSTest {
+
+    @Test
+    void testParallelSelectionPicksInformativeFeatureFirst() {
+        Random random = new Random(5);
+        double[][] x = new double[80][6];
+        int[] y = new int[80];
+        for (int i = 0; i < x.length; i++) {
+            y[i] = i % 2;
+            for (int j = 0; j < x[i].length; j++) {
+                x[i][j] = random.nextGaussian();
+            }
+            x[i][3] = y[i] * 10 + random.nextDouble();
+        }
+
+        ScoringExecutor executor = new ScoringExecutor(4);
+        try {
+            List<Integer> selected = new SFS(executor).select(x, y);
+
+            assertFalse(selected.isEmpty());
+            assertEquals(3, selected.get(0));
+            assertEquals(selected.size(), selected.stream().distinct().count());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}